@@ -2,6 +2,9 @@ package com.glaikunt.framework;
 
 import com.badlogic.gdx.Gdx;
 import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.application.ParallelExecutor;
+import com.glaikunt.framework.application.SerialExecutor;
+import com.glaikunt.framework.application.TraceRecorder;
 import com.glaikunt.framework.splash.SplashScreen;
 
 import static com.badlogic.gdx.utils.Logger.DEBUG;
@@ -12,10 +15,31 @@ public class DynamicDisplay extends Display {
     public static final float WORLD_WIDTH = 1280; //640 //1980 //320
     public static final float WORLD_HEIGHT = 960; //480 //1080 //240
 
+    private final ParallelExecutor parallelExecutor;
+    private final TraceRecorder traceRecorder;
     private ApplicationResources applicationResources2D;
 
     private boolean paused;
 
+    public DynamicDisplay() {
+        this(new SerialExecutor());
+    }
+
+    /**
+     * @param parallelExecutor for the platforms with threads, html stays serial
+     */
+    public DynamicDisplay(ParallelExecutor parallelExecutor) {
+        this(parallelExecutor, new TraceRecorder());
+    }
+
+    /**
+     * @param traceRecorder handed in so something outside the game (the desktop dumper) can read it
+     */
+    public DynamicDisplay(ParallelExecutor parallelExecutor, TraceRecorder traceRecorder) {
+        this.parallelExecutor = parallelExecutor;
+        this.traceRecorder = traceRecorder;
+    }
+
     @Override
     public void create() {
 
@@ -30,6 +54,8 @@ public class DynamicDisplay extends Display {
 
     private void initApplicationResource2D() {
         this.applicationResources2D = new ApplicationResources(this);
+        this.applicationResources2D.setParallelExecutor(parallelExecutor);
+        this.applicationResources2D.setTraceRecorder(traceRecorder);
 //        this.applicationResources2D.getCacheRetriever().loadCache();
 //        while (!applicationResources2D.getCacheRetriever().isCacheLoaded()) {
 //            this.applicationResources2D.getCacheRetriever().update();
@@ -29,6 +29,9 @@ public class ApplicationResources {
     private final Display display;
     private final World world;
     private boolean enableBox2d;
+    private float interpolationAlpha = 1f;
+    private ParallelExecutor parallelExecutor = new SerialExecutor();
+    private TraceRecorder traceRecorder = new TraceRecorder();
 
     public ApplicationResources(Display display) {
         this.display = display;
@@ -39,6 +42,18 @@ public class ApplicationResources {
         this.enableBox2d = false;
     }
 
+    /**
+     * Headless, for running the engine and the AI without a display, Box2D or preferences (tests and tools)
+     */
+    public ApplicationResources(Engine engine) {
+        this.display = null;
+        this.engine = engine;
+        this.audioManager = new AudioManager();
+        this.world = null;
+        this.preferences = null;
+        this.enableBox2d = false;
+    }
+
     public Engine getEngine() {
         return engine;
     }
@@ -113,4 +128,31 @@ public class ApplicationResources {
     public boolean isEnableBox2d() {
         return enableBox2d;
     }
+
+    public ParallelExecutor getParallelExecutor() {
+        return parallelExecutor;
+    }
+
+    public void setParallelExecutor(ParallelExecutor parallelExecutor) {
+        this.parallelExecutor = parallelExecutor;
+    }
+
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    public void setTraceRecorder(TraceRecorder traceRecorder) {
+        this.traceRecorder = traceRecorder;
+    }
+
+    /**
+     * @return how far between the last two fixed steps the current frame is drawn, 0 is the previous step and 1 the latest
+     */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+
+    public void setInterpolationAlpha(float interpolationAlpha) {
+        this.interpolationAlpha = interpolationAlpha;
+    }
 }
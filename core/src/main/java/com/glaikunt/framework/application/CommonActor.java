@@ -48,6 +48,17 @@ public abstract class CommonActor extends Actor {
         return size.y;
     }
 
+    /**
+     * Where to draw, between the last two physics steps
+     */
+    public float getDrawX() {
+        return pos.getInterpolatedX(getApplicationResources().getInterpolationAlpha());
+    }
+
+    public float getDrawY() {
+        return pos.getInterpolatedY(getApplicationResources().getInterpolationAlpha());
+    }
+
     public Entity getEntity() {
         return entity;
     }
@@ -0,0 +1,21 @@
+package com.glaikunt.framework.application;
+
+/**
+ * Runs a range of independent work items across however many threads the platform has.
+ * Core only ships the serial one, GWT has no threads, the desktop launcher hands in a ForkJoin backed one.
+ */
+public interface ParallelExecutor {
+
+    /**
+     * Splits [0, count) into at most {@link #getParallelism()} contiguous chunks and blocks until every chunk is done.
+     * Chunk n always goes to worker n so callers can keep per-worker scratch.
+     */
+    void forRange(int count, RangeTask task);
+
+    int getParallelism();
+
+    interface RangeTask {
+
+        void run(int worker, int from, int to);
+    }
+}
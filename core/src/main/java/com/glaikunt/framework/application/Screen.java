@@ -103,11 +103,8 @@ public abstract class Screen implements com.badlogic.gdx.Screen {
     @Override
     public void render(float delta) {
 
-        if (getApplicationResources().isEnableBox2d()) {
-            accumUpdate(delta);
-        } else {
-            dynamicDelta(delta);
-        }
+        fixedUpdate(delta);
+        frameUpdate(delta);
 
         getApplicationResources().getAudioManager().update(delta);
         render2D();
@@ -118,24 +115,11 @@ public abstract class Screen implements com.badlogic.gdx.Screen {
 //        }
     }
 
-    private void dynamicDelta(float delta) {
-        if (applicationResources.getDisplay().isPaused()) {
-            return;
-        }
-
-        getApplicationResources().getEngine().update(delta);
-        update(delta);
-
-        this.logTimer.tick(delta);
-        if (logTimer.isTimerEventReady()) {
-            if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG,
-                    "delta time [" + delta + "]"
-                            + ", fps [" + Gdx.graphics.getFramesPerSecond() + "]"
-            );
-        }
-    }
-
-    private void accumUpdate(float delta) {
+    /**
+     * Steps the simulation (box2d or the pixel physics) in fixed TIME_STEP chunks, capped at MAX_SUBSTEPS a frame
+     * so a long frame doesn't snowball. Whatever is left over becomes the interpolation alpha for drawing.
+     */
+    private void fixedUpdate(float delta) {
         if (applicationResources.getDisplay().isPaused()) {
             return;
         }
@@ -143,22 +127,29 @@ public abstract class Screen implements com.badlogic.gdx.Screen {
         accum += delta;
         int count = 0;
 
-        while (accum >= GameConstants.TIME_STEP) {
+        while (accum >= GameConstants.TIME_STEP && count < GameConstants.MAX_SUBSTEPS) {
             accum -= GameConstants.TIME_STEP;
 
             if (!((DynamicDisplay) getDisplay()).isPaused()) {
 
-                getApplicationResources().getWorld().step(GameConstants.TIME_STEP, GameConstants.VELOCITY_ITERATIONS, GameConstants.POSITION_ITERATIONS);
+                if (getApplicationResources().isEnableBox2d()) {
+                    getApplicationResources().getWorld().step(GameConstants.TIME_STEP, GameConstants.VELOCITY_ITERATIONS, GameConstants.POSITION_ITERATIONS);
+                }
+                getApplicationResources().getTraceRecorder().nextFrame();
                 getApplicationResources().getEngine().update(GameConstants.TIME_STEP);
                 update(GameConstants.TIME_STEP);
             }
             count++;
         }
+        if (accum >= GameConstants.TIME_STEP) {
+            accum %= GameConstants.TIME_STEP; // fell behind, drop the backlog rather than spiral
+        }
+        getApplicationResources().setInterpolationAlpha(accum / GameConstants.TIME_STEP);
 
-        if (Gdx.input.getInputProcessor() != null && lastCount == 0 && count != 0) {
+        if (Gdx.input.getInputProcessor() instanceof PlayerInputComponent && lastCount == 0 && count != 0) {
             ((PlayerInputComponent) Gdx.input.getInputProcessor()).resetStoreInputs();
         }
-        if (Gdx.input.getInputProcessor() != null && count == 0) {
+        if (Gdx.input.getInputProcessor() instanceof PlayerInputComponent && count == 0) {
             ((PlayerInputComponent) Gdx.input.getInputProcessor()).storeInputs();
         }
 
@@ -174,6 +165,13 @@ public abstract class Screen implements com.badlogic.gdx.Screen {
         this.lastCount = count;
     }
 
+    /**
+     * Once a frame after the fixed steps, for anything that should move at the display rate (cameras following an interpolated position)
+     */
+    public void frameUpdate(float delta) {
+
+    }
+
     public abstract void update(float delta);
 
     public abstract void render2D();
@@ -0,0 +1,16 @@
+package com.glaikunt.framework.application;
+
+public class SerialExecutor implements ParallelExecutor {
+
+    @Override
+    public void forRange(int count, RangeTask task) {
+        if (count > 0) {
+            task.run(0, 0, count);
+        }
+    }
+
+    @Override
+    public int getParallelism() {
+        return 1;
+    }
+}
@@ -0,0 +1,18 @@
+package com.glaikunt.framework.application;
+
+/**
+ * What a {@link TraceRecorder} record is about, the ordinal is what goes in the record so only ever add to the end
+ */
+public enum TraceEvent {
+
+    /** entity, -, tree status, -, -, 1 if it carried on with a running leaf */
+    TREE_STEP,
+    /** entity, condition, status, x, y, 1 if it came from the blackboard cache */
+    CONDITION,
+    /** entity, action, status, x, y, and whatever the action wants to note */
+    ACTION,
+    /** body a, body b, body a's type, normal x, normal y, time of impact */
+    CONTACT,
+    /** enemy body, -, -, contacts begun, contacts ended, contacts now */
+    ENEMY_CONTACTS
+}
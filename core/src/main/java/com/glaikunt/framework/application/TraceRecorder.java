@@ -0,0 +1,143 @@
+package com.glaikunt.framework.application;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.NumberUtils;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Fixed size binary records in a ring that's allocated up front, so recording costs a few int writes and nothing
+ * for the GC. Off by default, switch it on at runtime with {@link #setEnabled(boolean)}.
+ * Once the ring is full the oldest records get written over.
+ *
+ * Only the game thread records. Something else can read behind it (the desktop dumper does),
+ * {@link #getWritten()} is published after each record so whatever's below it is complete,
+ * but check it again after copying as the writer may have lapped you in the meantime.
+ *
+ * Record layout, RECORD_INTS ints each: frame, event, entity/body id, task id, status, then three floats as raw int bits.
+ */
+public class TraceRecorder {
+
+    public static final int RECORD_INTS = 8;
+    public static final int DEFAULT_CAPACITY = 1 << 14; // records, 512KB
+
+    private final int[] ring;
+    private final int capacity;
+    private final int mask;
+    private volatile long written;
+
+    private boolean enabled;
+    private int frame;
+    private Runnable onFirstEnable;
+
+    // task names by id, added to while the trees are built and read by the dumper
+    private final Array<String> names = new Array<>();
+    private final ObjectIntMap<String> ids = new ObjectIntMap<>();
+
+    public TraceRecorder() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity in records, rounded up to a power of two
+     */
+    public TraceRecorder(int capacity) {
+        int c = 1;
+        while (c < capacity) {
+            c <<= 1;
+        }
+        this.capacity = c;
+        this.mask = c - 1;
+        this.ring = new int[c * RECORD_INTS];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (enabled && onFirstEnable != null) {
+            Runnable run = onFirstEnable;
+            onFirstEnable = null;
+            run.run();
+        }
+        this.enabled = enabled;
+    }
+
+    /**
+     * Run once, just before recording is first switched on, so whatever reads the ring only starts if it's wanted
+     */
+    public void setOnFirstEnable(Runnable onFirstEnable) {
+        this.onFirstEnable = onFirstEnable;
+    }
+
+    /**
+     * Once a fixed step, records carry the frame they were made in
+     */
+    public void nextFrame() {
+        frame++;
+    }
+
+    public int getFrame() {
+        return frame;
+    }
+
+    public void record(TraceEvent event, int entity, int task, int status, float a, float b, float c) {
+        if (!enabled) {
+            return;
+        }
+        long n = written;
+        int i = (int) (n & mask) * RECORD_INTS;
+        int[] r = ring;
+        r[i] = frame;
+        r[i + 1] = event.ordinal();
+        r[i + 2] = entity;
+        r[i + 3] = task;
+        r[i + 4] = status;
+        r[i + 5] = NumberUtils.floatToRawIntBits(a);
+        r[i + 6] = NumberUtils.floatToRawIntBits(b);
+        r[i + 7] = NumberUtils.floatToRawIntBits(c);
+        written = n + 1;
+    }
+
+    /**
+     * @return the id to record for the name, the same one every time it's asked for
+     */
+    public synchronized int register(String name) {
+        int id = ids.get(name, -1);
+        if (id < 0) {
+            id = names.size;
+            names.add(name);
+            ids.put(name, id);
+        }
+        return id;
+    }
+
+    public synchronized int getNameCount() {
+        return names.size;
+    }
+
+    public synchronized String getName(int id) {
+        return names.get(id);
+    }
+
+    /**
+     * Records ever written, the ones still in the ring are the last {@link #getCapacity()} of them
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Copies count records starting at record number from into out, no checks that they're still in the ring
+     */
+    public void copy(long from, int count, int[] out) {
+        for (int k = 0; k < count; k++) {
+            int i = (int) ((from + k) & mask) * RECORD_INTS;
+            System.arraycopy(ring, i, out, k * RECORD_INTS, RECORD_INTS);
+        }
+    }
+}
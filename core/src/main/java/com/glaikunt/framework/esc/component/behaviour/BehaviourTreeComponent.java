@@ -0,0 +1,55 @@
+package com.glaikunt.framework.esc.component.behaviour;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+
+/**
+ * The tree can be shared, anything per entity goes on the entity's other components
+ */
+public class BehaviourTreeComponent implements Component {
+
+    private final BehaviorTree<Entity> behaviorTree;
+    private final BlackboardPrefetch prefetch;
+    private long lastStepFrame = -1;
+    private boolean pause;
+
+    public BehaviourTreeComponent(BehaviorTree<Entity> behaviorTree) {
+        this(behaviorTree, null);
+    }
+
+    public BehaviourTreeComponent(BehaviorTree<Entity> behaviorTree, BlackboardPrefetch prefetch) {
+        this.behaviorTree = behaviorTree;
+        this.prefetch = prefetch;
+    }
+
+    public BehaviorTree<Entity> getBehaviorTree() {
+        return behaviorTree;
+    }
+
+    /**
+     * What can be worked out for this entity before its step, null if nothing
+     */
+    public BlackboardPrefetch getPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * The BehaviourTreeSystem frame it last stepped on, -1 if it hasn't yet
+     */
+    public long getLastStepFrame() {
+        return lastStepFrame;
+    }
+
+    public void setLastStepFrame(long lastStepFrame) {
+        this.lastStepFrame = lastStepFrame;
+    }
+
+    public boolean isPause() {
+        return pause;
+    }
+
+    public void setPause(boolean pause) {
+        this.pause = pause;
+    }
+}
@@ -0,0 +1,164 @@
+package com.glaikunt.framework.esc.component.behaviour;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.ai.btree.Task;
+import com.glaikunt.framework.game.enemy.Stance;
+
+import java.util.Arrays;
+
+/**
+ * What one enemy's tree needs to remember between steps, the tree itself is shared by the whole stance.
+ *
+ * Conditions cache their result in a slot along with the clock at the time, a slot is stale once any fact
+ * it depends on has been raised after that.
+ *
+ * Volatile conditions can't be cached but can leave a reading here instead, what they saw in the prefetch,
+ * for the step to act on. Those only last the frame.
+ */
+public class BlackboardComponent implements Component {
+
+    private static final int NOT_CACHED = -1;
+    private static final int NO_READING = -1;
+    private static final BlackboardFact[] FACTS = BlackboardFact.values();
+
+    private final Stance stance;
+    private Task.Status lastStatus = Task.Status.FRESH;
+
+    private int clock;
+    private final int[] raisedAt = new int[FACTS.length];
+    private int[] cachedAt = new int[0];
+    private Task.Status[] cached = new Task.Status[0];
+    private int[] readings = new int[0];
+    private Entity[] readingTargets = new Entity[0];
+
+    private ResumableTask running;
+    private int runningSince;
+
+    public BlackboardComponent(Stance stance) {
+        this.stance = stance;
+    }
+
+    public Stance getStance() {
+        return stance;
+    }
+
+    public void raise(BlackboardFact fact) {
+        raisedAt[fact.ordinal()] = ++clock;
+    }
+
+    /**
+     * @return the cached result for the slot, or null if there isn't one or something it depends on has changed since
+     */
+    public Task.Status getCached(int slot, int dependsOn) {
+        if (slot >= cachedAt.length || cachedAt[slot] == NOT_CACHED) {
+            return null;
+        }
+        return changedSince(cachedAt[slot], dependsOn) ? null : cached[slot];
+    }
+
+    public void setCached(int slot, Task.Status status) {
+        if (slot >= cachedAt.length) {
+            int[] oldAt = cachedAt;
+            Task.Status[] old = cached;
+            cachedAt = new int[slot + 1];
+            cached = new Task.Status[slot + 1];
+            Arrays.fill(cachedAt, NOT_CACHED);
+            System.arraycopy(oldAt, 0, cachedAt, 0, oldAt.length);
+            System.arraycopy(old, 0, cached, 0, old.length);
+        }
+        cachedAt[slot] = clock;
+        cached[slot] = status;
+    }
+
+    /**
+     * @param reading what the condition saw, anything but negative
+     * @param target whatever it picked out, may be null
+     */
+    public void setReading(int slot, int reading, Entity target) {
+        if (slot >= readings.length) {
+            int[] old = readings;
+            Entity[] oldTargets = readingTargets;
+            readings = new int[slot + 1];
+            readingTargets = new Entity[slot + 1];
+            Arrays.fill(readings, NO_READING);
+            System.arraycopy(old, 0, readings, 0, old.length);
+            System.arraycopy(oldTargets, 0, readingTargets, 0, oldTargets.length);
+        }
+        readings[slot] = reading;
+        readingTargets[slot] = target;
+    }
+
+    public boolean hasReading(int slot) {
+        return slot < readings.length && readings[slot] != NO_READING;
+    }
+
+    public int getReading(int slot) {
+        return readings[slot];
+    }
+
+    public Entity getReadingTarget(int slot) {
+        return readingTargets[slot];
+    }
+
+    public void clearReading(int slot) {
+        if (slot < readings.length) {
+            readings[slot] = NO_READING;
+            readingTargets[slot] = null;
+        }
+    }
+
+    /**
+     * Drops whatever the prefetch left that the step didn't use, it's out of date by next frame
+     */
+    public void clearReadings() {
+        Arrays.fill(readings, NO_READING);
+        Arrays.fill(readingTargets, null);
+    }
+
+    private boolean changedSince(int at, int dependsOn) {
+        for (int f = 0; f < FACTS.length; f++) {
+            if ((dependsOn & FACTS[f].mask) != 0 && raisedAt[f] > at) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The leaf this enemy left running last step, if nothing's been raised since
+     */
+    public ResumableTask getRunning() {
+        if (running != null && changedSince(runningSince, -1)) {
+            running = null;
+        }
+        return running;
+    }
+
+    public void setRunning(ResumableTask running) {
+        if (this.running != running) {
+            this.running = running;
+            this.runningSince = clock;
+        }
+    }
+
+    /**
+     * How the last step of this enemy's tree ended
+     */
+    public Task.Status getLastStatus() {
+        return lastStatus;
+    }
+
+    public void setLastStatus(Task.Status lastStatus) {
+        this.lastStatus = lastStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "BlackboardComponent{" +
+                "stance=" + stance +
+                ", lastStatus=" + lastStatus +
+                ", running=" + (running == null ? null : running.getClass().getSimpleName()) +
+                '}';
+    }
+}
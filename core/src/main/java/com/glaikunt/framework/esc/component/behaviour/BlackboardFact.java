@@ -0,0 +1,23 @@
+package com.glaikunt.framework.esc.component.behaviour;
+
+/**
+ * Things a behaviour tree condition can depend on. Raise one on a {@link BlackboardComponent} when it changes
+ * and every cached condition that depends on it gets evaluated again.
+ */
+public enum BlackboardFact {
+    WARMTH,          // crossed one of the WarmthComponent bands
+    PLAYER_DEAD,
+    LEVEL_COMPLETE,
+    PLAYER_PROXIMITY, // went in or out of one of the enemy's perception bands
+    VOLATILE;        // changes all the time (positions and the like), never cached
+
+    public final int mask = 1 << ordinal();
+
+    public static int maskOf(BlackboardFact... facts) {
+        int mask = 0;
+        for (BlackboardFact fact : facts) {
+            mask |= fact.mask;
+        }
+        return mask;
+    }
+}
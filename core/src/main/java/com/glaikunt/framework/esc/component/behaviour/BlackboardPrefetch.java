@@ -0,0 +1,18 @@
+package com.glaikunt.framework.esc.component.behaviour;
+
+import com.badlogic.ashley.core.Entity;
+
+/**
+ * Fills an enemy's blackboard ahead of its step with anything that can be worked out without touching the world.
+ * Called from worker threads, so it may only read other components and write to the blackboard it's given,
+ * anything else it needs to write goes in scratch of the worker's own.
+ */
+public interface BlackboardPrefetch {
+
+    /**
+     * On the main thread before the workers start, enough scratch for this many of them
+     */
+    void prepare(int workers);
+
+    void prefetch(int worker, Entity entity, BlackboardComponent blackboard);
+}
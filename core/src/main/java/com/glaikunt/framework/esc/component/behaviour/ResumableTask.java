@@ -0,0 +1,13 @@
+package com.glaikunt.framework.esc.component.behaviour;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.ai.btree.Task;
+
+/**
+ * A leaf that can carry on for an enemy after it returned RUNNING, without coming down from the root.
+ * The shared tree has been reset by then, so the enemy is handed in rather than read off the tree.
+ */
+public interface ResumableTask {
+
+    Task.Status resume(Entity entity);
+}
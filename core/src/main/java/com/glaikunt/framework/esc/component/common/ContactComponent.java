@@ -3,9 +3,10 @@ package com.glaikunt.framework.esc.component.common;
 import com.badlogic.ashley.core.Component;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
 import com.glaikunt.framework.esc.system.physics.BodyType;
 
-public class ContactComponent implements Component {
+public class ContactComponent implements Component, Pool.Poolable {
 
     private final Rectangle interaction = new Rectangle();
     private final Vector2 normal = new Vector2();
@@ -13,6 +14,7 @@ public class ContactComponent implements Component {
     private Rectangle bodyB;
     private BodyType bodyAType;
     private BodyType bodyBType;
+    private float timeOfImpact;
 
     public Rectangle getInteraction() {
         return interaction;
@@ -58,6 +60,28 @@ public class ContactComponent implements Component {
         this.bodyBType = bodyBType;
     }
 
+    /**
+     * @return fraction of body A's step it can travel before touching body B, 0 when they're already touching
+     */
+    public float getTimeOfImpact() {
+        return timeOfImpact;
+    }
+
+    public void setTimeOfImpact(float timeOfImpact) {
+        this.timeOfImpact = timeOfImpact;
+    }
+
+    @Override
+    public void reset() {
+        interaction.set(0, 0, 0, 0);
+        normal.setZero();
+        bodyA = null;
+        bodyB = null;
+        bodyAType = null;
+        bodyBType = null;
+        timeOfImpact = 0;
+    }
+
     @Override
     public String toString() {
         return "ContactComponent{" +
@@ -67,6 +91,7 @@ public class ContactComponent implements Component {
                 ", bodyB=" + bodyB +
                 ", bodyAType=" + bodyAType +
                 ", bodyBType=" + bodyBType +
+                ", timeOfImpact=" + timeOfImpact +
                 '}';
     }
 }
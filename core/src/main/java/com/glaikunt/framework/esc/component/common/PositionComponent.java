@@ -5,6 +5,9 @@ import com.badlogic.gdx.math.Vector2;
 
 public class PositionComponent extends Vector2 implements Component {
 
+    private final Vector2 previous = new Vector2();
+    private boolean hasPrevious;
+
     public PositionComponent() {
         super();
     }
@@ -16,4 +19,20 @@ public class PositionComponent extends Vector2 implements Component {
     public PositionComponent(float xPos, float yPos) {
         super(xPos, yPos);
     }
+
+    /**
+     * Remember where this was before a physics step moves it
+     */
+    public void snapshot() {
+        previous.set(this);
+        hasPrevious = true;
+    }
+
+    public float getInterpolatedX(float alpha) {
+        return hasPrevious ? previous.x + (x - previous.x) * alpha : x;
+    }
+
+    public float getInterpolatedY(float alpha) {
+        return hasPrevious ? previous.y + (y - previous.y) * alpha : y;
+    }
 }
@@ -11,9 +11,14 @@ public class WarmthComponent implements Component {
     public static final float WARMTH_MAX = 100f;
     public static final float WARMTH_THRESHOLD = 0f;
     public static final float WARMTH_MIN = -1f;
+    // the behaviour conditions test against these (as fractions of max), see getBand()
+    public static final float COLD = .5f;
+    public static final float CHILLY = .8f;
 
     private float warmth;
-    private boolean outside;
+    // kept up to date from the trigger events, a fresh body counts as outside until told otherwise
+    private boolean indoors;
+    private boolean inChasm;
     private boolean nearHeatSource;
 
     public WarmthComponent(float warmth) {
@@ -31,6 +36,25 @@ public class WarmthComponent implements Component {
         return warmth < WARMTH_THRESHOLD;
     }
 
+    /**
+     * Which side of the thresholds the warmth is on, frozen / under COLD / at COLD / under CHILLY / CHILLY and up.
+     * Exactly COLD gets its own band as the conditions don't agree which side it's on.
+     */
+    public int getBand() {
+        if (isFrozen()) {
+            return 0;
+        }
+        float w = getWarmthFloat();
+        if (w < COLD) {
+            return 1;
+        } else if (w == COLD) {
+            return 2;
+        } else if (w < CHILLY) {
+            return 3;
+        }
+        return 4;
+    }
+
     public void setWarmth(float warmth) {
         if (warmth-this.warmth > 10f) {
             if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG, "Big delta in warmth jump?");
@@ -48,22 +72,35 @@ public class WarmthComponent implements Component {
     }
 
     public boolean isOutside() {
-        return outside;
+        return !indoors && !inChasm;
+    }
+
+    public boolean isIndoors() {
+        return indoors;
+    }
+
+    public boolean isInChasm() {
+        return inChasm;
     }
 
     public void setNearHeatSource(boolean nearHeatSource) {
         this.nearHeatSource = nearHeatSource;
     }
 
-    public void setOutside(boolean outside) {
-        this.outside = outside;
+    public void setIndoors(boolean indoors) {
+        this.indoors = indoors;
+    }
+
+    public void setInChasm(boolean inChasm) {
+        this.inChasm = inChasm;
     }
 
     @Override
     public String toString() {
         return "WarmthComponent{" +
                 "warmth=" + warmth +
-                ", outside=" + outside +
+                ", indoors=" + indoors +
+                ", inChasm=" + inChasm +
                 ", nearHeatSource=" + nearHeatSource +
                 '}';
     }
@@ -0,0 +1,85 @@
+package com.glaikunt.framework.esc.component.common;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Indoors, chasm and heat source areas baked into one byte per tile when the level loads.
+ * Stands in for a sensor body per area, warmth only has to read the tiles a body covers.
+ */
+public class WarmthZoneComponent implements Component {
+
+    public static final int INDOORS = 1;
+    public static final int CHASM = 2;
+    public static final int HEATSOURCE = 4;
+
+    private final int width;
+    private final int height;
+    private final float tileWidth;
+    private final float tileHeight;
+    private final byte[] zones;
+
+    public WarmthZoneComponent(int width, int height, float tileWidth, float tileHeight) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.zones = new byte[width * height];
+    }
+
+    /**
+     * Every tile the rectangle covers any part of
+     */
+    public void mark(int flag, Rectangle rectangle) {
+        int minX = Math.max(0, MathUtils.floor(rectangle.x / tileWidth));
+        int minY = Math.max(0, MathUtils.floor(rectangle.y / tileHeight));
+        int maxX = Math.min(width - 1, MathUtils.ceil((rectangle.x + rectangle.width) / tileWidth) - 1);
+        int maxY = Math.min(height - 1, MathUtils.ceil((rectangle.y + rectangle.height) / tileHeight) - 1);
+        for (int ty = minY; ty <= maxY; ty++) {
+            for (int tx = minX; tx <= maxX; tx++) {
+                zones[ty * width + tx] |= flag;
+            }
+        }
+    }
+
+    public void mark(int flag, int tx, int ty) {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height) {
+            return;
+        }
+        zones[ty * width + tx] |= flag;
+    }
+
+    public int flagsAt(int tx, int ty) {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height) {
+            return 0;
+        }
+        return zones[ty * width + tx];
+    }
+
+    /**
+     * @return every flag under the rectangle, a body is indoors as soon as any part of it is
+     */
+    public int flagsUnder(Rectangle rectangle) {
+        int minX = Math.max(0, MathUtils.floor(rectangle.x / tileWidth));
+        int minY = Math.max(0, MathUtils.floor(rectangle.y / tileHeight));
+        int maxX = Math.min(width - 1, MathUtils.ceil((rectangle.x + rectangle.width) / tileWidth) - 1);
+        int maxY = Math.min(height - 1, MathUtils.ceil((rectangle.y + rectangle.height) / tileHeight) - 1);
+        int flags = 0;
+        for (int ty = minY; ty <= maxY; ty++) {
+            int row = ty * width;
+            for (int tx = minX; tx <= maxX; tx++) {
+                flags |= zones[row + tx];
+            }
+        }
+        return flags;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,367 @@
+package com.glaikunt.framework.esc.system;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.glaikunt.framework.application.ParallelExecutor;
+import com.glaikunt.framework.application.SerialExecutor;
+import com.glaikunt.framework.application.TraceEvent;
+import com.glaikunt.framework.application.TraceRecorder;
+import com.glaikunt.framework.esc.component.behaviour.BehaviourTreeComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardPrefetch;
+import com.glaikunt.framework.esc.component.behaviour.ResumableTask;
+import com.glaikunt.framework.esc.component.camera.CameraControlsComponent;
+import com.glaikunt.framework.esc.component.common.PlayerComponent;
+import com.glaikunt.framework.esc.component.movement.PlayerInputComponent;
+import com.glaikunt.framework.esc.system.physics.BodyComponent;
+
+/**
+ * Steps the enemy behaviour trees. Anything on screen or near the player steps every frame,
+ * the rest take turns (round robin) with whatever is left of the frame's budget, at least one of them a frame.
+ *
+ * Each frame goes in two phases. First the read only conditions of everything likely to step are filled into
+ * their blackboards on the executor, and the volatile ones that sense leave what they saw as a reading, each worker
+ * only writing to the blackboards of its own range and its own scratch. Then the trees step one at a time in the same
+ * order as ever and find those conditions cached or the readings to act on. Anything the prefetch missed is evaluated
+ * in the step as before, so the result is the same however many threads there are.
+ */
+public class BehaviourTreeSystem extends EntitySystem {
+
+    public static final long DEFAULT_BUDGET_NANOS = 1000000L; // 1ms a frame
+    private static final float NEAR_PLAYER_RADIUS = 320f;
+    private static final float CAMERA_MARGIN = 64f; // start stepping them just before they walk on screen
+    private static final int MIN_FAR_STEPS = 1;
+
+    private final ImmutableArray<Entity> entities;
+    private final ImmutableArray<Entity> players;
+    private final ImmutableArray<Entity> cameras;
+
+    private final ComponentMapper<BehaviourTreeComponent> btcm = ComponentMapper.getFor(BehaviourTreeComponent.class);
+    private final ComponentMapper<BlackboardComponent> bbcm = ComponentMapper.getFor(BlackboardComponent.class);
+    private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
+    private final ComponentMapper<PlayerComponent> pcm = ComponentMapper.getFor(PlayerComponent.class);
+    private final ComponentMapper<CameraControlsComponent> cccm = ComponentMapper.getFor(CameraControlsComponent.class);
+
+    private final ParallelExecutor executor;
+    private final TraceRecorder trace;
+    private final ParallelExecutor.RangeTask prefetchTask = this::prefetch;
+    // near ones first, then the far ones expected to get a turn
+    private final Array<Entity> batch = new Array<>(false, 64, Entity.class);
+    private boolean[] nearAt = new boolean[64]; // by index in entities
+
+    private long budgetNanos = DEFAULT_BUDGET_NANOS;
+    private long frame;
+    private int farCursor;
+    private int lastFarStepped = MIN_FAR_STEPS;
+    private boolean playerDead;
+    private boolean levelComplete;
+
+    // last frame
+    private int ticksExecuted;
+    private int ticksDeferred;
+    private long timeSpentNanos;
+    // since the last reset
+    private long totalTicksExecuted;
+    private long totalTicksDeferred;
+    private long totalTimeSpentNanos;
+
+    public BehaviourTreeSystem(Engine engine) {
+        this(engine, new SerialExecutor(), new TraceRecorder());
+    }
+
+    /**
+     * @param executor runs the condition prefetch, the trees themselves always step on the calling thread
+     * @param trace gets a record for every step when it's switched on
+     */
+    public BehaviourTreeSystem(Engine engine, ParallelExecutor executor, TraceRecorder trace) {
+        this.executor = executor;
+        this.trace = trace;
+        this.entities = engine.getEntitiesFor(Family.all(BehaviourTreeComponent.class, BodyComponent.class).get());
+        this.players = engine.getEntitiesFor(Family.all(PlayerInputComponent.class, BodyComponent.class).get());
+        this.cameras = engine.getEntitiesFor(Family.all(CameraControlsComponent.class).get());
+    }
+
+    @Override
+    public void update(float deltaTime) {
+
+        long start = TimeUtils.nanoTime();
+        frame++;
+        ticksExecuted = 0;
+        ticksDeferred = 0;
+
+        raisePlayerFacts();
+
+        BodyComponent player = players.size() > 0 ? bcm.get(players.get(0)) : null;
+        float playerX = player == null ? 0 : player.x + (player.width / 2);
+        float playerY = player == null ? 0 : player.y + (player.height / 2);
+        float nearRadius2 = NEAR_PLAYER_RADIUS * NEAR_PLAYER_RADIUS;
+
+        // sort out who steps this frame, near ones first at full rate even if that's the whole budget gone
+        batch.clear();
+        if (nearAt.length < entities.size()) {
+            nearAt = new boolean[entities.size() << 1];
+        }
+        int far = 0;
+        for (int i = 0; i < entities.size(); ++i) {
+            nearAt[i] = false;
+            Entity entity = entities.get(i);
+            BehaviourTreeComponent btc = btcm.get(entity);
+            if (btc.isPause()) {
+                continue;
+            }
+            BodyComponent body = bcm.get(entity);
+            float x = body.x + (body.width / 2);
+            float y = body.y + (body.height / 2);
+            float dx = x - playerX;
+            float dy = y - playerY;
+            if ((player != null && (dx * dx) + (dy * dy) <= nearRadius2) || onScreen(x, y)) {
+                batch.add(entity);
+                nearAt[i] = true;
+            } else {
+                far++;
+            }
+        }
+        int near = batch.size;
+        gatherFar(near, Math.min(far, Math.max(MIN_FAR_STEPS, lastFarStepped)));
+
+        prepare();
+        executor.forRange(batch.size, prefetchTask);
+
+        for (int i = 0; i < near; ++i) {
+            Entity entity = batch.get(i);
+            step(entity, btcm.get(entity));
+        }
+
+        // then the far ones, carrying on from where the last frame stopped
+        int farStepped = 0;
+        int n = entities.size();
+        for (int visited = 0; visited < n && farStepped < far; visited++) {
+            if (farStepped >= MIN_FAR_STEPS && TimeUtils.nanoTime() - start >= budgetNanos) {
+                break;
+            }
+            if (farCursor >= n) {
+                farCursor = 0;
+            }
+            Entity entity = entities.get(farCursor++);
+            BehaviourTreeComponent btc = btcm.get(entity);
+            if (btc.isPause() || btc.getLastStepFrame() == frame) {
+                continue;
+            }
+            step(entity, btc);
+            farStepped++;
+        }
+        lastFarStepped = farStepped;
+        ticksDeferred = far - farStepped;
+        clearReadings();
+
+        timeSpentNanos = TimeUtils.nanoTime() - start;
+        totalTicksExecuted += ticksExecuted;
+        totalTicksDeferred += ticksDeferred;
+        totalTimeSpentNanos += timeSpentNanos;
+    }
+
+    /**
+     * Walks the far ones from the cursor the same way the step loop will, guessing it gets as far as it did last frame
+     */
+    private void gatherFar(int near, int count) {
+        int n = entities.size();
+        int cursor = farCursor;
+        for (int visited = 0; visited < n && batch.size - near < count; visited++) {
+            if (cursor >= n) {
+                cursor = 0;
+            }
+            int i = cursor++;
+            Entity entity = entities.get(i);
+            if (nearAt[i] || btcm.get(entity).isPause()) {
+                continue;
+            }
+            batch.add(entity);
+        }
+    }
+
+    /**
+     * Scratch for every worker, the batch is usually all one or two stances so skip repeats
+     */
+    private void prepare() {
+        int workers = executor.getParallelism();
+        BlackboardPrefetch prepared = null;
+        for (int i = 0; i < batch.size; ++i) {
+            BlackboardPrefetch prefetch = btcm.get(batch.get(i)).getPrefetch();
+            if (prefetch != null && prefetch != prepared) {
+                prefetch.prepare(workers);
+                prepared = prefetch;
+            }
+        }
+    }
+
+    /**
+     * Anything the prefetch guessed would step but didn't, its readings would be a frame old by its turn
+     */
+    private void clearReadings() {
+        for (int i = 0; i < batch.size; ++i) {
+            BlackboardComponent blackboard = bbcm.get(batch.get(i));
+            if (blackboard != null) {
+                blackboard.clearReadings();
+            }
+        }
+    }
+
+    private void prefetch(int worker, int from, int to) {
+        Entity[] items = batch.items;
+        for (int i = from; i < to; ++i) {
+            Entity entity = items[i];
+            BlackboardPrefetch prefetch = btcm.get(entity).getPrefetch();
+            BlackboardComponent blackboard = bbcm.get(entity);
+            if (prefetch != null && blackboard != null) {
+                prefetch.prefetch(worker, entity, blackboard);
+            }
+        }
+    }
+
+    /**
+     * The player's dead/level complete flags flip once a level, look once a frame rather than every condition every step
+     */
+    private void raisePlayerFacts() {
+        PlayerComponent player = players.size() > 0 ? pcm.get(players.get(0)) : null;
+        if (player == null) {
+            return;
+        }
+        if (player.isDead() != playerDead) {
+            playerDead = player.isDead();
+            raiseAll(BlackboardFact.PLAYER_DEAD);
+        }
+        if (player.isLevelComplete() != levelComplete) {
+            levelComplete = player.isLevelComplete();
+            raiseAll(BlackboardFact.LEVEL_COMPLETE);
+        }
+    }
+
+    public void raiseAll(BlackboardFact fact) {
+        for (int i = 0; i < entities.size(); ++i) {
+            BlackboardComponent blackboard = bbcm.get(entities.get(i));
+            if (blackboard != null) {
+                blackboard.raise(fact);
+            }
+        }
+    }
+
+    private void step(Entity entity, BehaviourTreeComponent btc) {
+        BehaviorTree<Entity> tree = btc.getBehaviorTree();
+        BlackboardComponent blackboard = bbcm.get(entity);
+        // trees are shared between enemies, point it at this one
+        tree.setObject(entity);
+
+        ResumableTask running = blackboard == null ? null : blackboard.getRunning();
+        boolean resumed = running != null;
+        Task.Status status;
+        if (resumed) {
+            // nothing it depends on has changed, carry on with it rather than coming down from the root
+            status = running.resume(entity);
+            if (status != Task.Status.RUNNING) {
+                blackboard.setRunning(null); // back to the root next step
+            }
+        } else {
+            tree.step();
+            status = tree.getStatus();
+            if (status == Task.Status.RUNNING) {
+                // nothing can carry on into another enemy's step, the blackboard keeps hold of the leaf to resume
+                if (blackboard != null) {
+                    blackboard.setRunning(runningLeaf(tree));
+                }
+                tree.resetTask();
+            }
+        }
+        if (blackboard != null) {
+            blackboard.setLastStatus(status);
+        }
+        if (trace.isEnabled()) {
+            trace.record(TraceEvent.TREE_STEP, (int) bcm.get(entity).getId(), -1, status.ordinal(), 0, 0, resumed ? 1 : 0);
+        }
+        btc.setLastStepFrame(frame);
+        ticksExecuted++;
+    }
+
+    /**
+     * Follows the RUNNING children down from the root, null if the leaf at the bottom can't be resumed on its own
+     */
+    private static ResumableTask runningLeaf(Task<Entity> task) {
+        while (task.getChildCount() > 0) {
+            Task<Entity> running = null;
+            for (int i = 0; i < task.getChildCount(); i++) {
+                if (task.getChild(i).getStatus() == Task.Status.RUNNING) {
+                    running = task.getChild(i);
+                    break;
+                }
+            }
+            if (running == null) {
+                return null;
+            }
+            task = running;
+        }
+        return task instanceof ResumableTask ? (ResumableTask) task : null;
+    }
+
+    private boolean onScreen(float x, float y) {
+        for (int i = 0; i < cameras.size(); ++i) {
+            for (OrthographicCamera camera : cccm.get(cameras.get(i)).getCameras()) {
+                float halfWidth = (camera.viewportWidth * camera.zoom / 2) + CAMERA_MARGIN;
+                float halfHeight = (camera.viewportHeight * camera.zoom / 2) + CAMERA_MARGIN;
+                if (Math.abs(x - camera.position.x) <= halfWidth && Math.abs(y - camera.position.y) <= halfHeight) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public void resetCounters() {
+        totalTicksExecuted = 0;
+        totalTicksDeferred = 0;
+        totalTimeSpentNanos = 0;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * Time the far away trees get each frame, near ones step regardless
+     */
+    public void setBudgetNanos(long budgetNanos) {
+        this.budgetNanos = budgetNanos;
+    }
+
+    public int getTicksExecuted() {
+        return ticksExecuted;
+    }
+
+    public int getTicksDeferred() {
+        return ticksDeferred;
+    }
+
+    public long getTimeSpentNanos() {
+        return timeSpentNanos;
+    }
+
+    public long getTotalTicksExecuted() {
+        return totalTicksExecuted;
+    }
+
+    public long getTotalTicksDeferred() {
+        return totalTicksDeferred;
+    }
+
+    public long getTotalTimeSpentNanos() {
+        return totalTimeSpentNanos;
+    }
+}
@@ -13,7 +13,6 @@ import com.glaikunt.framework.esc.component.movement.EnemyInputComponent;
 import com.glaikunt.framework.esc.system.physics.BodyComponent;
 
 public class EnemyInputSystem extends EntitySystem {
-    private static final float JUMPING_ACCELERATION = 75;
     private final ImmutableArray<Entity> animationEntities;
 
     private final ComponentMapper<AccelerationComponent> acm = ComponentMapper.getFor(AccelerationComponent.class);
@@ -61,12 +60,27 @@ public class EnemyInputSystem extends EntitySystem {
 
             if (input.isJumping() && body.isContactedWithFloor()) {
 //                pos.x += speed;
-                if (warmth != null && !warmth.isFrozen()) {
-                    ac.y = JUMPING_ACCELERATION * GameUtils.clamp(.7f, 1f, warmth.getWarmthFloat()*2);
+                float strength = jumpStrength(warmth);
+                if (strength > 0) {
+                    ac.y = PlayerInputSystem.JUMPING_ACCELERATION * strength;
                     input.setAnimation(AbstractPlayerInputComponent.Animation.JUMP);
                 }
             }
+
+            if (ac.x != 0 || ac.y != 0) {
+                body.wake();
+            }
+        }
+    }
+
+    /**
+     * How much of a full jump an enemy this warm gets, 0 if it's frozen (or has no warmth) and can't jump
+     */
+    public static float jumpStrength(WarmthComponent warmth) {
+        if (warmth == null || warmth.isFrozen()) {
+            return 0;
         }
+        return GameUtils.clamp(.7f, 1f, warmth.getWarmthFloat()*2);
     }
 
     private int getTextureKey(AbstractPlayerInputComponent.Animation animation, AbstractPlayerInputComponent.Direction direction) {
@@ -17,7 +17,7 @@ import com.glaikunt.framework.esc.system.physics.BodyComponent;
 
 public class PlayerInputSystem extends EntitySystem {
     private static final float LATERAL_ACCELERATION = 50f;
-    private static final float JUMPING_ACCELERATION = 75;
+    public static final float JUMPING_ACCELERATION = 75;
     private final ImmutableArray<Entity> animationEntities;
     private final ComponentMapper<AccelerationComponent> acm = ComponentMapper.getFor(AccelerationComponent.class);
     private final ComponentMapper<PlayerInputComponent> pic = ComponentMapper.getFor(PlayerInputComponent.class);
@@ -80,6 +80,10 @@ public class PlayerInputSystem extends EntitySystem {
                 input.setFacing(AbstractPlayerInputComponent.Direction.RIGHT);
             }
 
+            if (ac.x != 0 || ac.y != 0) {
+                body.wake();
+            }
+
 
 //            if (input.isMovingUp()) {
 //                pos.y += speed;
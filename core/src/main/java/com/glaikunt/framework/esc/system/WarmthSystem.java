@@ -2,19 +2,61 @@ package com.glaikunt.framework.esc.system;
 
 import com.badlogic.ashley.core.*;
 import com.badlogic.ashley.utils.ImmutableArray;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
 import com.glaikunt.framework.esc.component.common.WarmthComponent;
+import com.glaikunt.framework.esc.system.trigger.TriggerEvent;
+import com.glaikunt.framework.esc.system.trigger.TriggerListener;
+import com.glaikunt.framework.esc.system.trigger.TriggerSystem;
 
-public class WarmthSystem extends EntitySystem {
+public class WarmthSystem extends EntitySystem implements TriggerListener {
 
     private static final float DEPLETION_RATE_UNITS_PER_SECOND = 10f; // ergo - 10 seconds to depletion, right?
     private static final float INDOORS_UNITS_PER_SECOND = 5f;
     private static final float HEATSOURCE_UNITS_PER_SECOND = 13f; // obvs indoors with a heatsource would be a+b
     private final ImmutableArray<Entity> warmthEntities;
+    private final TriggerSystem triggers;
 
     private final ComponentMapper<WarmthComponent> wc = ComponentMapper.getFor(WarmthComponent.class);
+    private final ComponentMapper<BlackboardComponent> bbc = ComponentMapper.getFor(BlackboardComponent.class);
 
-    public WarmthSystem(Engine engine) {
-        warmthEntities = engine.getEntitiesFor(Family.all(WarmthComponent.class).get());
+    public WarmthSystem(Engine engine, TriggerSystem triggers) {
+        this.warmthEntities = engine.getEntitiesFor(Family.all(WarmthComponent.class).get());
+        this.triggers = triggers;
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        triggers.subscribe(TriggerEvent.Phase.ENTER, this);
+        triggers.subscribe(TriggerEvent.Phase.EXIT, this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        triggers.unsubscribe(TriggerEvent.Phase.ENTER, this);
+        triggers.unsubscribe(TriggerEvent.Phase.EXIT, this);
+    }
+
+    @Override
+    public void onTrigger(TriggerEvent event) {
+        WarmthComponent w = wc.get(event.getEntity());
+        if (w == null) {
+            return;
+        }
+        boolean entered = event.getPhase() == TriggerEvent.Phase.ENTER;
+        switch (event.getType()) {
+            case INDOORS:
+                w.setIndoors(entered);
+                break;
+            case CHASM:
+                w.setInChasm(entered);
+                break;
+            case HEATSOURCE:
+                w.setNearHeatSource(entered);
+                break;
+            default:
+                break;
+        }
     }
 
     @Override
@@ -23,6 +65,11 @@ public class WarmthSystem extends EntitySystem {
 
             Entity entity = warmthEntities.get(i);
             WarmthComponent w = wc.get(entity);
+            int band = w.getBand();
+
+            if (w.isInChasm()) {
+                w.setWarmth(WarmthComponent.WARMTH_MIN);
+            }
 
             // if outdoors, deplete
             if (w.isOutside()) {
@@ -34,6 +81,13 @@ public class WarmthSystem extends EntitySystem {
             if (w.isNearHeatSource()) {
                 w.setWarmth(w.getWarmth() + (HEATSOURCE_UNITS_PER_SECOND * delta));
             }
+
+            if (w.getBand() != band) {
+                BlackboardComponent blackboard = bbc.get(entity);
+                if (blackboard != null) {
+                    blackboard.raise(BlackboardFact.WARMTH);
+                }
+            }
         }
     }
 }
@@ -3,49 +3,144 @@ package com.glaikunt.framework.esc.system.physics;
 import com.badlogic.ashley.core.Component;
 
 import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
 import com.glaikunt.framework.esc.component.common.ContactComponent;
 
-import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class BodyComponent extends Rectangle implements Component {
 
-    private final Map<BodyComponent, ContactComponent> contactsByBody = new LinkedHashMap<>(0);
-    private final List<ContactComponent> beforeContacts = new LinkedList<>();
-    private final List<ContactComponent> afterContacts = new LinkedList<>();
+    private final ContactMap contactsByBody = new ContactMap();
+    private final Array<ContactComponent> beforeContacts = new Array<>(false, 4);
+    private final Array<ContactComponent> afterContacts = new Array<>(false, 4);
     private BodyType bodyType;
-    private static long idCounter = 0;
-    private final long id = idCounter++; // NOSONAR you want a cheap UUID this is it
-    private final List<BodyType> includeList = Arrays.asList(BodyType.BLOCK, BodyType.PLAYER_ONLY_BLOCK);
+    private static final AtomicLong ID_COUNTER = new AtomicLong();
+    private final long id = ID_COUNTER.getAndIncrement(); // you want a cheap UUID this is it
+
+    // contact summary, see updateContactSummary
+    public static final int CONTACT_FLOOR = 1;
+    public static final int CONTACT_WALL_LEFT = 1 << 1;
+    public static final int CONTACT_WALL_RIGHT = 1 << 2;
+    public static final int CONTACT_CEILING = 1 << 3;
+    public static final int CONTACT_PLAYER = 1 << 4;
+    private int contactFlags;
+    private int overlapMask;
+    private ContactComponent playerContact;
+
+    // sleeping, owned by the SleepSystem
+    private boolean awake = true;
+    int idleTicks;
+
+    // broadphase bookkeeping, owned by the SpatialHashGrid
+    boolean inGrid;
+    int cellMinX;
+    int cellMinY;
+    int cellMaxX;
+    int cellMaxY;
+    // one of the TileOccupancyComponent side stand-ins, never in the engine
+    boolean tileProxy;
+
+    /**
+     * Rebuilds the contact summary from the contact map, the CollisionListenerSystem does this once a tick for moving bodies.
+     * Call it again if you pull contacts out of the map by hand.
+     */
+    public void updateContactSummary() {
+        int flags = 0;
+        int overlaps = 0;
+        ContactComponent player = null;
+        for (int i = 0; i < contactsByBody.capacity(); i++) {
+            BodyComponent other = contactsByBody.bodyAt(i);
+            if (other == null) {
+                continue;
+            }
+            ContactComponent c = contactsByBody.contactAt(i);
+            overlaps |= 1 << other.getBodyType().ordinal();
+
+            if (c.getBodyBType() == BodyType.BLOCK || c.getBodyBType() == BodyType.PLAYER_ONLY_BLOCK) {
+                if (c.getNormal().y <= -1) flags |= CONTACT_FLOOR;
+                if (c.getNormal().y > 0) flags |= CONTACT_CEILING;
+                if (c.getNormal().x < 0) flags |= CONTACT_WALL_LEFT;
+                if (c.getNormal().x > 0) flags |= CONTACT_WALL_RIGHT;
+            } else if (c.getBodyBType() == BodyType.PLAYER) {
+                flags |= CONTACT_PLAYER;
+                if (player == null && c.getNormal().x != 0) {
+                    player = c;
+                }
+            }
+        }
+        this.contactFlags = flags;
+        this.overlapMask = overlaps;
+        this.playerContact = player;
+    }
 
     /**
      * plus the only things it's allowed to jump off from (not a heatsource for example)
      * @return true if in contact with something to jump off
      */
     public boolean isContactedWithFloor() {
-        return contactsByBody.values().stream()
-                .anyMatch(c -> c.getNormal().y <= -1 && includeList.contains(c.getBodyBType()));
+        return (contactFlags & CONTACT_FLOOR) != 0;
     }
 
     public boolean isContactedWithPlayer() {
-        return contactsByBody.values().stream()
-                .anyMatch(c -> BodyType.PLAYER.equals(c.getBodyBType()));
+        return (contactFlags & CONTACT_PLAYER) != 0;
     }
 
     public ContactComponent getPlayerContact() {
-        return contactsByBody.values().stream()
-                .filter(c -> c.getNormal().x != 0 && BodyType.PLAYER.equals(c.getBodyBType()))
-                .findAny().orElse(null);
+        return playerContact;
+    }
+
+    public int getContactFlags() {
+        return contactFlags;
+    }
+
+    /**
+     * @return true if any body of that type is in the contact map, sensors included
+     */
+    public boolean isOverlapping(BodyType type) {
+        return (overlapMask & (1 << type.ordinal())) != 0;
+    }
+
+    public boolean isAwake() {
+        return awake;
+    }
+
+    /**
+     * Wakes this body and anything asleep it's touching
+     */
+    public void wake() {
+        idleTicks = 0;
+        if (awake) {
+            return;
+        }
+        awake = true;
+        for (int i = 0; i < contactsByBody.capacity(); i++) {
+            BodyComponent other = contactsByBody.bodyAt(i);
+            if (other != null && !other.awake) {
+                other.wake();
+            }
+        }
+    }
+
+    void sleep() {
+        awake = false;
+    }
+
+    /**
+     * @return true for the body types that move under the physics systems
+     */
+    public boolean isDynamic() {
+        return bodyType == BodyType.PLAYER || bodyType == BodyType.ENEMY || bodyType == BodyType.DYNAMIC;
     }
 
-    public List<ContactComponent> getBeforeContacts() {
+    public Array<ContactComponent> getBeforeContacts() {
         return beforeContacts;
     }
 
-    public List<ContactComponent> getAfterContacts() {
+    public Array<ContactComponent> getAfterContacts() {
         return afterContacts;
     }
 
-    public Map<BodyComponent, ContactComponent> getContactsByBody() {
+    public ContactMap getContactsByBody() {
         return contactsByBody;
     }
 
@@ -73,7 +168,7 @@ public class BodyComponent extends Rectangle implements Component {
     @Override
     public int hashCode () {
 //        return Objects.hash(uuid, bodyType.hashCode());
-        return Objects.hash(id);
+        return (int) (id ^ (id >>> 32));
     }
 
     @Override
@@ -4,13 +4,65 @@ public enum BodyType {
 
     DYNAMIC,
     STATIC,
-    CHECKPOINT,
-    INDOORS, // don't hate me - I know this is better kept out of bodycomponent.contacts
-    HEATSOURCE,
     ENEMY,
     PLAYER,
     BLOCK,
     PLAYER_ONLY_BLOCK,
-    BREAKABLE, // wondering about flags here e.g. blocking/non-blocking,etc
-    CHASM
+    BREAKABLE; // wondering about flags here e.g. blocking/non-blocking,etc
+
+    private static final CollisionResponse[][] RESPONSES;
+
+    private int category;
+    // categories this type gets contacts with, and the ones out of those that block it
+    private int mask;
+    private int solidMask;
+
+    static {
+        BodyType[] types = values();
+        int all = (1 << types.length) - 1;
+        for (BodyType type : types) {
+            type.category = 1 << type.ordinal();
+        }
+
+        int solid = DYNAMIC.category | STATIC.category | PLAYER.category | BLOCK.category | PLAYER_ONLY_BLOCK.category | BREAKABLE.category;
+        for (BodyType type : types) {
+            type.mask = all;
+            type.solidMask = solid;
+        }
+        ENEMY.mask &= ~PLAYER_ONLY_BLOCK.category;
+
+        RESPONSES = new CollisionResponse[types.length][types.length];
+        for (BodyType self : types) {
+            for (BodyType other : types) {
+                CollisionResponse response;
+                if ((self.mask & other.category) == 0) {
+                    response = CollisionResponse.IGNORE;
+                } else if ((self.solidMask & other.category) != 0) {
+                    response = CollisionResponse.SOLID;
+                } else {
+                    response = CollisionResponse.SENSOR;
+                }
+                RESPONSES[self.ordinal()][other.ordinal()] = response;
+            }
+        }
+    }
+
+    /**
+     * Seen from this side, enemies push against the player but the player only senses enemies
+     */
+    public CollisionResponse response(BodyType other) {
+        return RESPONSES[ordinal()][other.ordinal()];
+    }
+
+    public int getCategory() {
+        return category;
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public int getSolidMask() {
+        return solidMask;
+    }
 }
@@ -6,19 +6,21 @@ import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.utils.ImmutableArray;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.math.Intersector;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
-import com.glaikunt.framework.application.GameUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.badlogic.gdx.utils.Sort;
+import com.glaikunt.framework.application.ParallelExecutor;
 import com.glaikunt.framework.application.Rectangle;
+import com.glaikunt.framework.application.SerialExecutor;
+import com.glaikunt.framework.application.TraceEvent;
+import com.glaikunt.framework.application.TraceRecorder;
 import com.glaikunt.framework.esc.component.common.ContactComponent;
 import com.glaikunt.framework.esc.component.common.PositionComponent;
 import com.glaikunt.framework.esc.component.common.VelocityComponent;
-import com.glaikunt.framework.game.GameConstants;
-
-import static com.glaikunt.framework.game.GameConstants.DEBUG;
 
+import java.util.Comparator;
 
 /**
  * This is gravity movement based on pixels.
@@ -26,108 +28,367 @@ import static com.glaikunt.framework.game.GameConstants.DEBUG;
  */
 public class CollisionListenerSystem extends EntitySystem {
 
+    private final Family bodyFamily = Family.all(BodyComponent.class).get();
     private final ImmutableArray<Entity> allBodyEntities;
     private final ImmutableArray<Entity> bodyEntitiesWithVel;
+    private final ImmutableArray<Entity> geometryEntities;
+    private final SpatialHashGrid broadphase;
 
     private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
     private final ComponentMapper<VelocityComponent> vcm = ComponentMapper.getFor(VelocityComponent.class);
+    private final ComponentMapper<TileOccupancyComponent> tcm = ComponentMapper.getFor(TileOccupancyComponent.class);
+
+    private final ContactPool contactPool = new ContactPool();
+    private final ParallelExecutor executor;
+    private final TraceRecorder trace;
+    private final ParallelExecutor.RangeTask computeTask = this::compute;
+    private final Array<NarrowphasePass> passes = new Array<>();
+    private Worker[] workers = new Worker[0];
+    private TileOccupancyComponent tiles;
+
+    // main thread only, the apply phase
+    private final Worker applyScratch = new Worker();
 
-    private final Rectangle tmpBodyA = new Rectangle();
-    private final Rectangle tmpBodyB = new Rectangle();
-    private final Rectangle tmpContact = new Rectangle();
-    private final Vector2 tmpVecA = new Vector2();
-    private final Vector2 tmpVecContact = new Vector2();
+    private static final Comparator<BodyComponent> BY_ID = new Comparator<BodyComponent>() {
+        @Override
+        public int compare(BodyComponent a, BodyComponent b) {
+            return Long.compare(a.getId(), b.getId());
+        }
+    };
+
+    public CollisionListenerSystem(Engine engine, SpatialHashGrid broadphase) {
+        this(engine, broadphase, new SerialExecutor(), new TraceRecorder());
+    }
 
-    public CollisionListenerSystem(Engine engine) {
-        this.allBodyEntities = engine.getEntitiesFor(Family.all(BodyComponent.class).get());
+    /**
+     * @param executor runs the hit tests, the contact maps are always updated on the calling thread
+     * @param trace gets a record for each new contact when it's switched on
+     */
+    public CollisionListenerSystem(Engine engine, SpatialHashGrid broadphase, ParallelExecutor executor, TraceRecorder trace) {
+        this.broadphase = broadphase;
+        this.executor = executor;
+        this.trace = trace;
+        this.allBodyEntities = engine.getEntitiesFor(bodyFamily);
         this.bodyEntitiesWithVel = engine.getEntitiesFor(Family.all(BodyComponent.class, VelocityComponent.class, PositionComponent.class).get());
+        this.geometryEntities = engine.getEntitiesFor(Family.all(TileOccupancyComponent.class).get());
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        for (int i = 0; i < allBodyEntities.size(); i++) {
+            broadphase.entityAdded(allBodyEntities.get(i));
+        }
+        engine.addEntityListener(bodyFamily, broadphase);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(broadphase);
+        broadphase.clear();
     }
 
     @Override
     public void update(float delta) {
 
-        for (int eiB = 0; eiB < allBodyEntities.size(); eiB++) {
+        // only the moving bodies ever get before/after contacts recorded against them
+        for (int eiA = 0; eiA < bodyEntitiesWithVel.size(); eiA++) {
 
-            Entity entityB = allBodyEntities.get(eiB);
-            BodyComponent body = bcm.get(entityB);
+            BodyComponent body = bcm.get(bodyEntitiesWithVel.get(eiA));
 
             if (!body.getAfterContacts().isEmpty() || !body.getBeforeContacts().isEmpty()) {
+                // ended contacts are only read for the tick they're reported in, begun ones still live in the contact maps
+                contactPool.freeAll(body.getAfterContacts());
                 body.getAfterContacts().clear();
                 body.getBeforeContacts().clear();
             }
         }
 
-        for (int eiA = 0; eiA < bodyEntitiesWithVel.size(); eiA++) {
+        int count = bodyEntitiesWithVel.size();
+        tiles = geometryEntities.size() == 0 ? null : tcm.get(geometryEntities.first());
+        int planes = tiles == null ? 0 : tiles.getPlaneCount();
+        while (passes.size < count) {
+            passes.add(new NarrowphasePass());
+        }
+        if (workers.length < executor.getParallelism()) {
+            workers = new Worker[executor.getParallelism()];
+            for (int w = 0; w < workers.length; w++) {
+                workers[w] = new Worker();
+            }
+        }
 
+        // sleeping bodies are tested as well, they can be woken further down the list before their turn to apply
+        for (int eiA = 0; eiA < count; eiA++) {
             Entity entityA = bodyEntitiesWithVel.get(eiA);
-            BodyComponent bodyA = bcm.get(entityA);
             VelocityComponent velA = vcm.get(entityA);
+            passes.get(eiA).begin(bcm.get(entityA), velA.x, velA.y, planes);
+        }
 
-            for (int eiB = 0; eiB < allBodyEntities.size(); eiB++) {
+        // hit tests only read the bodies, the grid and the contact maps, so the bodies can be split over threads
+        executor.forRange(count, computeTask);
 
-                Entity entityB = allBodyEntities.get(eiB);
-                BodyComponent bodyB = bcm.get(entityB);
+        // then the contact maps in list order, the same order a single thread would go in
+        for (int eiA = 0; eiA < count; eiA++) {
+            NarrowphasePass pass = passes.get(eiA);
+            if (pass.body.isAwake()) {
+                apply(pass);
+            }
+            pass.clear();
+        }
 
-                if (bodyA == bodyB
-                        || (bodyA.getBodyType().equals(BodyType.ENEMY) && bodyB.getBodyType().equals(BodyType.PLAYER_ONLY_BLOCK))) {
+        // after every pair is done, a body's map is also touched by the other body's pass
+        for (int eiA = 0; eiA < bodyEntitiesWithVel.size(); eiA++) {
+            bcm.get(bodyEntitiesWithVel.get(eiA)).updateContactSummary();
+        }
+    }
+
+    private void compute(int worker, int from, int to) {
+        Worker scratch = workers[worker];
+        for (int i = from; i < to; i++) {
+            NarrowphasePass pass = passes.get(i);
+            collideWithTiles(pass, scratch);
+
+            // everything in the neighbouring cells, plus current contacts so they can end even if the other body left those cells
+            Array<BodyComponent> candidates = scratch.candidates;
+            candidates.clear();
+            broadphase.query(pass.sweep, candidates);
+            addContacted(pass.body, candidates);
+            scratch.sort.sort(candidates.items, BY_ID, 0, candidates.size);
+
+            for (int c = 0; c < candidates.size; c++) {
+                BodyComponent bodyB = candidates.get(c);
+                if ((c > 0 && candidates.get(c - 1) == bodyB) || skip(pass.body, bodyB)) {
+                    continue; // spans several cells
+                }
+                float toi = sweep(pass, bodyB, scratch);
+                pass.add(bodyB, toi, scratch.contact, scratch.normal);
+            }
+            candidates.clear();
+        }
+    }
+
+    private void apply(NarrowphasePass pass) {
+
+        BodyComponent bodyA = pass.body;
+        if (tiles != null) {
+            for (int plane = 0; plane < tiles.getPlaneCount(); plane++) {
+                if (skip(bodyA, tiles.getPlaneType(plane))) {
                     continue;
                 }
+                for (int side = 0; side < TileOccupancyComponent.SIDES; side++) {
+                    int i = plane * TileOccupancyComponent.SIDES + side;
+                    resolveContact(bodyA, tiles.getProxy(plane, side), pass.sideTimes[i], pass.sideInteractions[i], pass.sideNormals[i]);
+                }
+            }
+        }
+
+        // the map may have picked up contacts since the compute phase, begun by a body earlier in the list
+        Array<BodyComponent> candidates = applyScratch.candidates;
+        candidates.clear();
+        for (int i = 0; i < pass.count; i++) {
+            candidates.add(pass.others[i]);
+        }
+        addContacted(bodyA, candidates);
+        applyScratch.sort.sort(candidates.items, BY_ID, 0, candidates.size);
+
+        for (int c = 0; c < candidates.size; c++) {
+            BodyComponent bodyB = candidates.get(c);
+            if ((c > 0 && candidates.get(c - 1) == bodyB) || skip(bodyA, bodyB)) {
+                continue;
+            }
+            int i = pass.find(bodyB);
+            if (i >= 0) {
+                resolveContact(bodyA, bodyB, pass.times[i], pass.interactions[i], pass.normals[i]);
+            } else {
+                float toi = sweep(pass, bodyB, applyScratch);
+                resolveContact(bodyA, bodyB, toi, applyScratch.contact, applyScratch.normal);
+            }
+        }
+        candidates.clear();
+    }
+
+    private static void addContacted(BodyComponent body, Array<BodyComponent> out) {
+        ContactMap contacts = body.getContactsByBody();
+        for (int i = 0; i < contacts.capacity(); i++) {
+            BodyComponent contacted = contacts.bodyAt(i);
+            if (contacted != null) {
+                out.add(contacted);
+            }
+        }
+    }
+
+    private static boolean skip(BodyComponent bodyA, BodyComponent bodyB) {
+        return bodyA == bodyB || bodyB.tileProxy || skip(bodyA, bodyB.getBodyType());
+    }
+
+    private static boolean skip(BodyComponent bodyA, BodyType typeB) {
+        return bodyA.getBodyType().response(typeB) == CollisionResponse.IGNORE;
+    }
+
+    /**
+     * The other body is treated as standing still, it gets its own sweep when its turn comes
+     */
+    private static float sweep(NarrowphasePass pass, BodyComponent bodyB, Worker scratch) {
+        scratch.other.set(bodyB);
+        float toi = SweptAabb.sweep(pass.start, pass.velX, pass.velY, scratch.other, scratch.normal);
+        if (toi != SweptAabb.NO_HIT) {
+            interaction(pass, toi, scratch.other, scratch.contact);
+        }
+        return toi;
+    }
+
+    /**
+     * Static geometry, each horizontal run of occupied tiles the moving body sweeps through stands in for a platform rectangle.
+     * Runs are binned by the side they hit so a body resting in a corner holds a floor and a wall contact.
+     */
+    private void collideWithTiles(NarrowphasePass pass, Worker scratch) {
+        if (tiles == null) {
+            return;
+        }
+        Rectangle sweep = pass.sweep;
+        // include the tiles just touching the swept box, that's how resting contacts stay alive
+        int minX = MathUtils.ceil(sweep.x / tiles.getTileWidth()) - 1;
+        int minY = MathUtils.ceil(sweep.y / tiles.getTileHeight()) - 1;
+        int maxX = tiles.tileX(sweep.x + sweep.width);
+        int maxY = tiles.tileY(sweep.y + sweep.height);
+
+        for (int plane = 0; plane < tiles.getPlaneCount(); plane++) {
 
-                tmpBodyA.set(bodyA);
-                tmpBodyB.set(bodyB);
-
-                tmpBodyA.x += velA.x;
-                tmpBodyA.y += velA.y;
-
-                if (!bodyA.getContactsByBody().containsKey(bodyB) && Intersector.intersectRectangles(tmpBodyA, tmpBodyB, tmpContact)) {
-
-                    ContactComponent contact = new ContactComponent();
-                    contact.setBodyA(bodyA);
-                    contact.setBodyB(bodyB);
-                    contact.setBodyAType(bodyA.getBodyType());
-                    contact.setBodyBType(bodyB.getBodyType());
-
-                    tmpBodyA.getCenter(tmpVecA);
-//                    tmpBodyB.getCenter(tmpVecB);
-                    tmpContact.getCenter(tmpVecContact);
-                    tmpVecContact.sub(tmpVecA); // calculate
-                    if (MathUtils.floor(tmpVecContact.x) != 0 && MathUtils.floor(tmpVecContact.y) != 0) {
-
-                        if (Math.abs(tmpVecContact.x) > Math.abs(tmpVecContact.y)) {
-                            contact.getNormal().x = GameUtils.clamp(-1, 1, MathUtils.floor(tmpVecContact.x));
-                            contact.getNormal().y = 0;
-                            if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG, bodyA.getBodyType() + " x contact normal: " + contact.getNormal());
-                        } else {
-                            contact.getNormal().y = GameUtils.clamp(-1, 1, MathUtils.floor(tmpVecContact.y));
-                            contact.getNormal().x = 0;
-                            if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG, bodyA.getBodyType() + " y contact normal: " + contact.getNormal());
-                        }
+            if (skip(pass.body, tiles.getPlaneType(plane))) {
+                continue;
+            }
+
+            for (int ty = minY; ty <= maxY; ty++) {
+                int tx = minX;
+                while (tx <= maxX) {
+                    if (!tiles.isOccupied(plane, tx, ty)) {
+                        tx++;
+                        continue;
+                    }
+                    int runStart = tx;
+                    while (tx <= maxX && tiles.isOccupied(plane, tx, ty)) {
+                        tx++;
+                    }
+                    scratch.other.set(runStart * tiles.getTileWidth(), ty * tiles.getTileHeight(), (tx - runStart) * tiles.getTileWidth(), tiles.getTileHeight());
+                    float toi = SweptAabb.sweep(pass.start, pass.velX, pass.velY, scratch.other, scratch.normal);
+                    if (toi == SweptAabb.NO_HIT) {
+                        continue;
+                    }
+                    int i = plane * TileOccupancyComponent.SIDES + side(scratch.normal);
+                    interaction(pass, toi, scratch.other, scratch.contact);
+                    if (pass.sideTimes[i] == SweptAabb.NO_HIT) {
+                        pass.sideTimes[i] = toi;
+                        pass.sideInteractions[i].set(scratch.contact);
+                        pass.sideNormals[i].set(scratch.normal);
                     } else {
-                        contact.getNormal().x = GameUtils.clamp(-1, 1, MathUtils.floor(tmpVecContact.x));
-                        contact.getNormal().y = GameUtils.clamp(-1, 1, MathUtils.floor(tmpVecContact.y));
-                        if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG, bodyA.getBodyType() + " x & y contact normal: " + contact.getNormal());
+                        pass.sideTimes[i] = Math.min(pass.sideTimes[i], toi);
+                        pass.sideInteractions[i].merge(scratch.contact);
                     }
-                    contact.setInteraction(tmpContact);
-
-                    bodyA.getBeforeContacts().add(contact);
-                    bodyA.getContactsByBody().put(bodyB, contact);
-                    bodyB.getContactsByBody().put(bodyA, contact);
                 }
+            }
+        }
+    }
 
-                if (bodyA.getContactsByBody().containsKey(bodyB) && !tmpBodyA.intersects(tmpBodyB)) {
+    private static int side(Vector2 normal) {
+        if (normal.y < 0) {
+            return TileOccupancyComponent.SIDE_FLOOR;
+        } else if (normal.y > 0) {
+            return TileOccupancyComponent.SIDE_CEILING;
+        } else if (normal.x < 0) {
+            return TileOccupancyComponent.SIDE_LEFT;
+        }
+        return TileOccupancyComponent.SIDE_RIGHT;
+    }
 
-                    bodyA.getContactsByBody().remove(bodyB);
-                    bodyB.getContactsByBody().remove(bodyA);
+    /**
+     * Where body A sits at the time of impact, overlapped with B. Zero sized when they only touch.
+     */
+    private static void interaction(NarrowphasePass pass, float toi, Rectangle bodyB, Rectangle out) {
+        Rectangle start = pass.start;
+        float x = start.x + pass.velX * toi;
+        float y = start.y + pass.velY * toi;
+        float minX = Math.max(x, bodyB.x);
+        float minY = Math.max(y, bodyB.y);
+        float maxX = Math.min(x + start.width, bodyB.x + bodyB.width);
+        float maxY = Math.min(y + start.height, bodyB.y + bodyB.height);
+        out.set(minX, minY, Math.max(0, maxX - minX), Math.max(0, maxY - minY));
+    }
 
-                    ContactComponent contact = new ContactComponent();
-                    contact.setBodyA(bodyA);
-                    contact.setBodyB(bodyB);
-                    contact.setBodyAType(bodyA.getBodyType());
-                    contact.setBodyBType(bodyB.getBodyType());
-                    bodyA.getAfterContacts().add(contact);
-                }
+    /**
+     * Same hit test decides both ends of a contact, one that carries on gets its normal and time of impact refreshed
+     */
+    private void resolveContact(BodyComponent bodyA, BodyComponent bodyB, float toi, Rectangle interaction, Vector2 normal) {
+
+        ContactComponent contact = bodyA.getContactsByBody().get(bodyB);
+        if (contact == null) {
+            if (toi != SweptAabb.NO_HIT) {
+                beginContact(bodyA, bodyB, interaction, normal, toi);
             }
+        } else if (toi == SweptAabb.NO_HIT) {
+            endContact(bodyA, bodyB);
+        } else if (contact.getBodyA() == bodyA) {
+            contact.getNormal().set(normal);
+            contact.setInteraction(interaction);
+            contact.setTimeOfImpact(toi);
         }
     }
-}
 
+    private void beginContact(BodyComponent bodyA, BodyComponent bodyB, Rectangle interaction, Vector2 normal, float toi) {
+
+        ContactComponent contact = contactPool.obtain();
+        contact.setBodyA(bodyA);
+        contact.setBodyB(bodyB);
+        contact.setBodyAType(bodyA.getBodyType());
+        contact.setBodyBType(bodyB.getBodyType());
+        contact.getNormal().set(normal);
+        contact.setInteraction(interaction);
+        contact.setTimeOfImpact(toi);
+        if (trace.isEnabled()) {
+            trace.record(TraceEvent.CONTACT, (int) bodyA.getId(), (int) bodyB.getId(), bodyA.getBodyType().ordinal(), normal.x, normal.y, toi);
+        }
+
+        bodyA.getBeforeContacts().add(contact);
+        bodyB.wake();
+        bodyA.getContactsByBody().put(bodyB, contact);
+        bodyB.getContactsByBody().put(bodyA, contact);
+    }
+
+    private void endContact(BodyComponent bodyA, BodyComponent bodyB) {
+
+        ContactComponent contact = bodyA.getContactsByBody().remove(bodyB);
+        bodyB.getContactsByBody().remove(bodyA);
+
+        // recycle the ended contact as the after contact, seen from this body
+        contact.reset();
+        bodyB.wake();
+        contact.setBodyA(bodyA);
+        contact.setBodyB(bodyB);
+        contact.setBodyAType(bodyA.getBodyType());
+        contact.setBodyBType(bodyB.getBodyType());
+        bodyA.getAfterContacts().add(contact);
+    }
+
+    /**
+     * Scratch for one thread, nothing in here outlives a body's pass
+     */
+    private static class Worker {
+
+        final Array<BodyComponent> candidates = new Array<>(false, 32, BodyComponent.class);
+        // Sort.instance() is shared, each thread gets its own
+        final Sort sort = new Sort();
+        final Rectangle other = new Rectangle();
+        final Rectangle contact = new Rectangle();
+        final Vector2 normal = new Vector2();
+    }
+
+    private static class ContactPool extends Pool<ContactComponent> {
+
+        ContactPool() {
+            super(64);
+        }
+
+        @Override
+        protected ContactComponent newObject() {
+            return new ContactComponent();
+        }
+    }
+}
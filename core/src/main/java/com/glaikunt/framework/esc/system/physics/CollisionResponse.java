@@ -0,0 +1,11 @@
+package com.glaikunt.framework.esc.system.physics;
+
+/**
+ * What a moving body does about another body it touches, see {@link BodyType#response(BodyType)}
+ */
+public enum CollisionResponse {
+
+    IGNORE, // no contact at all
+    SENSOR, // contact is recorded but doesn't stop anything
+    SOLID
+}
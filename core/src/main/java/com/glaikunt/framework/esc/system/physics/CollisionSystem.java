@@ -10,10 +10,6 @@ import com.badlogic.gdx.Gdx;
 import com.glaikunt.framework.esc.component.common.AccelerationComponent;
 import com.glaikunt.framework.esc.component.common.ContactComponent;
 import com.glaikunt.framework.esc.component.common.VelocityComponent;
-import com.glaikunt.framework.esc.component.common.WarmthComponent;
-
-import java.util.Map;
-
 
 /**
  * This is gravity movement based on pixels.
@@ -26,7 +22,6 @@ public class CollisionSystem extends EntitySystem {
     private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
     private final ComponentMapper<VelocityComponent> vcm = ComponentMapper.getFor(VelocityComponent.class);
     private final ComponentMapper<AccelerationComponent> acm = ComponentMapper.getFor(AccelerationComponent.class);
-    private final ComponentMapper<WarmthComponent> wcm = ComponentMapper.getFor(WarmthComponent.class);
 
     public CollisionSystem(Engine engine) {
         this.entities = engine.getEntitiesFor( Family.all(BodyComponent.class, VelocityComponent.class, AccelerationComponent.class).get());
@@ -39,53 +34,45 @@ public class CollisionSystem extends EntitySystem {
 
             Entity entity = entities.get(e);
             BodyComponent body = bcm.get(entity);
+            if (!body.isAwake()) {
+                continue; // keeps whatever warmth flags it had when it dozed off
+            }
             VelocityComponent vel = vcm.get(entity);
             AccelerationComponent accel = acm.get(entity);
-            WarmthComponent warmth = wcm.get(entity);
-            if (warmth != null) {
-                warmth.setOutside(true); // default until detected otherwise
-                warmth.setNearHeatSource(false); // default until detected otherwise
-            }
 
-            for (Map.Entry<BodyComponent, ContactComponent> entry : body.getContactsByBody().entrySet()) {
+            float toiX = 1;
+            float toiY = 1;
+            ContactMap contacts = body.getContactsByBody();
+            for (int c = 0; c < contacts.capacity(); c++) {
 
-                BodyComponent key = entry.getKey();
-                if (key.getBodyType() == BodyType.ENEMY) {
-                    continue;
-                } else if (key.getBodyType() == BodyType.CHECKPOINT) {
+                BodyComponent key = contacts.bodyAt(c);
+                if (key == null) {
                     continue;
-                } else if (key.getBodyType() == BodyType.CHASM) {
-                    if (warmth != null) {
-                        warmth.setWarmth(-1);
-                        warmth.setOutside(false);
-                    }
-                    continue;
-                } else if (key.getBodyType() == BodyType.INDOORS) {
-                    if (warmth != null) {
-                        warmth.setOutside(false);
-                    }
-                    continue;
-                } else if (key.getBodyType() == BodyType.HEATSOURCE) {
-                    if (warmth != null) {
-                        warmth.setNearHeatSource(true);
-                    }
+                }
+                if (body.getBodyType().response(key.getBodyType()) != CollisionResponse.SOLID) {
                     continue;
                 }
-                ContactComponent contact = entry.getValue();
+                ContactComponent contact = contacts.contactAt(c);
+                // the other body's contacts are swept from its side, so only trust the time of impact on our own
+                float toi = contact.getBodyA() == body ? contact.getTimeOfImpact() : 0;
                 if (contact.getNormal().y < 0 && vel.y < 0) {
                     accel.y = 0;
-                    vel.y = 0;
+                    toiY = Math.min(toiY, toi);
                 } else if (contact.getNormal().y > 0 && vel.y > 0) {
                     accel.y = 0;
-                    vel.y = 0;
+                    toiY = Math.min(toiY, toi);
                 }
 
                 if (contact.getNormal().x < 0 && vel.x < 0) {
-                    vel.x = 0;
+                    toiX = Math.min(toiX, toi);
                 } else if (contact.getNormal().x > 0 && vel.x > 0) {
-                    vel.x = 0;
+                    toiX = Math.min(toiX, toi);
                 }
             }
+
+            // move up to the first thing hit on each axis and no further
+            vel.x *= toiX;
+            vel.y *= toiY;
         }
     }
 }
@@ -0,0 +1,186 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.glaikunt.framework.esc.component.common.ContactComponent;
+
+/**
+ * Open addressing map of other body -> contact, keyed on the body id so nothing is boxed or hashed through Objects.
+ * Linear probing with backward shift on remove, so there are no tombstones to clean up.
+ *
+ * Iterate with an index over {@link #capacity()}, skipping slots where {@link #bodyAt(int)} is null.
+ * Don't remove from the same map while iterating it.
+ */
+public class ContactMap {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private BodyComponent[] bodies;
+    private ContactComponent[] contacts;
+    private int mask;
+    private int threshold;
+    private int size;
+
+    public ContactMap() {
+        this(8);
+    }
+
+    public ContactMap(int initialCapacity) {
+        int capacity = 8;
+        while (capacity < initialCapacity) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    public ContactComponent get(BodyComponent body) {
+        int i = indexOf(body.getId());
+        return i < 0 ? null : contacts[i];
+    }
+
+    public boolean containsKey(BodyComponent body) {
+        return indexOf(body.getId()) >= 0;
+    }
+
+    public ContactComponent put(BodyComponent body, ContactComponent contact) {
+        long key = body.getId();
+        int i = slot(key);
+        while (bodies[i] != null) {
+            if (keys[i] == key) {
+                ContactComponent old = contacts[i];
+                bodies[i] = body;
+                contacts[i] = contact;
+                return old;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        bodies[i] = body;
+        contacts[i] = contact;
+        if (++size > threshold) {
+            resize(bodies.length << 1);
+        }
+        return null;
+    }
+
+    public ContactComponent remove(BodyComponent body) {
+        int i = indexOf(body.getId());
+        if (i < 0) {
+            return null;
+        }
+        ContactComponent old = contacts[i];
+
+        // pull back any entries further along the probe chain that could live in the freed slot
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            if (bodies[j] == null) {
+                break;
+            }
+            int ideal = slot(keys[j]);
+            if (((j - ideal) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                bodies[i] = bodies[j];
+                contacts[i] = contacts[j];
+                i = j;
+            }
+        }
+        bodies[i] = null;
+        contacts[i] = null;
+        size--;
+        return old;
+    }
+
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+        for (int i = 0; i < bodies.length; i++) {
+            bodies[i] = null;
+            contacts[i] = null;
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int capacity() {
+        return bodies.length;
+    }
+
+    /**
+     * @return the other body in this slot, or null if the slot is empty
+     */
+    public BodyComponent bodyAt(int index) {
+        return bodies[index];
+    }
+
+    public ContactComponent contactAt(int index) {
+        return contacts[index];
+    }
+
+    private int indexOf(long key) {
+        int i = slot(key);
+        while (bodies[i] != null) {
+            if (keys[i] == key) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        bodies = new BodyComponent[capacity];
+        contacts = new ContactComponent[capacity];
+        mask = capacity - 1;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        BodyComponent[] oldBodies = bodies;
+        ContactComponent[] oldContacts = contacts;
+        allocate(capacity);
+        for (int o = 0; o < oldBodies.length; o++) {
+            if (oldBodies[o] == null) {
+                continue;
+            }
+            int i = slot(oldKeys[o]);
+            while (bodies[i] != null) {
+                i = (i + 1) & mask;
+            }
+            keys[i] = oldKeys[o];
+            bodies[i] = oldBodies[o];
+            contacts[i] = oldContacts[o];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ContactMap{");
+        boolean first = true;
+        for (int i = 0; i < bodies.length; i++) {
+            if (bodies[i] == null) {
+                continue;
+            }
+            if (!first) {
+                sb.append(", ");
+            }
+            sb.append(keys[i]).append('=').append(contacts[i]);
+            first = false;
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,148 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.ashley.core.EntitySystem;
+import com.glaikunt.framework.application.GameUtils;
+import com.glaikunt.framework.esc.component.common.AccelerationComponent;
+import com.glaikunt.framework.esc.component.common.GravityComponent;
+
+/**
+ * Gravity, velocity, decay and position in two passes over the PhysicsStore instead of one system each.
+ * The input and collision stages still run in between, handed in here and left in the engine with processing off.
+ *
+ * Gravity moves to the end of the tick (after the sleep count) so input still gets the final say on acceleration.
+ * A body that's asleep by then gets its dose at the start of the next tick instead, if something woke it before
+ * input runs, same as GravitySystem would. That keeps it frame-for-frame with the separate systems on a fixed step.
+ * Switch with GameConstants.FUSED_INTEGRATOR.
+ */
+public class IntegratorSystem extends EntitySystem {
+
+    private final PhysicsStore store;
+    private final SpatialHashGrid broadphase;
+    private final SleepSystem sleep;
+    private final EntitySystem[] inputStages;
+    private final EntitySystem[] collisionStages;
+
+    public IntegratorSystem(PhysicsStore store, SpatialHashGrid broadphase, SleepSystem sleep, EntitySystem[] inputStages, EntitySystem[] collisionStages) {
+        this.store = store;
+        this.broadphase = broadphase;
+        this.sleep = sleep;
+        this.inputStages = inputStages;
+        this.collisionStages = collisionStages;
+    }
+
+    @Override
+    public void update(float delta) {
+
+        applyPendingGravity(delta);
+        for (EntitySystem stage : inputStages) {
+            stage.update(delta);
+        }
+
+        integrateVelocity(delta);
+
+        // the collision stage reads velocities and writes velocity and acceleration, any of them can wake a body
+        store.handOff(PhysicsStore.AWAKE | PhysicsStore.ACCELERATION | PhysicsStore.VELOCITY);
+        for (EntitySystem stage : collisionStages) {
+            stage.update(delta);
+        }
+
+        integratePosition(delta);
+
+        // sleep, the AI and the actors all work on the components until the next tick
+        store.handOff(PhysicsStore.ALL);
+        sleep.settle();
+
+        // anything asleep now missed the gravity above (or had it zeroed), it's owed some if it wakes up
+        int n = store.size;
+        BodyComponent[] bodies = store.bodies;
+        boolean[] gravityPending = store.gravityPending;
+        for (int i = 0; i < n; ++i) {
+            gravityPending[i] = !bodies[i].isAwake();
+        }
+    }
+
+    /**
+     * Straight onto the components as nothing's in the store at the start of a tick, and only a few bodies are owed
+     */
+    private void applyPendingGravity(float delta) {
+        int n = store.size;
+        boolean[] gravityPending = store.gravityPending;
+        BodyComponent[] bodies = store.bodies;
+        for (int i = 0; i < n; ++i) {
+            if (!gravityPending[i] || !bodies[i].isAwake()) {
+                continue;
+            }
+            GravityComponent gravity = store.gravities[i];
+            if (gravity != null) {
+                AccelerationComponent acc = store.accelerations[i];
+                acc.x += (gravity.x * delta);
+                acc.y += (gravity.y * delta);
+            }
+            gravityPending[i] = false;
+        }
+    }
+
+    private void integrateVelocity(float delta) {
+        store.read(PhysicsStore.AWAKE | PhysicsStore.ACCELERATION | PhysicsStore.VELOCITY);
+
+        int n = store.size;
+        boolean[] awake = store.awake;
+        float[] accX = store.accX;
+        float[] accY = store.accY;
+        float[] velX = store.velX;
+        float[] velY = store.velY;
+        for (int i = 0; i < n; ++i) {
+            if (!awake[i]) {
+                continue;
+            }
+            // y clamps on the x limit as well, same as VelocityIterationsSystem
+            velX[i] = GameUtils.clamp(-VelocityIterationsSystem.MAX_X_V, VelocityIterationsSystem.MAX_X_V, velX[i] + (accX[i] * delta));
+            velY[i] = GameUtils.clamp(-VelocityIterationsSystem.MAX_X_V, VelocityIterationsSystem.MAX_X_V, velY[i] + (accY[i] * delta));
+        }
+
+        store.wrote(PhysicsStore.ACCELERATION | PhysicsStore.VELOCITY);
+    }
+
+    private void integratePosition(float delta) {
+        store.snapshotPositions();
+        // only what the collision stage had comes back from the components
+        store.read(PhysicsStore.ALL);
+
+        int n = store.size;
+        boolean[] awake = store.awake;
+        float[] gravX = store.gravX;
+        float[] gravY = store.gravY;
+        float[] accX = store.accX;
+        float[] accY = store.accY;
+        float[] velX = store.velX;
+        float[] velY = store.velY;
+        float[] posX = store.posX;
+        float[] posY = store.posY;
+        float[] moveScaleX = store.moveScaleX;
+        BodyComponent[] bodies = store.bodies;
+        float decay = 1f - (VelocityDecaySystem.DECAY_RATE*delta);
+        for (int i = 0; i < n; ++i) {
+            if (!awake[i]) {
+                continue;
+            }
+            velX[i] *= decay;
+            velY[i] *= decay;
+
+            posX[i] += velX[i] * moveScaleX[i];
+            posY[i] += velY[i];
+
+            BodyComponent body = bodies[i];
+            body.x = posX[i];
+            body.y = posY[i];
+            broadphase.update(body);
+
+            SleepSystem.countIdle(body, velX[i], velY[i], accX[i], accY[i]);
+
+            // next tick's gravity, cleared again if the body goes to sleep
+            accX[i] += gravX[i] * delta;
+            accY[i] += gravY[i] * delta;
+        }
+
+        store.wrote(PhysicsStore.VELOCITY | PhysicsStore.POSITION | PhysicsStore.ACCELERATION);
+    }
+}
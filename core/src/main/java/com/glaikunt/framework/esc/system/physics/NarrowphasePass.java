@@ -0,0 +1,122 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.glaikunt.framework.application.Rectangle;
+
+/**
+ * One moving body's hit tests for a step. Filled by whichever worker got the body, read back on the main thread.
+ * Holds geometry only, what the hits mean for the contact maps is decided afterwards.
+ */
+class NarrowphasePass {
+
+    BodyComponent body;
+    float velX;
+    float velY;
+    final Rectangle start = new Rectangle();
+    final Rectangle sweep = new Rectangle();
+
+    // plane * SIDES + side
+    float[] sideTimes = new float[0];
+    Rectangle[] sideInteractions = new Rectangle[0];
+    Vector2[] sideNormals = new Vector2[0];
+
+    // other bodies by ascending id, NO_HIT entries kept so a miss can end a contact
+    int count;
+    BodyComponent[] others = new BodyComponent[8];
+    float[] times = new float[8];
+    Rectangle[] interactions = grow(new Rectangle[0], 8);
+    Vector2[] normals = grow(new Vector2[0], 8);
+
+    void begin(BodyComponent body, float velX, float velY, int planes) {
+        this.body = body;
+        this.velX = velX;
+        this.velY = velY;
+        this.count = 0;
+
+        start.set(body);
+        sweep.set(body);
+        sweep.x += Math.min(0, velX);
+        sweep.y += Math.min(0, velY);
+        sweep.width += Math.abs(velX);
+        sweep.height += Math.abs(velY);
+
+        int sides = planes * TileOccupancyComponent.SIDES;
+        if (sideTimes.length < sides) {
+            sideTimes = new float[sides];
+            sideInteractions = grow(sideInteractions, sides);
+            sideNormals = grow(sideNormals, sides);
+        }
+        for (int i = 0; i < sides; i++) {
+            sideTimes[i] = SweptAabb.NO_HIT;
+        }
+    }
+
+    /**
+     * Callers add in id order
+     */
+    void add(BodyComponent other, float toi, Rectangle interaction, Vector2 normal) {
+        if (count == others.length) {
+            int capacity = count << 1;
+            BodyComponent[] oldOthers = others;
+            float[] oldTimes = times;
+            others = new BodyComponent[capacity];
+            times = new float[capacity];
+            System.arraycopy(oldOthers, 0, others, 0, count);
+            System.arraycopy(oldTimes, 0, times, 0, count);
+            interactions = grow(interactions, capacity);
+            normals = grow(normals, capacity);
+        }
+        others[count] = other;
+        times[count] = toi;
+        interactions[count].set(interaction);
+        normals[count].set(normal);
+        count++;
+    }
+
+    /**
+     * @return the index of the other body, or -1 if it wasn't tested
+     */
+    int find(BodyComponent other) {
+        long id = other.getId();
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = others[mid].getId();
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    void clear() {
+        body = null;
+        for (int i = 0; i < count; i++) {
+            others[i] = null;
+        }
+        count = 0;
+    }
+
+    private static Rectangle[] grow(Rectangle[] old, int capacity) {
+        Rectangle[] grown = new Rectangle[capacity];
+        System.arraycopy(old, 0, grown, 0, old.length);
+        for (int i = old.length; i < capacity; i++) {
+            grown[i] = new Rectangle();
+        }
+        return grown;
+    }
+
+    private static Vector2[] grow(Vector2[] old, int capacity) {
+        Vector2[] grown = new Vector2[capacity];
+        System.arraycopy(old, 0, grown, 0, old.length);
+        for (int i = old.length; i < capacity; i++) {
+            grown[i] = new Vector2();
+        }
+        return grown;
+    }
+}
@@ -4,4 +4,9 @@ public interface PhysicConstants {
 
     float GRAVITY = -200f;
     float WIND = 0f;
+
+    // sleeping, see SleepSystem
+    float SLEEP_VELOCITY = 0.01f;
+    float SLEEP_ACCELERATION = 0.01f;
+    int SLEEP_TICKS = 60;
 }
@@ -0,0 +1,362 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.glaikunt.framework.application.GameUtils;
+import com.glaikunt.framework.esc.component.common.AccelerationComponent;
+import com.glaikunt.framework.esc.component.common.GravityComponent;
+import com.glaikunt.framework.esc.component.common.PositionComponent;
+import com.glaikunt.framework.esc.component.common.VelocityComponent;
+import com.glaikunt.framework.esc.component.common.WarmthComponent;
+
+/**
+ * Dense copy of the integrator state for every moving body, one float[] column per value.
+ * While the integrators run the columns are the source of truth, back to back systems share them without syncing.
+ * Input, collision and the actors still work on the components though, so a column is only pushed back (and pulled
+ * again on next use) when it's handed off to them, see {@link #handOff(int)}.
+ * Component refs are kept alongside in the same order so the pull/push never goes through a ComponentMapper.
+ */
+public class PhysicsStore implements EntityListener {
+
+    public static final int AWAKE = 1;
+    public static final int GRAVITY = 1 << 1;
+    public static final int ACCELERATION = 1 << 2;
+    public static final int VELOCITY = 1 << 3;
+    public static final int POSITION = 1 << 4;
+    public static final int MOVE_SCALE = 1 << 5;
+    public static final int ALL = AWAKE | GRAVITY | ACCELERATION | VELOCITY | POSITION | MOVE_SCALE;
+
+    public static final Family FAMILY = Family.all(BodyComponent.class, VelocityComponent.class, AccelerationComponent.class, PositionComponent.class).get();
+
+    private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
+    private final ComponentMapper<VelocityComponent> vcm = ComponentMapper.getFor(VelocityComponent.class);
+    private final ComponentMapper<AccelerationComponent> acm = ComponentMapper.getFor(AccelerationComponent.class);
+    private final ComponentMapper<PositionComponent> pcm = ComponentMapper.getFor(PositionComponent.class);
+    private final ComponentMapper<GravityComponent> gcm = ComponentMapper.getFor(GravityComponent.class);
+    private final ComponentMapper<WarmthComponent> wcm = ComponentMapper.getFor(WarmthComponent.class);
+
+    private final ObjectIntMap<Entity> indices = new ObjectIntMap<>();
+    int size;
+    // columns that match the components, and the ones written here that the components haven't seen yet
+    private int current;
+    private int dirty;
+
+    Entity[] entities;
+    BodyComponent[] bodies;
+    VelocityComponent[] velocities;
+    AccelerationComponent[] accelerations;
+    PositionComponent[] positions;
+    // optional, actors add these after the body so they're picked up by their own listeners
+    GravityComponent[] gravities;
+    WarmthComponent[] warmths;
+
+    float[] posX;
+    float[] posY;
+    float[] velX;
+    float[] velY;
+    float[] accX;
+    float[] accY;
+    float[] gravX;
+    float[] gravY;
+    float[] moveScaleX;
+    boolean[] awake;
+    // only the IntegratorSystem reads this, it adds gravity at the end of a tick so a new body needs its first dose up front
+    boolean[] gravityPending;
+
+    public PhysicsStore() {
+        allocate(64);
+    }
+
+    /**
+     * Registers for the moving bodies and takes in the ones already in the engine
+     */
+    public void attach(Engine engine) {
+        ImmutableArray<Entity> existing = engine.getEntitiesFor(FAMILY);
+        for (int i = 0; i < existing.size(); i++) {
+            entityAdded(existing.get(i));
+        }
+        engine.addEntityListener(FAMILY, this);
+        engine.addEntityListener(Family.all(GravityComponent.class).get(), new EntityListener() {
+            @Override
+            public void entityAdded(Entity entity) {
+                int i = indices.get(entity, -1);
+                if (i >= 0) {
+                    gravities[i] = gcm.get(entity);
+                }
+            }
+
+            @Override
+            public void entityRemoved(Entity entity) {
+                int i = indices.get(entity, -1);
+                if (i >= 0) {
+                    gravities[i] = null;
+                }
+            }
+        });
+        engine.addEntityListener(Family.all(WarmthComponent.class).get(), new EntityListener() {
+            @Override
+            public void entityAdded(Entity entity) {
+                int i = indices.get(entity, -1);
+                if (i >= 0) {
+                    warmths[i] = wcm.get(entity);
+                }
+            }
+
+            @Override
+            public void entityRemoved(Entity entity) {
+                int i = indices.get(entity, -1);
+                if (i >= 0) {
+                    warmths[i] = null;
+                }
+            }
+        });
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        if (indices.containsKey(entity)) {
+            return;
+        }
+        if (size == entities.length) {
+            grow(size << 1);
+        }
+        int i = size++;
+        entities[i] = entity;
+        bodies[i] = bcm.get(entity);
+        velocities[i] = vcm.get(entity);
+        accelerations[i] = acm.get(entity);
+        positions[i] = pcm.get(entity);
+        gravities[i] = gcm.get(entity);
+        warmths[i] = wcm.get(entity);
+        gravityPending[i] = true;
+        indices.put(entity, i);
+        load(i);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        int i = indices.remove(entity, -1);
+        if (i < 0) {
+            return;
+        }
+        int last = --size;
+        if (i != last) {
+            // swap the last row into the hole, columns too as they may not have been pushed yet
+            entities[i] = entities[last];
+            bodies[i] = bodies[last];
+            velocities[i] = velocities[last];
+            accelerations[i] = accelerations[last];
+            positions[i] = positions[last];
+            gravities[i] = gravities[last];
+            warmths[i] = warmths[last];
+            gravityPending[i] = gravityPending[last];
+            posX[i] = posX[last];
+            posY[i] = posY[last];
+            velX[i] = velX[last];
+            velY[i] = velY[last];
+            accX[i] = accX[last];
+            accY[i] = accY[last];
+            gravX[i] = gravX[last];
+            gravY[i] = gravY[last];
+            moveScaleX[i] = moveScaleX[last];
+            awake[i] = awake[last];
+            indices.put(entities[i], i);
+        }
+        entities[last] = null;
+        bodies[last] = null;
+        velocities[last] = null;
+        accelerations[last] = null;
+        positions[last] = null;
+        gravities[last] = null;
+        warmths[last] = null;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Makes sure the columns are up to date before a loop reads them, only pulls the ones handed off since
+     */
+    void read(int columns) {
+        int stale = columns & ~current;
+        if ((stale & AWAKE) != 0) pullAwake();
+        if ((stale & GRAVITY) != 0) pullGravity();
+        if ((stale & ACCELERATION) != 0) pullAcceleration();
+        if ((stale & VELOCITY) != 0) pullVelocity();
+        if ((stale & POSITION) != 0) pullPosition();
+        if ((stale & MOVE_SCALE) != 0) pullMoveScale();
+        current |= columns;
+    }
+
+    /**
+     * A loop wrote these, they go back to the components at the next hand off
+     */
+    void wrote(int columns) {
+        dirty |= columns;
+    }
+
+    /**
+     * Other code is about to read or write these on the components. Pushes what's been written here
+     * and forgets the rest, so the next read pulls them again.
+     */
+    public void handOff(int columns) {
+        int push = dirty & columns;
+        if ((push & ACCELERATION) != 0) pushAcceleration();
+        if ((push & VELOCITY) != 0) pushVelocity();
+        if ((push & POSITION) != 0) pushPosition();
+        dirty &= ~columns;
+        current &= ~columns;
+    }
+
+    private void load(int i) {
+        awake[i] = bodies[i].isAwake();
+        velX[i] = velocities[i].x;
+        velY[i] = velocities[i].y;
+        accX[i] = accelerations[i].x;
+        accY[i] = accelerations[i].y;
+        posX[i] = positions[i].x;
+        posY[i] = positions[i].y;
+        GravityComponent gravity = gravities[i];
+        gravX[i] = gravity == null ? 0 : gravity.x;
+        gravY[i] = gravity == null ? 0 : gravity.y;
+        moveScaleX[i] = moveScale(warmths[i]);
+    }
+
+    private void pullAwake() {
+        for (int i = 0; i < size; i++) {
+            awake[i] = bodies[i].isAwake();
+        }
+    }
+
+    private void pullGravity() {
+        for (int i = 0; i < size; i++) {
+            GravityComponent gravity = gravities[i];
+            gravX[i] = gravity == null ? 0 : gravity.x;
+            gravY[i] = gravity == null ? 0 : gravity.y;
+        }
+    }
+
+    private void pullVelocity() {
+        for (int i = 0; i < size; i++) {
+            velX[i] = velocities[i].x;
+            velY[i] = velocities[i].y;
+        }
+    }
+
+    private void pushVelocity() {
+        for (int i = 0; i < size; i++) {
+            velocities[i].x = velX[i];
+            velocities[i].y = velY[i];
+        }
+    }
+
+    private void pullAcceleration() {
+        for (int i = 0; i < size; i++) {
+            accX[i] = accelerations[i].x;
+            accY[i] = accelerations[i].y;
+        }
+    }
+
+    private void pushAcceleration() {
+        for (int i = 0; i < size; i++) {
+            accelerations[i].x = accX[i];
+            accelerations[i].y = accY[i];
+        }
+    }
+
+    /**
+     * Call before moving anything, sleeping bodies included so they don't draw between stale positions
+     */
+    void snapshotPositions() {
+        for (int i = 0; i < size; i++) {
+            positions[i].snapshot();
+        }
+    }
+
+    private void pullPosition() {
+        for (int i = 0; i < size; i++) {
+            posX[i] = positions[i].x;
+            posY[i] = positions[i].y;
+        }
+    }
+
+    private void pushPosition() {
+        for (int i = 0; i < size; i++) {
+            positions[i].x = posX[i];
+            positions[i].y = posY[i];
+        }
+    }
+
+    /**
+     * How much of its x velocity a body gets to use, the cold slows you down
+     */
+    private void pullMoveScale() {
+        for (int i = 0; i < size; i++) {
+            moveScaleX[i] = moveScale(warmths[i]);
+        }
+    }
+
+    private static float moveScale(WarmthComponent warmth) {
+        if (warmth == null) {
+            return 1f;
+        } else if (!warmth.isFrozen()) {
+            return GameUtils.clamp(0.05f, 1f, warmth.getWarmthFloat()*2);
+        } else {
+            return .05f;
+        }
+    }
+
+    private void allocate(int capacity) {
+        entities = new Entity[capacity];
+        bodies = new BodyComponent[capacity];
+        velocities = new VelocityComponent[capacity];
+        accelerations = new AccelerationComponent[capacity];
+        positions = new PositionComponent[capacity];
+        gravities = new GravityComponent[capacity];
+        warmths = new WarmthComponent[capacity];
+        posX = new float[capacity];
+        posY = new float[capacity];
+        velX = new float[capacity];
+        velY = new float[capacity];
+        accX = new float[capacity];
+        accY = new float[capacity];
+        gravX = new float[capacity];
+        gravY = new float[capacity];
+        moveScaleX = new float[capacity];
+        awake = new boolean[capacity];
+        gravityPending = new boolean[capacity];
+    }
+
+    private void grow(int capacity) {
+        Entity[] oldEntities = entities;
+        BodyComponent[] oldBodies = bodies;
+        VelocityComponent[] oldVelocities = velocities;
+        AccelerationComponent[] oldAccelerations = accelerations;
+        PositionComponent[] oldPositions = positions;
+        GravityComponent[] oldGravities = gravities;
+        WarmthComponent[] oldWarmths = warmths;
+        boolean[] oldGravityPending = gravityPending;
+        float[][] oldColumns = {posX, posY, velX, velY, accX, accY, gravX, gravY, moveScaleX};
+        boolean[] oldAwake = awake;
+        allocate(capacity);
+        System.arraycopy(oldEntities, 0, entities, 0, size);
+        System.arraycopy(oldBodies, 0, bodies, 0, size);
+        System.arraycopy(oldVelocities, 0, velocities, 0, size);
+        System.arraycopy(oldAccelerations, 0, accelerations, 0, size);
+        System.arraycopy(oldPositions, 0, positions, 0, size);
+        System.arraycopy(oldGravities, 0, gravities, 0, size);
+        System.arraycopy(oldWarmths, 0, warmths, 0, size);
+        System.arraycopy(oldGravityPending, 0, gravityPending, 0, size);
+        float[][] columns = {posX, posY, velX, velY, accX, accY, gravX, gravY, moveScaleX};
+        for (int c = 0; c < columns.length; c++) {
+            System.arraycopy(oldColumns[c], 0, columns[c], 0, size);
+        }
+        System.arraycopy(oldAwake, 0, awake, 0, size);
+    }
+}
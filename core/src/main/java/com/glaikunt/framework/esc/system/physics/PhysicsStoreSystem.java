@@ -0,0 +1,32 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.ashley.core.EntitySystem;
+
+/**
+ * An integrator that runs over the PhysicsStore rather than the components.
+ * If whatever runs next works on the components, tell it which columns to hand back once it's done.
+ */
+public abstract class PhysicsStoreSystem extends EntitySystem {
+
+    protected final PhysicsStore store;
+    private int handOff;
+
+    protected PhysicsStoreSystem(PhysicsStore store) {
+        this.store = store;
+    }
+
+    public PhysicsStoreSystem handOffAfter(int columns) {
+        this.handOff = columns;
+        return this;
+    }
+
+    @Override
+    public final void update(float delta) {
+        integrate(delta);
+        if (handOff != 0) {
+            store.handOff(handOff);
+        }
+    }
+
+    protected abstract void integrate(float delta);
+}
@@ -1,59 +1,49 @@
 package com.glaikunt.framework.esc.system.physics;
 
-import com.badlogic.ashley.core.ComponentMapper;
-import com.badlogic.ashley.core.Engine;
-import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.EntitySystem;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.utils.ImmutableArray;
-import com.glaikunt.framework.application.GameUtils;
-import com.glaikunt.framework.esc.component.common.*;
-
-
 /**
  * This is gravity movement based on pixels.
  * By Andrew Murray
  */
-public class PositionIterationsSystem extends EntitySystem {
+public class PositionIterationsSystem extends PhysicsStoreSystem {
 
-    private final ImmutableArray<Entity> entities;
+    private final SpatialHashGrid broadphase;
 
-    private final ComponentMapper<VelocityComponent> vcm = ComponentMapper.getFor(VelocityComponent.class);
-    private final ComponentMapper<PositionComponent> pcm = ComponentMapper.getFor(PositionComponent.class);
-    private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
-    private final ComponentMapper<WarmthComponent> wcm = ComponentMapper.getFor(WarmthComponent.class);
-
-    public PositionIterationsSystem(Engine engine) {
-        entities = engine.getEntitiesFor(
-                Family.all(VelocityComponent.class, PositionComponent.class, BodyComponent.class, SizeComponent.class)
-                        .get()
-        );
+    public PositionIterationsSystem(PhysicsStore store, SpatialHashGrid broadphase) {
+        super(store);
+        this.broadphase = broadphase;
     }
 
     @Override
-    public void update(float delta) {
-
-        for (int ei = 0; ei < entities.size(); ++ei) {
+    protected void integrate(float delta) {
+        store.snapshotPositions();
+        store.read(PhysicsStore.AWAKE | PhysicsStore.VELOCITY | PhysicsStore.POSITION | PhysicsStore.MOVE_SCALE);
+
+        int n = store.size;
+        boolean[] awake = store.awake;
+        float[] velX = store.velX;
+        float[] velY = store.velY;
+        float[] posX = store.posX;
+        float[] posY = store.posY;
+        float[] moveScaleX = store.moveScaleX;
+        for (int i = 0; i < n; ++i) {
+            if (!awake[i]) {
+                continue;
+            }
+            posX[i] += velX[i] * moveScaleX[i];
+            posY[i] += velY[i];
+        }
 
-            Entity entity = entities.get(ei);
-            VelocityComponent vel = vcm.get(entity);
-            PositionComponent pos = pcm.get(entity);
-            BodyComponent body = bcm.get(entity);
-            WarmthComponent warmth = wcm.get(entity);
+        store.wrote(PhysicsStore.POSITION);
 
-            if (warmth != null) {
-                if (!warmth.isFrozen()) {
-                    pos.x += vel.x * GameUtils.clamp(0.05f, 1f, warmth.getWarmthFloat()*2);
-                } else {
-                    pos.x += vel.x * .05f;
-                }
-            } else {
-                pos.x += vel.x;
+        BodyComponent[] bodies = store.bodies;
+        for (int i = 0; i < n; ++i) {
+            if (!awake[i]) {
+                continue;
             }
-            pos.y += vel.y;
-
-            body.x = pos.x;
-            body.y = pos.y;
+            BodyComponent body = bodies[i];
+            body.x = posX[i];
+            body.y = posY[i];
+            broadphase.update(body);
         }
     }
 }
@@ -0,0 +1,86 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.glaikunt.framework.esc.component.common.AccelerationComponent;
+import com.glaikunt.framework.esc.component.common.VelocityComponent;
+
+/**
+ * Puts bodies to sleep once they've sat still for a while, the integrators and the narrowphase skip them until
+ * something wakes them back up (contact with a moving body, input or a knock from an attack).
+ * A body only sleeps when every dynamic body it's touching is ready to as well, so a pile goes down together.
+ */
+public class SleepSystem extends EntitySystem {
+
+    private final ImmutableArray<Entity> entities;
+
+    private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
+    private final ComponentMapper<VelocityComponent> vcm = ComponentMapper.getFor(VelocityComponent.class);
+    private final ComponentMapper<AccelerationComponent> acm = ComponentMapper.getFor(AccelerationComponent.class);
+
+    public SleepSystem(Engine engine) {
+        entities = engine.getEntitiesFor(
+                Family.all(BodyComponent.class, VelocityComponent.class, AccelerationComponent.class)
+                        .get()
+        );
+    }
+
+    @Override
+    public void update(float delta) {
+
+        for (int ei = 0; ei < entities.size(); ++ei) {
+
+            Entity entity = entities.get(ei);
+            BodyComponent body = bcm.get(entity);
+            if (!body.isAwake()) {
+                continue;
+            }
+            VelocityComponent vel = vcm.get(entity);
+            AccelerationComponent accel = acm.get(entity);
+            countIdle(body, vel.x, vel.y, accel.x, accel.y);
+        }
+
+        settle();
+    }
+
+    static void countIdle(BodyComponent body, float velX, float velY, float accX, float accY) {
+        if (Math.abs(velX) < PhysicConstants.SLEEP_VELOCITY && Math.abs(velY) < PhysicConstants.SLEEP_VELOCITY
+                && Math.abs(accX) < PhysicConstants.SLEEP_ACCELERATION && Math.abs(accY) < PhysicConstants.SLEEP_ACCELERATION) {
+            body.idleTicks++;
+        } else {
+            body.idleTicks = 0;
+        }
+    }
+
+    /**
+     * Sends to sleep whatever has been idle long enough, idle ticks need counting first
+     */
+    void settle() {
+
+        for (int ei = 0; ei < entities.size(); ++ei) {
+
+            Entity entity = entities.get(ei);
+            BodyComponent body = bcm.get(entity);
+            if (body.isAwake() && body.idleTicks >= PhysicConstants.SLEEP_TICKS && isIslandIdle(body)) {
+                vcm.get(entity).setZero();
+                acm.get(entity).setZero();
+                body.sleep();
+            }
+        }
+    }
+
+    private static boolean isIslandIdle(BodyComponent body) {
+        ContactMap contacts = body.getContactsByBody();
+        for (int i = 0; i < contacts.capacity(); i++) {
+            BodyComponent other = contacts.bodyAt(i);
+            if (other != null && other.isDynamic() && other.isAwake() && other.idleTicks < PhysicConstants.SLEEP_TICKS) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,145 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Uniform grid broadphase, every body is bucketed into each cell its rectangle overlaps.
+ * Static bodies are inserted once when their entity is added, moving bodies are re-bucketed
+ * by the PositionIterationsSystem and only touch the map when they cross a cell boundary.
+ */
+public class SpatialHashGrid implements EntityListener {
+
+    public static final float DEFAULT_CELL_SIZE = 64f; // two tiles
+
+    private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
+    private final LongMap<Array<BodyComponent>> cells = new LongMap<>();
+    private final float cellSize;
+
+    public SpatialHashGrid(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        BodyComponent body = bcm.get(entity);
+        if (body != null) {
+            insert(body);
+        }
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        BodyComponent body = bcm.get(entity);
+        if (body != null) {
+            remove(body);
+        }
+    }
+
+    public void insert(BodyComponent body) {
+        if (body.inGrid) {
+            return;
+        }
+        body.cellMinX = cell(body.x);
+        body.cellMinY = cell(body.y);
+        body.cellMaxX = cell(body.x + body.width);
+        body.cellMaxY = cell(body.y + body.height);
+        body.inGrid = true;
+        addToCells(body);
+    }
+
+    public void remove(BodyComponent body) {
+        if (!body.inGrid) {
+            return;
+        }
+        removeFromCells(body);
+        body.inGrid = false;
+    }
+
+    /**
+     * Call after a body has moved, cheap when the body stays inside the same cells
+     */
+    public void update(BodyComponent body) {
+        if (!body.inGrid) {
+            return;
+        }
+        int minX = cell(body.x);
+        int minY = cell(body.y);
+        int maxX = cell(body.x + body.width);
+        int maxY = cell(body.y + body.height);
+        if (minX == body.cellMinX && minY == body.cellMinY && maxX == body.cellMaxX && maxY == body.cellMaxY) {
+            return;
+        }
+        removeFromCells(body);
+        body.cellMinX = minX;
+        body.cellMinY = minY;
+        body.cellMaxX = maxX;
+        body.cellMaxY = maxY;
+        addToCells(body);
+    }
+
+    /**
+     * Appends every body sharing a cell with the given area, a body spanning several cells can be appended more than once
+     */
+    public void query(Rectangle area, Array<BodyComponent> out) {
+        int minX = cell(area.x);
+        int minY = cell(area.y);
+        int maxX = cell(area.x + area.width);
+        int maxY = cell(area.y + area.height);
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                Array<BodyComponent> bucket = cells.get(key(cx, cy));
+                if (bucket != null) {
+                    out.addAll(bucket);
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        for (Array<BodyComponent> bucket : cells.values()) {
+            for (int i = 0; i < bucket.size; i++) {
+                bucket.get(i).inGrid = false;
+            }
+        }
+        cells.clear();
+    }
+
+    private void addToCells(BodyComponent body) {
+        for (int cx = body.cellMinX; cx <= body.cellMaxX; cx++) {
+            for (int cy = body.cellMinY; cy <= body.cellMaxY; cy++) {
+                long key = key(cx, cy);
+                Array<BodyComponent> bucket = cells.get(key);
+                if (bucket == null) {
+                    bucket = new Array<>(false, 4);
+                    cells.put(key, bucket);
+                }
+                bucket.add(body);
+            }
+        }
+    }
+
+    private void removeFromCells(BodyComponent body) {
+        for (int cx = body.cellMinX; cx <= body.cellMaxX; cx++) {
+            for (int cy = body.cellMinY; cy <= body.cellMaxY; cy++) {
+                Array<BodyComponent> bucket = cells.get(key(cx, cy));
+                if (bucket != null) {
+                    bucket.removeValue(body, true);
+                }
+            }
+        }
+    }
+
+    private int cell(float v) {
+        return MathUtils.floor(v / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
@@ -0,0 +1,104 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Swept box vs box, a moves by (vx, vy) over the step and b stays put.
+ * Boxes that already overlap (or just touch) at the start of the step hit at t = 0 on the axis of least penetration,
+ * so a body resting on a floor keeps its contact every tick.
+ */
+public final class SweptAabb {
+
+    public static final float NO_HIT = -1f;
+
+    private SweptAabb() {
+    }
+
+    /**
+     * @param normal set to the contact normal, a unit axis pointing from a toward b
+     * @return time of impact in [0, 1], or {@link #NO_HIT}
+     */
+    public static float sweep(Rectangle a, float vx, float vy, Rectangle b, Vector2 normal) {
+
+        float aMaxX = a.x + a.width;
+        float aMaxY = a.y + a.height;
+        float bMaxX = b.x + b.width;
+        float bMaxY = b.y + b.height;
+
+        float entryX;
+        float exitX;
+        if (vx > 0) {
+            entryX = (b.x - aMaxX) / vx;
+            exitX = (bMaxX - a.x) / vx;
+        } else if (vx < 0) {
+            entryX = (bMaxX - a.x) / vx;
+            exitX = (b.x - aMaxX) / vx;
+        } else if (aMaxX < b.x || a.x > bMaxX) {
+            return NO_HIT;
+        } else {
+            entryX = Float.NEGATIVE_INFINITY;
+            exitX = Float.POSITIVE_INFINITY;
+        }
+
+        float entryY;
+        float exitY;
+        if (vy > 0) {
+            entryY = (b.y - aMaxY) / vy;
+            exitY = (bMaxY - a.y) / vy;
+        } else if (vy < 0) {
+            entryY = (bMaxY - a.y) / vy;
+            exitY = (b.y - aMaxY) / vy;
+        } else if (aMaxY < b.y || a.y > bMaxY) {
+            return NO_HIT;
+        } else {
+            entryY = Float.NEGATIVE_INFINITY;
+            exitY = Float.POSITIVE_INFINITY;
+        }
+
+        float entry = Math.max(entryX, entryY);
+        float exit = Math.min(exitX, exitY);
+        if (entry > exit || entry > 1 || exit <= 0) {
+            return NO_HIT; // misses, arrives after the step, or is already leaving
+        }
+
+        if (entry <= 0) {
+            // touching or overlapping already, push out along the shallower axis
+            float overlapX = Math.min(aMaxX, bMaxX) - Math.max(a.x, b.x);
+            float overlapY = Math.min(aMaxY, bMaxY) - Math.max(a.y, b.y);
+            if (overlapY <= overlapX) {
+                if (overlapX <= 0) {
+                    return NO_HIT; // corners only
+                }
+                normal.set(0, direction((b.y + bMaxY) - (a.y + aMaxY), vy));
+            } else {
+                if (overlapY <= 0) {
+                    return NO_HIT;
+                }
+                normal.set(direction((b.x + bMaxX) - (a.x + aMaxX), vx), 0);
+            }
+            return 0;
+        }
+
+        if (entryX > entryY) {
+            // sliding past a corner isn't a hit
+            if (Math.min(aMaxY + vy * entry, bMaxY) - Math.max(a.y + vy * entry, b.y) <= 0) {
+                return NO_HIT;
+            }
+            normal.set(Math.signum(vx), 0);
+        } else {
+            if (Math.min(aMaxX + vx * entry, bMaxX) - Math.max(a.x + vx * entry, b.x) <= 0) {
+                return NO_HIT;
+            }
+            normal.set(0, Math.signum(vy));
+        }
+        return entry;
+    }
+
+    private static float direction(float centreDelta, float velocity) {
+        if (centreDelta != 0) {
+            return Math.signum(centreDelta);
+        }
+        return velocity < 0 ? -1 : 1;
+    }
+}
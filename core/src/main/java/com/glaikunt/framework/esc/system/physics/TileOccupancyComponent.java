@@ -0,0 +1,116 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * The level's static collision geometry packed at tile resolution, one bit plane per collision class.
+ * Replaces a body per platform, moving bodies test only the tiles they touch.
+ */
+public class TileOccupancyComponent implements Component {
+
+    public static final int SIDE_FLOOR = 0;
+    public static final int SIDE_CEILING = 1;
+    public static final int SIDE_LEFT = 2;
+    public static final int SIDE_RIGHT = 3;
+    public static final int SIDES = 4;
+
+    private static final BodyType[] PLANE_TYPES = {BodyType.BLOCK, BodyType.PLAYER_ONLY_BLOCK};
+
+    private final int width;
+    private final int height;
+    private final float tileWidth;
+    private final float tileHeight;
+    private final long[][] planes;
+    // stand-ins for the geometry in the contact maps, a body can touch each side of each plane once
+    private final BodyComponent[][] proxies;
+
+    public TileOccupancyComponent(int width, int height, float tileWidth, float tileHeight) {
+        this.width = width;
+        this.height = height;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+        this.planes = new long[PLANE_TYPES.length][(width * height + 63) >>> 6];
+        this.proxies = new BodyComponent[PLANE_TYPES.length][SIDES];
+        for (int p = 0; p < PLANE_TYPES.length; p++) {
+            for (int s = 0; s < SIDES; s++) {
+                BodyComponent proxy = new BodyComponent();
+                proxy.setBodyType(PLANE_TYPES[p]);
+                proxy.set(0, 0, width * tileWidth, height * tileHeight);
+                proxy.tileProxy = true;
+                proxies[p][s] = proxy;
+            }
+        }
+    }
+
+    /**
+     * Marks every tile the rectangle covers, map objects are expected to be tile aligned
+     */
+    public void fill(BodyType bodyType, Rectangle rectangle) {
+        int plane = plane(bodyType);
+        int minX = tileX(rectangle.x);
+        int minY = tileY(rectangle.y);
+        int maxX = MathUtils.ceil((rectangle.x + rectangle.width) / tileWidth) - 1;
+        int maxY = MathUtils.ceil((rectangle.y + rectangle.height) / tileHeight) - 1;
+        for (int ty = Math.max(0, minY); ty <= Math.min(height - 1, maxY); ty++) {
+            for (int tx = Math.max(0, minX); tx <= Math.min(width - 1, maxX); tx++) {
+                int bit = ty * width + tx;
+                planes[plane][bit >>> 6] |= 1L << (bit & 63);
+            }
+        }
+    }
+
+    public boolean isOccupied(int plane, int tx, int ty) {
+        if (tx < 0 || ty < 0 || tx >= width || ty >= height) {
+            return false;
+        }
+        int bit = ty * width + tx;
+        return (planes[plane][bit >>> 6] & (1L << (bit & 63))) != 0;
+    }
+
+    public int tileX(float x) {
+        return MathUtils.floor(x / tileWidth);
+    }
+
+    public int tileY(float y) {
+        return MathUtils.floor(y / tileHeight);
+    }
+
+    public static int plane(BodyType bodyType) {
+        for (int p = 0; p < PLANE_TYPES.length; p++) {
+            if (PLANE_TYPES[p] == bodyType) {
+                return p;
+            }
+        }
+        throw new IllegalArgumentException("Not static geometry: " + bodyType);
+    }
+
+    public int getPlaneCount() {
+        return PLANE_TYPES.length;
+    }
+
+    public BodyType getPlaneType(int plane) {
+        return PLANE_TYPES[plane];
+    }
+
+    public BodyComponent getProxy(int plane, int side) {
+        return proxies[plane][side];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public float getTileWidth() {
+        return tileWidth;
+    }
+
+    public float getTileHeight() {
+        return tileHeight;
+    }
+}
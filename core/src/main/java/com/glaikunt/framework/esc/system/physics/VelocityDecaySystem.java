@@ -1,43 +1,34 @@
 package com.glaikunt.framework.esc.system.physics;
 
-import com.badlogic.ashley.core.ComponentMapper;
-import com.badlogic.ashley.core.Engine;
-import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.EntitySystem;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.utils.ImmutableArray;
-import com.glaikunt.framework.esc.component.common.AccelerationComponent;
-import com.glaikunt.framework.esc.component.common.VelocityComponent;
-
-
 /**
  * This is gravity movement based on pixels.
  * By Andrew Murray
  */
-public class VelocityDecaySystem extends EntitySystem {
-
-    private static final float DECAY_RATE = 10f;
-    private final ImmutableArray<Entity> entities;
-
-    private final ComponentMapper<VelocityComponent> vcm = ComponentMapper.getFor(VelocityComponent.class);
+public class VelocityDecaySystem extends PhysicsStoreSystem {
 
+    public static final float DECAY_RATE = 10f;
 
-    public VelocityDecaySystem(Engine engine) {
-        entities = engine.getEntitiesFor(
-                Family.all(VelocityComponent.class, AccelerationComponent.class)
-                        .get()
-        );
+    public VelocityDecaySystem(PhysicsStore store) {
+        super(store);
     }
 
     @Override
-    public void update(float delta) {
-
-        for (int ei = 0; ei < entities.size(); ++ei) {
-
-            Entity entity = entities.get(ei);
-            VelocityComponent vel = vcm.get(entity);
-
-            vel.scl(1f - (DECAY_RATE*delta) );
+    protected void integrate(float delta) {
+        store.read(PhysicsStore.AWAKE | PhysicsStore.VELOCITY);
+
+        int n = store.size;
+        boolean[] awake = store.awake;
+        float[] velX = store.velX;
+        float[] velY = store.velY;
+        float decay = 1f - (DECAY_RATE*delta);
+        for (int i = 0; i < n; ++i) {
+            if (!awake[i]) {
+                continue;
+            }
+            velX[i] *= decay;
+            velY[i] *= decay;
         }
+
+        store.wrote(PhysicsStore.VELOCITY);
     }
 }
@@ -1,46 +1,38 @@
 package com.glaikunt.framework.esc.system.physics;
 
-import com.badlogic.ashley.core.ComponentMapper;
-import com.badlogic.ashley.core.Engine;
-import com.badlogic.ashley.core.Entity;
-import com.badlogic.ashley.core.EntitySystem;
-import com.badlogic.ashley.core.Family;
-import com.badlogic.ashley.utils.ImmutableArray;
 import com.glaikunt.framework.application.GameUtils;
-import com.glaikunt.framework.esc.component.common.AccelerationComponent;
-import com.glaikunt.framework.esc.component.common.VelocityComponent;
 
 /**
  * This is gravity movement based on pixels.
  * By Andrew Murray
  */
-public class VelocityIterationsSystem extends EntitySystem {
+public class VelocityIterationsSystem extends PhysicsStoreSystem {
 
-    private static final float MAX_X_V = 20f;
-    private static final float MAX_Y_V = 20f; // should be terminal velocity
-    private final ImmutableArray<Entity> entities;
+    public static final float MAX_X_V = 20f;
+    static final float MAX_Y_V = 20f; // should be terminal velocity
 
-    private final ComponentMapper<VelocityComponent> vcm = ComponentMapper.getFor(VelocityComponent.class);
-    private final ComponentMapper<AccelerationComponent> fcm = ComponentMapper.getFor(AccelerationComponent.class);
-
-    public VelocityIterationsSystem(Engine engine) {
-        entities = engine.getEntitiesFor(
-                Family.all(VelocityComponent.class, AccelerationComponent.class, BodyComponent.class)
-                        .get()
-        );
+    public VelocityIterationsSystem(PhysicsStore store) {
+        super(store);
     }
 
     @Override
-    public void update(float delta) {
-
-        for (int ei = 0; ei < entities.size(); ++ei) {
-
-            Entity entity = entities.get(ei);
-            VelocityComponent vel = vcm.get(entity);
-            AccelerationComponent accel = fcm.get(entity);
-
-            vel.x = GameUtils.clamp(-MAX_X_V, MAX_X_V, vel.x + (accel.x * delta));
-            vel.y = GameUtils.clamp(-MAX_X_V, MAX_X_V, vel.y + (accel.y * delta));
+    protected void integrate(float delta) {
+        store.read(PhysicsStore.AWAKE | PhysicsStore.ACCELERATION | PhysicsStore.VELOCITY);
+
+        int n = store.size;
+        boolean[] awake = store.awake;
+        float[] accX = store.accX;
+        float[] accY = store.accY;
+        float[] velX = store.velX;
+        float[] velY = store.velY;
+        for (int i = 0; i < n; ++i) {
+            if (!awake[i]) {
+                continue;
+            }
+            velX[i] = GameUtils.clamp(-MAX_X_V, MAX_X_V, velX[i] + (accX[i] * delta));
+            velY[i] = GameUtils.clamp(-MAX_X_V, MAX_X_V, velY[i] + (accY[i] * delta));
         }
+
+        store.wrote(PhysicsStore.VELOCITY);
     }
 }
@@ -0,0 +1,67 @@
+package com.glaikunt.framework.esc.system.trigger;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Pooled, only valid for the duration of the listener call
+ */
+public class TriggerEvent implements Pool.Poolable {
+
+    public enum Phase {
+        ENTER,
+        STAY,
+        EXIT
+    }
+
+    private Phase phase;
+    private TriggerType type;
+    private Entity entity;
+    private TriggerVolumeComponent volume;
+
+    void set(Phase phase, TriggerType type, Entity entity, TriggerVolumeComponent volume) {
+        this.phase = phase;
+        this.type = type;
+        this.entity = entity;
+        this.volume = volume;
+    }
+
+    public Phase getPhase() {
+        return phase;
+    }
+
+    public TriggerType getType() {
+        return type;
+    }
+
+    /**
+     * @return the body that crossed
+     */
+    public Entity getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return the volume, or null for the warmth zones
+     */
+    public TriggerVolumeComponent getVolume() {
+        return volume;
+    }
+
+    @Override
+    public void reset() {
+        phase = null;
+        type = null;
+        entity = null;
+        volume = null;
+    }
+
+    @Override
+    public String toString() {
+        return "TriggerEvent{" +
+                "phase=" + phase +
+                ", type=" + type +
+                ", entity=" + entity +
+                '}';
+    }
+}
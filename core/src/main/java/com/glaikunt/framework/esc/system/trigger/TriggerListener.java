@@ -0,0 +1,6 @@
+package com.glaikunt.framework.esc.system.trigger;
+
+public interface TriggerListener {
+
+    void onTrigger(TriggerEvent event);
+}
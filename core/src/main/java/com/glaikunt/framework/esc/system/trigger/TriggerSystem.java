@@ -0,0 +1,179 @@
+package com.glaikunt.framework.esc.system.trigger;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.badlogic.gdx.utils.Pool;
+import com.glaikunt.framework.esc.component.common.PositionComponent;
+import com.glaikunt.framework.esc.component.common.VelocityComponent;
+import com.glaikunt.framework.esc.component.common.WarmthZoneComponent;
+import com.glaikunt.framework.esc.system.physics.BodyComponent;
+
+/**
+ * Works out which moving bodies crossed into or out of a trigger volume or a warmth zone this tick and tells the subscribers.
+ * Events are queued while detecting and dispatched after, so listeners can't see a half updated picture.
+ * Sleeping bodies haven't moved and are skipped, STAY is only raised when something listens for it.
+ *
+ * Runs after the physics so it sees where bodies ended up.
+ */
+public class TriggerSystem extends EntitySystem implements EntityListener {
+
+    private static final int[] ZONES = {WarmthZoneComponent.INDOORS, WarmthZoneComponent.CHASM, WarmthZoneComponent.HEATSOURCE};
+
+    private final Family trackedFamily = Family.all(BodyComponent.class, VelocityComponent.class, PositionComponent.class).get();
+    private final ImmutableArray<Entity> tracked;
+    private final ImmutableArray<Entity> volumeEntities;
+    private final ImmutableArray<Entity> zoneEntities;
+
+    private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
+    private final ComponentMapper<TriggerVolumeComponent> tvm = ComponentMapper.getFor(TriggerVolumeComponent.class);
+    private final ComponentMapper<WarmthZoneComponent> zcm = ComponentMapper.getFor(WarmthZoneComponent.class);
+
+    // zone flags each body was last seen in
+    private final ObjectIntMap<Entity> zoneFlags = new ObjectIntMap<>();
+
+    private final Pool<TriggerEvent> eventPool = new Pool<TriggerEvent>(32) {
+        @Override
+        protected TriggerEvent newObject() {
+            return new TriggerEvent();
+        }
+    };
+    private final Array<TriggerEvent> pending = new Array<>(false, 32);
+    private final Array<TriggerListener>[] listeners;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TriggerSystem(Engine engine) {
+        this.tracked = engine.getEntitiesFor(trackedFamily);
+        this.volumeEntities = engine.getEntitiesFor(Family.all(TriggerVolumeComponent.class).get());
+        this.zoneEntities = engine.getEntitiesFor(Family.all(WarmthZoneComponent.class).get());
+        this.listeners = new Array[TriggerEvent.Phase.values().length];
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new Array<>(false, 4);
+        }
+    }
+
+    public void subscribe(TriggerEvent.Phase phase, TriggerListener listener) {
+        listeners[phase.ordinal()].add(listener);
+    }
+
+    public void unsubscribe(TriggerEvent.Phase phase, TriggerListener listener) {
+        listeners[phase.ordinal()].removeValue(listener, true);
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        engine.addEntityListener(trackedFamily, this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+        zoneFlags.clear();
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        zoneFlags.remove(entity, 0);
+        for (int v = 0; v < volumeEntities.size(); v++) {
+            tvm.get(volumeEntities.get(v)).occupants.removeValue(entity, true);
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+
+        WarmthZoneComponent zones = zoneEntities.size() == 0 ? null : zcm.get(zoneEntities.first());
+        boolean stay = listeners[TriggerEvent.Phase.STAY.ordinal()].size > 0;
+
+        for (int e = 0; e < tracked.size(); e++) {
+
+            Entity entity = tracked.get(e);
+            BodyComponent body = bcm.get(entity);
+            if (!body.isAwake()) {
+                if (stay) {
+                    stayAll(entity);
+                }
+                continue;
+            }
+
+            for (int v = 0; v < volumeEntities.size(); v++) {
+                TriggerVolumeComponent volume = tvm.get(volumeEntities.get(v));
+                boolean inside = volume.getBounds().overlaps(body);
+                int occupant = volume.occupants.indexOf(entity, true);
+                if (inside && occupant < 0) {
+                    volume.occupants.add(entity);
+                    queue(TriggerEvent.Phase.ENTER, volume.getType(), entity, volume);
+                } else if (!inside && occupant >= 0) {
+                    volume.occupants.removeIndex(occupant);
+                    queue(TriggerEvent.Phase.EXIT, volume.getType(), entity, volume);
+                } else if (inside && stay) {
+                    queue(TriggerEvent.Phase.STAY, volume.getType(), entity, volume);
+                }
+            }
+
+            if (zones != null) {
+                int previous = zoneFlags.get(entity, 0);
+                int flags = zones.flagsUnder(body);
+                if (flags != previous) {
+                    zoneFlags.put(entity, flags);
+                }
+                int changed = flags ^ previous;
+                for (int zone : ZONES) {
+                    if ((changed & zone) != 0) {
+                        queue((flags & zone) != 0 ? TriggerEvent.Phase.ENTER : TriggerEvent.Phase.EXIT, TriggerType.forZone(zone), entity, null);
+                    } else if (stay && (flags & zone) != 0) {
+                        queue(TriggerEvent.Phase.STAY, TriggerType.forZone(zone), entity, null);
+                    }
+                }
+            }
+        }
+
+        dispatch();
+    }
+
+    private void stayAll(Entity entity) {
+        for (int v = 0; v < volumeEntities.size(); v++) {
+            TriggerVolumeComponent volume = tvm.get(volumeEntities.get(v));
+            if (volume.occupants.contains(entity, true)) {
+                queue(TriggerEvent.Phase.STAY, volume.getType(), entity, volume);
+            }
+        }
+        int flags = zoneFlags.get(entity, 0);
+        for (int zone : ZONES) {
+            if ((flags & zone) != 0) {
+                queue(TriggerEvent.Phase.STAY, TriggerType.forZone(zone), entity, null);
+            }
+        }
+    }
+
+    private void queue(TriggerEvent.Phase phase, TriggerType type, Entity entity, TriggerVolumeComponent volume) {
+        TriggerEvent event = eventPool.obtain();
+        event.set(phase, type, entity, volume);
+        pending.add(event);
+    }
+
+    private void dispatch() {
+        if (pending.size == 0) {
+            return;
+        }
+        for (int i = 0; i < pending.size; i++) {
+            TriggerEvent event = pending.get(i);
+            Array<TriggerListener> subscribers = listeners[event.getPhase().ordinal()];
+            for (int l = 0; l < subscribers.size; l++) {
+                subscribers.get(l).onTrigger(event);
+            }
+        }
+        eventPool.freeAll(pending);
+        pending.clear();
+    }
+}
@@ -0,0 +1,27 @@
+package com.glaikunt.framework.esc.system.trigger;
+
+import com.glaikunt.framework.esc.component.common.WarmthZoneComponent;
+
+public enum TriggerType {
+
+    CHECKPOINT,
+    INDOORS,
+    CHASM,
+    HEATSOURCE;
+
+    /**
+     * @param zone a single {@link WarmthZoneComponent} flag
+     */
+    public static TriggerType forZone(int zone) {
+        switch (zone) {
+            case WarmthZoneComponent.INDOORS:
+                return INDOORS;
+            case WarmthZoneComponent.CHASM:
+                return CHASM;
+            case WarmthZoneComponent.HEATSOURCE:
+                return HEATSOURCE;
+            default:
+                throw new IllegalArgumentException("Not a zone flag: " + zone);
+        }
+    }
+}
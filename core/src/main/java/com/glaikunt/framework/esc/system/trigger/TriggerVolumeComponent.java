@@ -0,0 +1,34 @@
+package com.glaikunt.framework.esc.system.trigger;
+
+import com.badlogic.ashley.core.Component;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * An area that only reports who walks in and out, it never stops anything and isn't in the collision set
+ */
+public class TriggerVolumeComponent implements Component {
+
+    private final TriggerType type;
+    private final Rectangle bounds = new Rectangle();
+    // kept by the TriggerSystem
+    final Array<Entity> occupants = new Array<>(false, 4);
+
+    public TriggerVolumeComponent(TriggerType type, float x, float y, float width, float height) {
+        this.type = type;
+        this.bounds.set(x, y, width, height);
+    }
+
+    public TriggerType getType() {
+        return type;
+    }
+
+    public Rectangle getBounds() {
+        return bounds;
+    }
+
+    public boolean isOccupied() {
+        return occupants.size > 0;
+    }
+}
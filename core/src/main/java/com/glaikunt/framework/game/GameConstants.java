@@ -2,13 +2,14 @@ package com.glaikunt.framework.game;
 
 public interface GameConstants {
 
-    boolean BEHAVIOUR_LOGGING = false;
     boolean GDX_APP_DEBUG_LOGGING = false; // help to prevent string creation
 
     String DEBUG = "DEBUG";
     float TIME_STEP = 1/60f;
+    int MAX_SUBSTEPS = 5;
     int VELOCITY_ITERATIONS = 6;
     int POSITION_ITERATIONS = 2;
+    boolean FUSED_INTEGRATOR = false; // true runs the physics through the one IntegratorSystem instead of a system each
 
     float PPM = 16f;
     float ZOOM = .5f;
@@ -1,15 +1,19 @@
 package com.glaikunt.framework.game;
 
+import com.badlogic.ashley.core.EntitySystem;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.utils.Scaling;
 import com.glaikunt.framework.FrameworkConstants;
 import com.glaikunt.framework.application.ApplicationResources;
 import com.glaikunt.framework.application.Screen;
+import com.glaikunt.framework.application.TraceRecorder;
 import com.glaikunt.framework.esc.component.camera.CameraControlsComponent;
 import com.glaikunt.framework.esc.component.common.GravityComponent;
 import com.glaikunt.framework.esc.system.AnimationSystem;
+import com.glaikunt.framework.esc.system.BehaviourTreeSystem;
 import com.glaikunt.framework.esc.system.CameraControlsSystem;
 import com.glaikunt.framework.esc.system.EnemyInputSystem;
 import com.glaikunt.framework.esc.system.FadeSystem;
@@ -18,9 +22,16 @@ import com.glaikunt.framework.esc.system.WarmthSystem;
 import com.glaikunt.framework.esc.system.physics.CollisionListenerSystem;
 import com.glaikunt.framework.esc.system.physics.CollisionSystem;
 import com.glaikunt.framework.esc.system.physics.GravitySystem;
+import com.glaikunt.framework.esc.system.physics.IntegratorSystem;
+import com.glaikunt.framework.esc.system.physics.PhysicsStore;
 import com.glaikunt.framework.esc.system.physics.PositionIterationsSystem;
+import com.glaikunt.framework.esc.system.physics.SleepSystem;
+import com.glaikunt.framework.esc.system.physics.SpatialHashGrid;
 import com.glaikunt.framework.esc.system.physics.VelocityDecaySystem;
 import com.glaikunt.framework.esc.system.physics.VelocityIterationsSystem;
+import com.glaikunt.framework.esc.system.trigger.TriggerSystem;
+import com.glaikunt.framework.game.enemy.PerceptionSystem;
+import com.glaikunt.framework.game.enemy.SquadPlannerSystem;
 import com.glaikunt.framework.game.map.levels.LevelController;
 
 public class GameScreen2D extends Screen {
@@ -44,26 +55,60 @@ public class GameScreen2D extends Screen {
         getApplicationResources().getImmutableGameEntity().add(cameraControls);
         getEngine().addEntity(getApplicationResources().getImmutableGameEntity());
 
-        this.levelController = new LevelController(getApplicationResources(), getFront(), getBackground());
-        getUX().addActor(levelController);
-
         // ########### Physics [Order Maters] ###########
-        getEngine().addSystem(new GravitySystem(getEngine()));
-        getEngine().addSystem(new PlayerInputSystem(getEngine()));
-        getEngine().addSystem(new EnemyInputSystem(getEngine()));
-        getEngine().addSystem(new VelocityIterationsSystem(getEngine()));
-
-        getEngine().addSystem(new CollisionListenerSystem(getEngine()));
-        getEngine().addSystem(new CollisionSystem(getEngine()));
-        getEngine().addSystem(new VelocityDecaySystem(getEngine()));
-
-        getEngine().addSystem(new PositionIterationsSystem(getEngine()));
+        SpatialHashGrid broadphase = new SpatialHashGrid(SpatialHashGrid.DEFAULT_CELL_SIZE);
+        PhysicsStore physicsStore = new PhysicsStore();
+        physicsStore.attach(getEngine());
+        if (GameConstants.FUSED_INTEGRATOR) {
+            // run from inside the integrator, they're only in the engine for their entity listeners
+            PlayerInputSystem playerInput = new PlayerInputSystem(getEngine());
+            EnemyInputSystem enemyInput = new EnemyInputSystem(getEngine());
+            CollisionListenerSystem collisionListener = new CollisionListenerSystem(getEngine(), broadphase, getApplicationResources().getParallelExecutor(), getApplicationResources().getTraceRecorder());
+            CollisionSystem collision = new CollisionSystem(getEngine());
+            SleepSystem sleep = new SleepSystem(getEngine());
+            playerInput.setProcessing(false);
+            enemyInput.setProcessing(false);
+            collisionListener.setProcessing(false);
+            collision.setProcessing(false);
+            sleep.setProcessing(false);
+            getEngine().addSystem(playerInput);
+            getEngine().addSystem(enemyInput);
+            getEngine().addSystem(collisionListener);
+            getEngine().addSystem(collision);
+            getEngine().addSystem(sleep);
+
+            getEngine().addSystem(new IntegratorSystem(physicsStore, broadphase, sleep,
+                    new EntitySystem[] {playerInput, enemyInput}, new EntitySystem[] {collisionListener, collision}));
+        } else {
+            // input works on the components, so the store hands back what it touches before it runs
+            getEngine().addSystem(new GravitySystem(physicsStore).handOffAfter(PhysicsStore.AWAKE | PhysicsStore.ACCELERATION));
+            getEngine().addSystem(new PlayerInputSystem(getEngine()));
+            getEngine().addSystem(new EnemyInputSystem(getEngine()));
+            getEngine().addSystem(new VelocityIterationsSystem(physicsStore).handOffAfter(PhysicsStore.AWAKE | PhysicsStore.ACCELERATION | PhysicsStore.VELOCITY));
+
+            getEngine().addSystem(new CollisionListenerSystem(getEngine(), broadphase, getApplicationResources().getParallelExecutor(), getApplicationResources().getTraceRecorder()));
+            getEngine().addSystem(new CollisionSystem(getEngine()));
+            getEngine().addSystem(new VelocityDecaySystem(physicsStore));
+
+            getEngine().addSystem(new PositionIterationsSystem(physicsStore, broadphase).handOffAfter(PhysicsStore.ALL));
+            getEngine().addSystem(new SleepSystem(getEngine()));
+        }
         // ########### Physics [Order Maters] ###########
 
+        TriggerSystem triggers = new TriggerSystem(getEngine());
+        getEngine().addSystem(triggers);
         getEngine().addSystem(new CameraControlsSystem(getEngine()));
-        getEngine().addSystem(new WarmthSystem(getEngine()));
+        getEngine().addSystem(new WarmthSystem(getEngine(), triggers));
         getEngine().addSystem(new AnimationSystem(getEngine()));
         getEngine().addSystem(new FadeSystem(getEngine()));
+        // after physics, same place the actors used to step them
+        getEngine().addSystem(new PerceptionSystem(getEngine()));
+        getEngine().addSystem(new SquadPlannerSystem(getEngine()));
+        getEngine().addSystem(new BehaviourTreeSystem(getEngine(), getApplicationResources().getParallelExecutor(), getApplicationResources().getTraceRecorder()));
+
+        // systems first, the level's bodies come in through their entity listeners
+        this.levelController = new LevelController(getApplicationResources(), getFront(), getBackground(), triggers);
+        getUX().addActor(levelController);
     }
 
     @Override
@@ -81,6 +126,17 @@ public class GameScreen2D extends Screen {
         levelController.getCurrentLevel().act(getFront());
     }
 
+    @Override
+    public void frameUpdate(float delta) {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F9)) {
+            TraceRecorder trace = getApplicationResources().getTraceRecorder();
+            trace.setEnabled(!trace.isEnabled());
+        }
+        if (levelController.getPlayer() != null) {
+            levelController.getPlayer().cameraUpdate(delta);
+        }
+    }
+
     @Override
     public void render2D() {
 
@@ -0,0 +1,88 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.Entity;
+import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.application.TraceEvent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
+
+/**
+ * A condition that only gets evaluated again when one of the facts it depends on is raised,
+ * otherwise the enemy's blackboard answers with the last result.
+ * Depend on {@link BlackboardFact#VOLATILE} for anything that can't be cached.
+ *
+ * Conditions that only read the enemy's own components (and nothing the tree's actions write) can say so with
+ * {@link #isReadOnly()}, those get evaluated ahead of the step on the worker threads (see {@link ConditionPrefetch}).
+ */
+public abstract class AbstractConditionTask extends AbstractLeafTask {
+
+    private final int dependsOn;
+    private int slot = -1;
+
+    protected AbstractConditionTask(ApplicationResources applicationResources, BlackboardFact... dependsOn) {
+        super(applicationResources);
+        this.dependsOn = BlackboardFact.maskOf(dependsOn);
+    }
+
+    @Override
+    public final Status execute() {
+        Entity entity = getEntity();
+        BlackboardComponent blackboard = bbcm.get(entity);
+        if (blackboard == null || slot < 0 || (dependsOn & BlackboardFact.VOLATILE.mask) != 0) {
+            return traced(TraceEvent.CONDITION, entity, evaluate(entity), 0);
+        }
+        Status status = blackboard.getCached(slot, dependsOn);
+        if (status == null) {
+            status = evaluate(entity);
+            blackboard.setCached(slot, status);
+            return traced(TraceEvent.CONDITION, entity, status, 0);
+        }
+        return traced(TraceEvent.CONDITION, entity, status, 1);
+    }
+
+    /**
+     * Fills the slot if it's stale, the step then finds it cached. Off the main thread, so read only conditions only.
+     */
+    void prefetch(int worker, Entity entity, BlackboardComponent blackboard) {
+        if (slot < 0 || (dependsOn & BlackboardFact.VOLATILE.mask) != 0 || !isReadOnly()) {
+            return;
+        }
+        if (blackboard.getCached(slot, dependsOn) == null) {
+            blackboard.setCached(slot, evaluate(entity));
+        }
+    }
+
+    /**
+     * Nothing to keep per worker unless the condition senses ahead
+     */
+    void prepare(int workers) {
+    }
+
+    /**
+     * The tree's object is shared, use the entity handed in rather than {@link #getEntity()}
+     */
+    protected abstract Status evaluate(Entity entity);
+
+    /**
+     * True if evaluating has no side effects and reads nothing the actions change mid step,
+     * no scratch fields either as several threads evaluate the one condition at once
+     */
+    protected boolean isReadOnly() {
+        return false;
+    }
+
+    public int getDependsOn() {
+        return dependsOn;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    /**
+     * Where in the blackboard this condition keeps its result, one per condition in the template
+     */
+    void setSlot(int slot) {
+        this.slot = slot;
+    }
+}
@@ -1,27 +1,114 @@
 package com.glaikunt.framework.game.enemy;
 
+import com.badlogic.ashley.core.ComponentMapper;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.ai.btree.LeafTask;
 import com.badlogic.gdx.ai.btree.Task;
 import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.application.TraceEvent;
+import com.glaikunt.framework.application.TraceRecorder;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.component.behaviour.ResumableTask;
+import com.glaikunt.framework.esc.component.common.DamageComponent;
+import com.glaikunt.framework.esc.component.common.PlayerComponent;
+import com.glaikunt.framework.esc.component.common.VelocityComponent;
+import com.glaikunt.framework.esc.component.common.WarmthComponent;
+import com.glaikunt.framework.esc.component.movement.EnemyInputComponent;
+import com.glaikunt.framework.esc.system.physics.BodyComponent;
 
-public abstract class AbstractLeafTask extends LeafTask<Entity> {
+/**
+ * Leaf tasks are shared by every enemy with the same stance (see {@link BehaviourFactory}), so they hold no enemy state.
+ * The enemy being stepped is the tree's object, look its components up each execute and keep anything that has to last in its components.
+ * Shared scratch fields are only safe in execute/act, those run on the main thread one enemy at a time.
+ * Anything used from a prefetch or {@link AbstractSensingConditionTask#sense} runs on the worker threads for several
+ * enemies at once, so it has to be kept per worker (see {@link AbstractSensingConditionTask#prepareScratch}).
+ */
+public abstract class AbstractLeafTask extends LeafTask<Entity> implements ResumableTask {
+
+    protected static final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
+    protected static final ComponentMapper<EnemyInputComponent> icm = ComponentMapper.getFor(EnemyInputComponent.class);
+    protected static final ComponentMapper<TargetsComponent> tcm = ComponentMapper.getFor(TargetsComponent.class);
+    protected static final ComponentMapper<EasyAccessComponent> eacm = ComponentMapper.getFor(EasyAccessComponent.class);
+    protected static final ComponentMapper<WarmthComponent> wcm = ComponentMapper.getFor(WarmthComponent.class);
+    protected static final ComponentMapper<DamageComponent> dcm = ComponentMapper.getFor(DamageComponent.class);
+    protected static final ComponentMapper<BlackboardComponent> bbcm = ComponentMapper.getFor(BlackboardComponent.class);
+    protected static final ComponentMapper<PlayerComponent> pcm = ComponentMapper.getFor(PlayerComponent.class);
+    protected static final ComponentMapper<VelocityComponent> vcm = ComponentMapper.getFor(VelocityComponent.class);
+    protected static final ComponentMapper<PerceptionComponent> pecm = ComponentMapper.getFor(PerceptionComponent.class);
+    protected static final ComponentMapper<SquadComponent> scm = ComponentMapper.getFor(SquadComponent.class);
 
     private final ApplicationResources applicationResources;
-    private final Entity entity;
+    private final TraceRecorder trace;
+    private final int traceId;
+    // only set while resuming, the tree has been reset so getObject() has nothing to give
+    private Entity resumedFor;
 
-    protected AbstractLeafTask(Entity entity, ApplicationResources applicationResources) {
-        this.entity = entity;
+    protected AbstractLeafTask(ApplicationResources applicationResources) {
         this.applicationResources = applicationResources;
+        this.trace = applicationResources.getTraceRecorder();
+        this.traceId = trace.register(getClass().getSimpleName());
     }
 
+    /**
+     * The enemy this step is for
+     */
     public Entity getEntity() {
-        return entity;
+        return resumedFor != null ? resumedFor : getObject();
+    }
+
+    @Override
+    public Status resume(Entity entity) {
+        resumedFor = entity;
+        try {
+            return execute();
+        } finally {
+            resumedFor = null;
+        }
+    }
+
+    protected Entity getPlayerEntity() {
+        return getPlayerEntity(getEntity());
+    }
+
+    protected static Entity getPlayerEntity(Entity entity) {
+        return eacm.get(entity).getPlayerEntity();
+    }
+
+    /**
+     * This tick's squad for the enemy, null if it hasn't been given one
+     */
+    protected Squad getSquad() {
+        return getSquad(getEntity());
+    }
+
+    protected static Squad getSquad(Entity entity) {
+        SquadComponent squad = scm.get(entity);
+        return squad == null ? null : squad.getSquad();
+    }
+
+    /**
+     * Notes the action's outcome in the trace if it's on, wrap the return with it
+     */
+    protected Status traced(Entity entity, Status status) {
+        return traced(TraceEvent.ACTION, entity, status, 0);
+    }
+
+    protected Status traced(Entity entity, Status status, float note) {
+        return traced(TraceEvent.ACTION, entity, status, note);
+    }
+
+    Status traced(TraceEvent event, Entity entity, Status status, float note) {
+        if (trace.isEnabled()) {
+            BodyComponent bc = bcm.get(entity);
+            trace.record(event, (int) bc.getId(), traceId, status.ordinal(), bc.x, bc.y, note);
+        }
+        return status;
     }
 
     public ApplicationResources getApplicationResources() {
         return applicationResources;
     }
+
     @Override
     protected Task<Entity> copyTo(Task<Entity> task) {
         return null;
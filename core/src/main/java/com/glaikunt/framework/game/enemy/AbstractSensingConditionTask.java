@@ -0,0 +1,93 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.Entity;
+import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
+
+/**
+ * A volatile condition split in two. {@link #sense} does the looking (distances, line of sight, searching the level)
+ * and runs in the prefetch on the worker threads, leaving a reading in the blackboard. {@link #act} picks that up in
+ * the step on the main thread and does the steering/targeting. Without a reading (not in the prefetch batch, or the
+ * same condition twice in a step) it senses there and then, so it comes out the same either way.
+ */
+public abstract class AbstractSensingConditionTask extends AbstractConditionTask {
+
+    // by worker, what sense picked out
+    private Entity[] sensedTargets = new Entity[1];
+
+    protected AbstractSensingConditionTask(ApplicationResources applicationResources, BlackboardFact... dependsOn) {
+        super(applicationResources, dependsOn);
+    }
+
+    @Override
+    protected final Status evaluate(Entity entity) {
+        BlackboardComponent blackboard = bbcm.get(entity);
+        int slot = getSlot();
+        if (blackboard != null && slot >= 0 && blackboard.hasReading(slot)) {
+            int reading = blackboard.getReading(slot);
+            Entity target = blackboard.getReadingTarget(slot);
+            // used up, anything after this in the step may have changed what it would see
+            blackboard.clearReading(slot);
+            if (!isStale(entity, reading, target)) {
+                return act(entity, reading, target);
+            }
+        }
+        // the workers are done by the time the steps run, worker 0's scratch is free
+        sensedTargets[0] = null;
+        int reading = sense(0, entity);
+        return act(entity, reading, sensedTargets[0]);
+    }
+
+    @Override
+    void prepare(int workers) {
+        if (sensedTargets.length < workers) {
+            sensedTargets = new Entity[workers];
+        }
+        prepareScratch(workers);
+    }
+
+    @Override
+    void prefetch(int worker, Entity entity, BlackboardComponent blackboard) {
+        int slot = getSlot();
+        if (slot < 0 || (getDependsOn() & BlackboardFact.VOLATILE.mask) == 0) {
+            return;
+        }
+        sensedTargets[worker] = null;
+        int reading = sense(worker, entity);
+        blackboard.setReading(slot, reading, sensedTargets[worker]);
+        sensedTargets[worker] = null;
+    }
+
+    /**
+     * Grow any scratch of the subclass's own to this many workers, main thread
+     */
+    protected void prepareScratch(int workers) {
+    }
+
+    /**
+     * True if the steps before this one have made the reading wrong, it gets sensed again instead
+     */
+    protected boolean isStale(Entity entity, int reading, Entity target) {
+        return false;
+    }
+
+    /**
+     * Hands the target found along with the reading on to {@link #act}
+     */
+    protected final void sensed(int worker, Entity target) {
+        sensedTargets[worker] = target;
+    }
+
+    /**
+     * Reads only, writes nothing but the worker's own scratch. Several workers sense the one condition at once.
+     *
+     * @return the reading, anything but negative
+     */
+    protected abstract int sense(int worker, Entity entity);
+
+    /**
+     * Main thread, applies the reading and comes up with the status
+     */
+    protected abstract Status act(Entity entity, int reading, Entity target);
+}
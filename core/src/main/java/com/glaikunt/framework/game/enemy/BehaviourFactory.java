@@ -1,23 +1,77 @@
 package com.glaikunt.framework.game.enemy;
 
 import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.ai.btree.BehaviorTree;
 import com.badlogic.gdx.ai.btree.Task;
 import com.badlogic.gdx.ai.btree.branch.Selector;
 import com.badlogic.gdx.ai.btree.branch.Sequence;
-import com.glaikunt.framework.Ansi;
 import com.glaikunt.framework.application.ApplicationResources;
-import com.glaikunt.framework.game.GameConstants;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardPrefetch;
+
+import java.util.Arrays;
 
 public class BehaviourFactory {
 
+    // one tree per stance, every enemy of that stance steps the same one (see BehaviourTreeSystem)
+    private static final BehaviorTree<Entity>[] templates = newTemplates();
+    private static final ConditionPrefetch[] prefetches = new ConditionPrefetch[Stance.values().length];
+    private static ApplicationResources templatesFor;
+
     private BehaviourFactory() {}
-    public static Task<Entity> getBehaviour(Stance stance, Entity entity, ApplicationResources applicationResources) {
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("[AI]] ")+Ansi.purple("Stance: ")+Ansi.yellow(stance.name()));
+
+    /**
+     * The shared tree for the stance, built the first time it's asked for.
+     * Set the tree's object to the enemy before stepping it.
+     */
+    public static BehaviorTree<Entity> getTemplate(Stance stance, ApplicationResources applicationResources) {
+        if (templatesFor != applicationResources) {
+            Arrays.fill(templates, null);
+            Arrays.fill(prefetches, null);
+            templatesFor = applicationResources;
+        }
+        BehaviorTree<Entity> template = templates[stance.ordinal()];
+        if (template == null) {
+            ConditionPrefetch prefetch = prefetches[stance.ordinal()] = new ConditionPrefetch();
+            template = templates[stance.ordinal()] = new BehaviorTree<>(getBehaviour(stance, applicationResources));
+            assignSlots(template, 0, prefetch);
+        }
+        return template;
+    }
+
+    /**
+     * The read only conditions of the stance's shared tree, for the BehaviourTreeSystem to fill in ahead of the steps
+     */
+    public static BlackboardPrefetch getPrefetch(Stance stance, ApplicationResources applicationResources) {
+        getTemplate(stance, applicationResources);
+        return prefetches[stance.ordinal()];
+    }
+
+    /**
+     * Gives each condition in the tree its own blackboard slot to cache into
+     */
+    private static int assignSlots(Task<Entity> task, int next, ConditionPrefetch prefetch) {
+        if (task instanceof AbstractConditionTask) {
+            AbstractConditionTask condition = (AbstractConditionTask) task;
+            condition.setSlot(next++);
+            prefetch.add(condition);
+        }
+        for (int i = 0; i < task.getChildCount(); i++) {
+            next = assignSlots(task.getChild(i), next, prefetch);
+        }
+        return next;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static BehaviorTree<Entity>[] newTemplates() {
+        return new BehaviorTree[Stance.values().length];
+    }
+
+    public static Task<Entity> getBehaviour(Stance stance, ApplicationResources applicationResources) {
         switch (stance) {
-            case DEFENSIVE: return defensiveBehaviour(entity, applicationResources);
-            case PASSIVE: return passiveBehaviour(entity, applicationResources);
-            case AGGRESSIVE: return aggressiveBehaviour(entity, applicationResources);
-            case AGGRESSIVE_WARM: return aggressiveWarmerBehaviour(entity, applicationResources);
+            case DEFENSIVE: return defensiveBehaviour(applicationResources);
+            case PASSIVE: return passiveBehaviour(applicationResources);
+            case AGGRESSIVE: return aggressiveBehaviour(applicationResources);
+            case AGGRESSIVE_WARM: return aggressiveWarmerBehaviour(applicationResources);
             default: return null;
         }
     }
@@ -27,26 +81,26 @@ public class BehaviourFactory {
      *  - holding ground, only attack if player too close
      * @return
      */
-    private static Task<Entity> defensiveBehaviour(Entity entity, ApplicationResources applicationResources) {
+    private static Task<Entity> defensiveBehaviour(ApplicationResources applicationResources) {
         Sequence<Entity> playerStateSequence = new Sequence<>(
-                new PlayerDeadConditionTask(entity, applicationResources),
-                new EatPlayerActionTask(entity, applicationResources)
+                new PlayerDeadConditionTask(applicationResources),
+                new EatPlayerActionTask(applicationResources)
         );
         Sequence<Entity> breakObstaclesSequence = new Sequence<>(
-                new IsBreakableDirectlyBlockingPathConditionTask(entity, applicationResources),
-                new AttackBreakableActionTask(entity, applicationResources)
+                new IsBreakableDirectlyBlockingPathConditionTask(applicationResources),
+                new AttackBreakableActionTask(applicationResources)
         );
         Sequence<Entity> findHeatSourceSequence = new Sequence<>(
-                new TooColdConditionTask(entity, applicationResources),
-                new MoveToNearestHeatSourceActionTask(entity, applicationResources)
+                new TooColdConditionTask(applicationResources),
+                new MoveToNearestHeatSourceActionTask(applicationResources)
         );
         Sequence<Entity> defensiveAttackSequence = new Sequence<>(
-                new IsWarmConditionTask(entity, applicationResources),
-                new AttackPlayerHoldingGroundActionTask(entity, applicationResources)
+                new IsWarmConditionTask(applicationResources),
+                new AttackPlayerHoldingGroundActionTask(applicationResources)
         );
 
         return new Selector<>(
-                new LevelCompleteConditionTask(entity, applicationResources),
+                new LevelCompleteConditionTask(applicationResources),
                 playerStateSequence,
                 breakObstaclesSequence,
                 findHeatSourceSequence,
@@ -61,31 +115,31 @@ public class BehaviourFactory {
      *  - attack if player close
      * @return
      */
-    private static Task<Entity> passiveBehaviour(Entity entity, ApplicationResources applicationResources) {
+    private static Task<Entity> passiveBehaviour(ApplicationResources applicationResources) {
         Sequence<Entity> playerStateSequence = new Sequence<>(
-                new PlayerDeadConditionTask(entity, applicationResources),
-                new EatPlayerActionTask(entity, applicationResources)
+                new PlayerDeadConditionTask(applicationResources),
+                new EatPlayerActionTask(applicationResources)
         );
         Sequence<Entity> breakObstaclesSequence = new Sequence<>(
-                new IsBreakableDirectlyBlockingPathConditionTask(entity, applicationResources),
-                new AttackBreakableActionTask(entity, applicationResources)
+                new IsBreakableDirectlyBlockingPathConditionTask(applicationResources),
+                new AttackBreakableActionTask(applicationResources)
         );
         Sequence<Entity> findHeatSourceSequence = new Sequence<>(
-                new TooColdConditionTask(entity, applicationResources),
-                new MoveToNearestHeatSourceActionTask(entity, applicationResources)
+                new TooColdConditionTask(applicationResources),
+                new MoveToNearestHeatSourceActionTask(applicationResources)
         );
         Sequence<Entity> wanderIfWarmSequence = new Sequence<>(
-                new IsWarmConditionTask(entity, applicationResources),
-                new WanderAimlesslyActionTask(entity, applicationResources)
+                new IsWarmConditionTask(applicationResources),
+                new WanderAimlesslyActionTask(applicationResources)
         );
         Sequence<Entity> attackIfCloseSequence = new Sequence<>(
-                new IsWarmConditionTask(entity, applicationResources),
-                new PlayerNearbyConditionTask(entity, applicationResources),
-                new AttackPlayerActionTask(entity, applicationResources)
+                new IsWarmConditionTask(applicationResources),
+                new PlayerNearbyConditionTask(applicationResources),
+                new AttackPlayerActionTask(applicationResources)
         );
 
         return new Selector<>(
-                new LevelCompleteConditionTask(entity, applicationResources),
+                new LevelCompleteConditionTask(applicationResources),
                 playerStateSequence,
                 breakObstaclesSequence,
                 findHeatSourceSequence,
@@ -101,33 +155,33 @@ public class BehaviourFactory {
      *  - find heatsource if too cold
      * @return
      */
-    private static Task<Entity> aggressiveBehaviour(Entity entity, ApplicationResources applicationResources) {
+    private static Task<Entity> aggressiveBehaviour(ApplicationResources applicationResources) {
         Sequence<Entity> playerStateSequence = new Sequence<>(
-                new PlayerDeadConditionTask(entity, applicationResources),
-                new EatPlayerActionTask(entity, applicationResources)
+                new PlayerDeadConditionTask(applicationResources),
+                new EatPlayerActionTask(applicationResources)
         );
         Sequence<Entity> attackIfCloseSequence = new Sequence<>(
-                new NotTooColdConditionTask(entity, applicationResources),
-                new PlayerNearbyConditionTask(entity, applicationResources),
-                new AttackPlayerActionTask(entity, applicationResources)
+                new NotTooColdConditionTask(applicationResources),
+                new PlayerNearbyConditionTask(applicationResources),
+                new AttackPlayerActionTask(applicationResources)
         );
         Sequence<Entity> breakObstaclesSequence = new Sequence<>(
-                new IsBreakableDirectlyBlockingPathConditionTask(entity, applicationResources),
-                new AttackBreakableActionTask(entity, applicationResources)
+                new IsBreakableDirectlyBlockingPathConditionTask(applicationResources),
+                new AttackBreakableActionTask(applicationResources)
         );
         Sequence<Entity> seekPlayerIfWarmSequence = new Sequence<>(
-                new IsWarmConditionTask(entity, applicationResources),
-                new HuntThePlayerDownActionTask(entity, applicationResources)
+                new IsWarmConditionTask(applicationResources),
+                new HuntThePlayerDownActionTask(applicationResources)
         );
         Sequence<Entity> findHeatSourceSequence = new Sequence<>(
-                new TooColdConditionTask(entity, applicationResources),
-                new MoveToNearestHeatSourceActionTask(entity, applicationResources)
+                new TooColdConditionTask(applicationResources),
+                new MoveToNearestHeatSourceActionTask(applicationResources)
         );
         Sequence<Entity> fallback = new Sequence<>(
-                new MoveToNearestHeatSourceActionTask(entity, applicationResources)
+                new MoveToNearestHeatSourceActionTask(applicationResources)
         );
         return new Selector<>(
-                new LevelCompleteConditionTask(entity, applicationResources),
+                new LevelCompleteConditionTask(applicationResources),
                 playerStateSequence,
                 attackIfCloseSequence,
                 breakObstaclesSequence,
@@ -144,33 +198,33 @@ public class BehaviourFactory {
      *  - find heatsource if too cold
      * @return
      */
-    private static Task<Entity> aggressiveWarmerBehaviour(Entity entity, ApplicationResources applicationResources) {
+    private static Task<Entity> aggressiveWarmerBehaviour(ApplicationResources applicationResources) {
         Sequence<Entity> playerStateSequence = new Sequence<>(
-                new PlayerDeadConditionTask(entity, applicationResources),
-                new EatPlayerActionTask(entity, applicationResources)
+                new PlayerDeadConditionTask(applicationResources),
+                new EatPlayerActionTask(applicationResources)
         );
         Sequence<Entity> findHeatSourceSequence = new Sequence<>(
-                new HeatUpConditionTask(entity, applicationResources),
-                new MoveToNearestHeatSourceActionTask(entity, applicationResources)
+                new HeatUpConditionTask(applicationResources),
+                new MoveToNearestHeatSourceActionTask(applicationResources)
         );
         Sequence<Entity> attackIfCloseSequence = new Sequence<>(
-                new NotTooColdConditionTask(entity, applicationResources),
-                new PlayerNearbyConditionTask(entity, applicationResources),
-                new AttackPlayerActionTask(entity, applicationResources)
+                new NotTooColdConditionTask(applicationResources),
+                new PlayerNearbyConditionTask(applicationResources),
+                new AttackPlayerActionTask(applicationResources)
         );
         Sequence<Entity> breakObstaclesSequence = new Sequence<>(
-                new IsBreakableDirectlyBlockingPathConditionTask(entity, applicationResources),
-                new AttackBreakableActionTask(entity, applicationResources)
+                new IsBreakableDirectlyBlockingPathConditionTask(applicationResources),
+                new AttackBreakableActionTask(applicationResources)
         );
         Sequence<Entity> seekPlayerIfWarmSequence = new Sequence<>(
-                new IsWarmConditionTask(entity, applicationResources),
-                new HuntThePlayerDownActionTask(entity, applicationResources)
+                new IsWarmConditionTask(applicationResources),
+                new HuntThePlayerDownActionTask(applicationResources)
         );
         Sequence<Entity> fallback = new Sequence<>(
-                new MoveToNearestHeatSourceActionTask(entity, applicationResources)
+                new MoveToNearestHeatSourceActionTask(applicationResources)
         );
         return new Selector<>(
-                new LevelCompleteConditionTask(entity, applicationResources),
+                new LevelCompleteConditionTask(applicationResources),
                 playerStateSequence,
                 attackIfCloseSequence,
                 breakObstaclesSequence,
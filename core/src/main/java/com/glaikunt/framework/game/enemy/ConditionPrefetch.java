@@ -0,0 +1,35 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardPrefetch;
+
+/**
+ * The read only conditions of one stance's tree, evaluated into the enemy's blackboard before the serial steps,
+ * and the volatile ones that can sense ahead (see {@link AbstractSensingConditionTask})
+ */
+class ConditionPrefetch implements BlackboardPrefetch {
+
+    private final Array<AbstractConditionTask> conditions = new Array<>(AbstractConditionTask.class);
+
+    void add(AbstractConditionTask condition) {
+        conditions.add(condition);
+    }
+
+    @Override
+    public void prepare(int workers) {
+        AbstractConditionTask[] items = conditions.items;
+        for (int i = 0; i < conditions.size; i++) {
+            items[i].prepare(workers);
+        }
+    }
+
+    @Override
+    public void prefetch(int worker, Entity entity, BlackboardComponent blackboard) {
+        AbstractConditionTask[] items = conditions.items;
+        for (int i = 0; i < conditions.size; i++) {
+            items[i].prefetch(worker, entity, blackboard);
+        }
+    }
+}
@@ -8,11 +8,10 @@ public class EatPlayerActionTask extends AbstractLeafTask {
 
 //    private final PlayerComponent playerBC;
 
-    protected EatPlayerActionTask(Entity entity, ApplicationResources applicationResources) {
-        super(entity, applicationResources);
+    protected EatPlayerActionTask(ApplicationResources applicationResources) {
+        super(applicationResources);
 
-        EasyAccessComponent eac = entity.getComponent(EasyAccessComponent.class);
-//        this.playerBC = eac.getPlayerEntity().getComponent(PlayerComponent.class);
+//        this.playerBC = pcm.get(getPlayerEntity());
     }
 
     //TODO some funny/silly effect
@@ -3,8 +3,6 @@ package com.glaikunt.framework.game.enemy;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.ashley.core.Family;
 import com.badlogic.ashley.utils.ImmutableArray;
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.ai.btree.BehaviorTree;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.Batch;
@@ -15,16 +13,19 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.glaikunt.framework.application.ApplicationResources;
 import com.glaikunt.framework.application.CommonActor;
+import com.glaikunt.framework.application.TraceEvent;
+import com.glaikunt.framework.application.TraceRecorder;
 
 import com.glaikunt.framework.cache.TextureCache;
 import com.glaikunt.framework.esc.component.animation.AnimationComponent;
+import com.glaikunt.framework.esc.component.behaviour.BehaviourTreeComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
 import com.glaikunt.framework.esc.component.common.*;
 import com.glaikunt.framework.esc.component.movement.AbstractPlayerInputComponent;
 import com.glaikunt.framework.esc.component.movement.EnemyInputComponent;
 import com.glaikunt.framework.esc.component.movement.PlayerInputComponent;
 import com.glaikunt.framework.esc.system.physics.BodyComponent;
 import com.glaikunt.framework.esc.system.physics.BodyType;
-import com.glaikunt.framework.game.GameConstants;
 import com.glaikunt.framework.game.map.levels.AbstractLevel;
 
 public class EnemyActor extends CommonActor {
@@ -34,7 +35,6 @@ public class EnemyActor extends CommonActor {
     private final WarmthComponent warmth;
     private final EnemyInputComponent input;
     private final BodyComponent body;
-    private final BehaviorTree<Entity> behaviorTree;
 
     public EnemyActor(ApplicationResources applicationResources, Vector2 pos, AbstractLevel abstractLevel) {
         this(applicationResources, pos, abstractLevel, Stance.values()[MathUtils.random(Stance.values().length-1)]);
@@ -80,15 +80,18 @@ public class EnemyActor extends CommonActor {
         getEntity().add(getApplicationResources().getGlobalEntity().getComponent(GravityComponent.class));
         final ImmutableArray<Entity> playerEntities = applicationResources.getEngine().getEntitiesFor(Family.all(PlayerInputComponent.class).get());
         getEntity().add(new EasyAccessComponent(abstractLevel, playerEntities.get(0)));
-        this.behaviorTree = new BehaviorTree<>(BehaviourFactory.getBehaviour(stance, entity, applicationResources));
-        this.behaviorTree.start();
+        // the stance's shared tree, stepped by the BehaviourTreeSystem
+        getEntity().add(new BlackboardComponent(stance));
+        getEntity().add(new SquadComponent());
+        getEntity().add(new PerceptionComponent());
+        getEntity().add(new BehaviourTreeComponent(BehaviourFactory.getTemplate(stance, applicationResources), BehaviourFactory.getPrefetch(stance, applicationResources)));
     }
 
     @Override
     public void draw(Batch batch, float parentAlpha) {
 
         batch.setColor(warmth.getWarmthFloat(), warmth.getWarmthFloat()*.5f, .5f, 1f);
-        batch.draw(getEntity().getComponent(AnimationComponent.class).getCurrentFrame(), getX(), getY(), getWidth(), getHeight());
+        batch.draw(getEntity().getComponent(AnimationComponent.class).getCurrentFrame(), getDrawX(), getDrawY(), getWidth(), getHeight());
         batch.setColor(Color.WHITE);
     }
 
@@ -97,31 +100,11 @@ public class EnemyActor extends CommonActor {
 
         animationUpdate();
 
-//        if (!Task.Status.SUCCEEDED.equals(behaviorTree.getStatus())) {
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( "FrameId: "+Gdx.graphics.getFrameId()+" [E] (Id: "+body.getId()+") behaviorTree.getStatus() "+behaviorTree.getStatus()+" behaviorTree.step()");
-            behaviorTree.step();
-//        }
-
-        if (!getBody().getBeforeContacts().isEmpty()) {
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( "[E] Before Collide Intersection: " + getBody().getBeforeContacts().size() + ", and body contacts is now: " + getBody().getContactsByBody().size());
-//
-//            int c = 0;
-//            for (Map.Entry<BodyComponent, ContactComponent> entry : body.getContactsByBody().entrySet()) {
-//                BodyComponent key = entry.getKey();
-//                ContactComponent contact = entry.getValue();
-//                if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( "  |- [E] "+c+" "+key+" => "+contact);
-//                        c++;
-//            }
-        }
-        if (!getBody().getAfterContacts().isEmpty()) {
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( "[E] After Collide Intersection: " + getBody().getAfterContacts().size() + ", and body contacts is now: " + getBody().getContactsByBody().size());
-//            int c = 0;
-//            for (Map.Entry<BodyComponent, ContactComponent> entry : body.getContactsByBody().entrySet()) {
-//                BodyComponent key = entry.getKey();
-//                ContactComponent contact = entry.getValue();
-//                if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( "  |- [E] "+c+" "+key+" => "+contact);
-//                c++;
-//            }
+        int before = getBody().getBeforeContacts().size;
+        int after = getBody().getAfterContacts().size;
+        TraceRecorder trace = getApplicationResources().getTraceRecorder();
+        if ((before > 0 || after > 0) && trace.isEnabled()) {
+            trace.record(TraceEvent.ENEMY_CONTACTS, (int) getBody().getId(), -1, 0, before, after, getBody().getContactsByBody().size());
         }
     }
 
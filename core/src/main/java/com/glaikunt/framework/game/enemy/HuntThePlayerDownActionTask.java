@@ -3,45 +3,54 @@ package com.glaikunt.framework.game.enemy;
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.math.Circle;
 import com.badlogic.gdx.math.Vector2;
-import com.glaikunt.framework.Ansi;
 import com.glaikunt.framework.application.ApplicationResources;
 import com.glaikunt.framework.esc.component.movement.EnemyInputComponent;
 import com.glaikunt.framework.esc.system.physics.BodyComponent;
-import com.glaikunt.framework.game.GameConstants;
 
 public class HuntThePlayerDownActionTask extends AbstractLeafTask {
-    private static final int RADIUS = 32*32; // tiles?
-    private final BodyComponent playerBC;
-    private final BodyComponent bc;
-    private final TargetsComponent tc;
-    private final EnemyInputComponent ic;
+    static final int RADIUS = 32*32; // tiles?
     private final Vector2 tmpVector2a = new Vector2();
     private final Vector2 tmpVector2b = new Vector2();
     private final Circle tmpCircle = new Circle();
-    public HuntThePlayerDownActionTask(Entity entity, ApplicationResources applicationResources) {
-        super(entity, applicationResources);
-        EasyAccessComponent eac = entity.getComponent(EasyAccessComponent.class);
-        this.bc = entity.getComponent(BodyComponent.class);
-        this.playerBC = eac.getPlayerEntity().getComponent(BodyComponent.class);
-        this.tc = entity.getComponent(TargetsComponent.class);
-        this.ic = entity.getComponent(EnemyInputComponent.class);
+    public HuntThePlayerDownActionTask(ApplicationResources applicationResources) {
+        super(applicationResources);
     }
 
     @Override
     public Status execute() {
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("[AI] ")+Ansi.yellow("execute HuntThePlayerDownActionTask"));
+        Entity entity = getEntity();
+        EasyAccessComponent eac = eacm.get(entity);
+        BodyComponent bc = bcm.get(entity);
+        BodyComponent playerBC = bcm.get(eac.getPlayerEntity());
+        TargetsComponent tc = tcm.get(entity);
+        EnemyInputComponent ic = icm.get(entity);
         tmpVector2a.set(bc.x, bc.y);
         tmpVector2b.set(playerBC.x, playerBC.y);
         tc.setTargetPlayer(tmpVector2b); // this
 
         tmpCircle.set(bc.x, bc.y, RADIUS);
 
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.purple("P:"+playerBC+" E:"+bc+" worth hunting?: "+tmpCircle.contains(playerBC.x, playerBC.y)+" testing against radius ")+Ansi.yellow(RADIUS));
-        if (tmpCircle.contains(playerBC.x, playerBC.y)) {
+        // the PerceptionSystem keeps track, otherwise the whole squad's either in or out of range most of the time
+        PerceptionComponent perception = pecm.get(getEntity());
+        Squad squad = getSquad();
+        boolean inRange;
+        if (perception != null) {
+            inRange = perception.isWithin(PerceptionBand.HUNTING);
+        } else if (squad != null && squad.allWithin(RADIUS)) {
+            inRange = true;
+        } else if (squad != null && squad.noneWithin(RADIUS)) {
+            inRange = false;
+        } else {
+            inRange = tmpCircle.contains(playerBC.x, playerBC.y);
+        }
+        if (inRange) {
             tmpVector2b.sub(tmpVector2a);
+            // follow the platforms if there's a path, otherwise just head at them
             int x = Math.round(tmpVector2b.x);
 //            int y = Math.round(tmpVector2b.y);
-            if (x < 0) {
+            if (PathSteering.steer(eac.getCurrentLevel(), bc, wcm.get(entity), playerBC.x + (playerBC.width / 2), playerBC.y + 1, ic)) {
+                return traced(entity, Status.SUCCEEDED, 1);
+            } else if (x < 0) {
                 ic.setLeft(true);
                 ic.setRight(false);
             } else if (x > 0) {
@@ -51,11 +60,9 @@ public class HuntThePlayerDownActionTask extends AbstractLeafTask {
                 ic.setLeft(false);
                 ic.setRight(false);
             }
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.purple("dir: ")+Ansi.yellow(tmpVector2b.toString())+Ansi.green(" Status.SUCCEEDED"));
-            return Status.SUCCEEDED;
+            return traced(entity, Status.SUCCEEDED);
         } else {
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.red("Status.FAILED"));
-            return Status.FAILED;
+            return traced(entity, Status.FAILED);
         }
     }
 }
\ No newline at end of file
@@ -1,72 +1,113 @@
 package com.glaikunt.framework.game.enemy;
 
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.gdx.math.Circle;
-import com.badlogic.gdx.math.Vector2;
-import com.glaikunt.framework.Ansi;
+import com.badlogic.gdx.utils.Array;
 import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
 import com.glaikunt.framework.esc.component.common.HealthComponent;
 import com.glaikunt.framework.esc.system.physics.BodyComponent;
-import com.glaikunt.framework.game.GameConstants;
 import com.glaikunt.framework.game.map.BreakableActor;
 
-public class IsBreakableDirectlyBlockingPathConditionTask extends AbstractLeafTask {
+public class IsBreakableDirectlyBlockingPathConditionTask extends AbstractSensingConditionTask {
 
-    private static final int RADIUS = 32; // tile
-    private final EasyAccessComponent eac;
-    private final BodyComponent bc;
-    private final TargetsComponent tc;
-    private final Vector2 tmpVector2a = new Vector2();
-    private final Vector2 tmpVector2b = new Vector2();
-    private final Circle tmpCircle = new Circle();
-    public IsBreakableDirectlyBlockingPathConditionTask(Entity entity, ApplicationResources applicationResources) {
-        super(entity, applicationResources);
-        this.eac = entity.getComponent(EasyAccessComponent.class);
-        this.bc = entity.getComponent(BodyComponent.class);
-        this.tc = entity.getComponent(TargetsComponent.class);
+    static final int RADIUS = 32; // tile
+    // readings
+    static final int NO_BREAKABLES = 0;
+    static final int FOUND = 1; // nearest one's the target
+    static final int NONE_IN_REACH = 2;
+
+    // by worker
+    private final Array<Array<BreakableActor>> inRange = new Array<>();
+
+    public IsBreakableDirectlyBlockingPathConditionTask(ApplicationResources applicationResources) {
+        super(applicationResources, BlackboardFact.VOLATILE);
+        prepareScratch(1);
+    }
+
+    @Override
+    protected void prepareScratch(int workers) {
+        while (inRange.size < workers) {
+            inRange.add(new Array<BreakableActor>(false, 4));
+        }
     }
 
     @Override
-    public Status execute() {
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("[AI] ")+Ansi.yellow("execute IsBreakableDirectlyBlockingPathConditionTask"));
+    protected int sense(int worker, Entity entity) {
+        EasyAccessComponent eac = eacm.get(entity);
+        BodyComponent bc = bcm.get(entity);
         if (eac.getCurrentLevel().getBreakables().isEmpty()) {
-            if (tc.getTargetBreakable() != null) {
-                tc.setTargetBreakable(null);
+            return NO_BREAKABLES;
+        }
+
+        // the squad's already narrowed it down to what's near any of them
+        Squad squad = getSquad(entity);
+        Array<BreakableActor> candidates = inRange.get(worker);
+        if (squad != null) {
+            candidates = squad.getBreakableCandidates();
+        } else {
+            candidates.clear();
+            eac.getCurrentLevel().getBreakables().within(bc.x, bc.y, RADIUS, candidates);
+        }
+        BreakableActor best = null;
+        float dist2 = Float.MAX_VALUE;
+        for (int i = 0; i < candidates.size; i++) {
+            BreakableActor b = candidates.get(i);
+            float dx = b.getX() - bc.x;
+            float dy = b.getY() - bc.y;
+            float d2 = (dx * dx) + (dy * dy);
+            if (d2 > RADIUS * RADIUS || isExpired(b.getEntity())) {
+                continue; // can't smash a dead thing
             }
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.red("Status.FAILED"));
-            return Status.FAILED;
+            if (d2 < dist2) {
+                dist2 = d2;
+                best = b;
+            }
+        }
+        if (squad == null) {
+            candidates.clear();
+        }
+        if (best == null) {
+            return NONE_IN_REACH;
         }
+        sensed(worker, best.getEntity());
+        return FOUND;
+    }
 
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.purple("Previous target? ")+Ansi.cyan(""+tc.getTargetBreakable()));
-        tmpVector2a.set(bc.x, bc.y);
-        tmpCircle.set(bc.x, bc.y, RADIUS);
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.purple("bodyC: ")+Ansi.yellow(bc+" => "+tmpVector2a));
-        float dist = Float.MAX_VALUE;
+    @Override
+    protected boolean isStale(Entity entity, int reading, Entity target) {
+        return reading == FOUND && isExpired(target); // smashed by someone stepped before this one
+    }
 
-        for (BreakableActor b : eac.getCurrentLevel().getBreakables()) {
-            if (tmpCircle.contains(b.getX(), b.getY())) {
-                if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.green("Found a breakable next to me ")+Ansi.cyan(""+b.getEntity().getComponent(HealthComponent.class).getHealthPercent()+"%"));
-                if (b.getEntity().getComponent(HealthComponent.class).isExpired()) {
-                    if (tc.getTargetBreakable() == b.getEntity()) {
-                        tc.setTargetBreakable(null);
-                    }
-                    continue; // can't smash a dead thing
-                }
-                tmpVector2b.set(b.getX(), b.getY());
-                float d = tmpVector2b.sub(tmpVector2a).len();
-                if (d < dist) {
-                    dist = d;
-                    tc.setTargetBreakable(b.getEntity());
-                    if (GameConstants.BEHAVIOUR_LOGGING) System.out.println(Ansi.red("  |  |- ") + Ansi.purple("breakable [" + b.getX() + "," + b.getY() + "] range: ") + Ansi.yellow("" + d) + Ansi.cyan(" " + tmpVector2b));
-                }
+    @Override
+    protected Status act(Entity entity, int reading, Entity target) {
+        TargetsComponent tc = tcm.get(entity);
+        if (reading == NO_BREAKABLES) {
+            if (tc.getTargetBreakable() != null) {
+                tc.setTargetBreakable(null);
             }
-        }
-        if (tc.getTargetBreakable() == null) {
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println(Ansi.red("  |- ") + Ansi.red("Status.FAILED"));
             return Status.FAILED;
-        } else {
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println(Ansi.red("  |- ") + Ansi.green("Status.SUCCEEDED"));
+        }
+        if (reading == FOUND) {
+            tc.setTargetBreakable(target);
             return Status.SUCCEEDED;
         }
+        // nothing new to go for, but let go of the old one if it's been smashed right in front of us
+        Entity old = tc.getTargetBreakable();
+        if (old != null && isExpired(old) && inReach(bcm.get(entity), old)) {
+            tc.setTargetBreakable(null);
+            return Status.FAILED;
+        }
+        return old == null ? Status.FAILED : Status.SUCCEEDED;
+    }
+
+    private static boolean inReach(BodyComponent bc, Entity breakable) {
+        BodyComponent target = bcm.get(breakable);
+        float dx = target.x - bc.x;
+        float dy = target.y - bc.y;
+        return (dx * dx) + (dy * dy) <= RADIUS * RADIUS;
+    }
+
+    private static boolean isExpired(Entity breakable) {
+        return breakable.getComponent(HealthComponent.class).isExpired();
     }
-}
\ No newline at end of file
+}
@@ -2,25 +2,21 @@ package com.glaikunt.framework.game.enemy;
 
 import com.badlogic.ashley.core.Entity;
 import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
 import com.glaikunt.framework.esc.component.common.PlayerComponent;
 import com.glaikunt.framework.esc.component.movement.EnemyInputComponent;
 
-public class LevelCompleteConditionTask extends AbstractLeafTask {
+public class LevelCompleteConditionTask extends AbstractConditionTask {
 
-    private final PlayerComponent playerBC;
-    private final EnemyInputComponent ic;
-
-    protected LevelCompleteConditionTask(Entity entity, ApplicationResources applicationResources) {
-        super(entity, applicationResources);
-
-        EasyAccessComponent eac = entity.getComponent(EasyAccessComponent.class);
-        this.playerBC = eac.getPlayerEntity().getComponent(PlayerComponent.class);
-        this.ic = entity.getComponent(EnemyInputComponent.class);
+    protected LevelCompleteConditionTask(ApplicationResources applicationResources) {
+        super(applicationResources, BlackboardFact.LEVEL_COMPLETE);
     }
 
     @Override
-    public Status execute() {
+    protected Status evaluate(Entity entity) {
+        PlayerComponent playerBC = pcm.get(getPlayerEntity(entity));
         if (playerBC.isLevelComplete()) {
+            EnemyInputComponent ic = icm.get(entity);
             ic.setLeft(false);
             ic.setRight(false);
             ic.setJump(false);
@@ -2,54 +2,54 @@ package com.glaikunt.framework.game.enemy;
 
 import com.badlogic.ashley.core.Entity;
 import com.badlogic.gdx.math.Vector2;
-import com.glaikunt.framework.Ansi;
 import com.glaikunt.framework.application.ApplicationResources;
 import com.glaikunt.framework.esc.component.movement.EnemyInputComponent;
 import com.glaikunt.framework.esc.system.physics.BodyComponent;
-import com.glaikunt.framework.game.GameConstants;
+import com.glaikunt.framework.game.map.HeatFlowField;
 import com.glaikunt.framework.game.map.HeatSourceActor;
 
 public class MoveToNearestHeatSourceActionTask extends AbstractLeafTask {
 
-    private final EasyAccessComponent eac;
-    private final BodyComponent bc;
-    private final TargetsComponent tc;
-    private final EnemyInputComponent ic;
     private final Vector2 tmpVector2a = new Vector2();
     private final Vector2 tmpVector2b = new Vector2();
     private final Vector2 tmpVector2Target = new Vector2();
-    public MoveToNearestHeatSourceActionTask(Entity entity, ApplicationResources applicationResources) {
-        super(entity, applicationResources);
-        this.eac = entity.getComponent(EasyAccessComponent.class);
-        this.bc = entity.getComponent(BodyComponent.class);
-        this.tc = entity.getComponent(TargetsComponent.class);
-        this.ic = entity.getComponent(EnemyInputComponent.class);
+    public MoveToNearestHeatSourceActionTask(ApplicationResources applicationResources) {
+        super(applicationResources);
     }
 
     @Override
     public Status execute() {
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("[AI] ")+Ansi.yellow("execute MoveToNearestHeatSourceActionTask"));
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.purple("Previous target? ")+Ansi.cyan(""+tc.getTargetHeatSource()));
-        // TODO if we're sure the heat source target is still valid, use that and don't recompute the below
+        Entity entity = getEntity();
+        EasyAccessComponent eac = eacm.get(entity);
+        BodyComponent bc = bcm.get(entity);
+        TargetsComponent tc = tcm.get(entity);
+        EnemyInputComponent ic = icm.get(entity);
         tmpVector2a.set(bc.x, bc.y);
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.purple("bodyC: ")+Ansi.yellow(bc+" => "+tmpVector2a));
-        float dist = Float.MAX_VALUE;
         tmpVector2Target.set(0,0);
-        for (HeatSourceActor hs : eac.getCurrentLevel().getHeatSources()) {
-            tmpVector2b.set(hs.getX(), hs.getY());
-            float d = tmpVector2b.sub(tmpVector2a).len();
-            if (d < dist) {
-                dist = d;
-                tmpVector2Target.set(hs.getX(), hs.getY());
-                if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |  |- ")+Ansi.purple("heatsource ["+hs.getX()+","+hs.getY()+"] range: ")+Ansi.yellow(""+d)+Ansi.cyan(" "+tmpVector2b));
-            }
+
+        // the flow field knows the way from every tile, straight line to the nearest if it can't be walked to
+        HeatFlowField flow = eac.getCurrentLevel().getHeatFlowField();
+        float centreX = bc.x + (bc.width / 2);
+        float centreY = bc.y + (bc.height / 2);
+        // the squad heads for the same one, only take the flow field's step if it leads there too
+        Squad squad = getSquad();
+        HeatSourceActor own = flow.sourceAt(centreX, centreY);
+        HeatSourceActor hs = squad != null ? squad.getTargetHeatSource() : own;
+        byte step = (own == null || own != hs) ? HeatFlowField.NONE : flow.directionAt(centreX, centreY);
+        if (hs == null) {
+            hs = eac.getCurrentLevel().getHeatSources().nearest(bc.x, bc.y);
+        }
+        if (hs != null) {
+            tmpVector2Target.set(hs.getX(), hs.getY());
         }
         if (!tmpVector2Target.equals(Vector2.Zero)) {
             tc.setTargetHeatSource(tmpVector2Target);
             tmpVector2b.set(tmpVector2Target).sub(tmpVector2a);
-            int x = Math.round(tmpVector2b.x);
+            int x = step == HeatFlowField.LEFT ? -1 : step == HeatFlowField.RIGHT ? 1 : Math.round(tmpVector2b.x);
 //            int y = Math.round(tmpVector2b.y);
-            if (x < 0) {
+            if (PathSteering.steer(eac.getCurrentLevel(), bc, wcm.get(entity), hs.getX() + (hs.getWidth() / 2), hs.getY() + (hs.getHeight() / 2), ic)) {
+                // walk/jump/fall along the cached path, the flow field only picked which source
+            } else if (x < 0) {
                 ic.setLeft(true);
                 ic.setRight(false);
             } else if (x > 0) {
@@ -59,11 +59,9 @@ public class MoveToNearestHeatSourceActionTask extends AbstractLeafTask {
                 ic.setLeft(false);
                 ic.setRight(false);
             }
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |  |- ")+Ansi.green("heatsource ["+tmpVector2Target+"] "+tmpVector2b));
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.green("Status.SUCCEEDED"));
-            return Status.SUCCEEDED;
+            return traced(entity, Status.SUCCEEDED);
         }
 
-        return Status.FAILED;
+        return traced(entity, Status.FAILED);
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.glaikunt.framework.esc.component.common.WarmthComponent;
+import com.glaikunt.framework.esc.component.movement.EnemyInputComponent;
+import com.glaikunt.framework.esc.system.EnemyInputSystem;
+import com.glaikunt.framework.esc.system.physics.BodyComponent;
+import com.glaikunt.framework.game.map.levels.AbstractLevel;
+import com.glaikunt.framework.game.map.nav.NavEdge;
+import com.glaikunt.framework.game.map.nav.NavNode;
+import com.glaikunt.framework.game.map.nav.NavPathCache;
+
+/**
+ * Points an enemy's input at the next step of the cached path to a target
+ */
+final class PathSteering {
+
+    private PathSteering() {
+    }
+
+    /**
+     * @return false if there's no path to follow (mid air, already there, no way there, or the next jump is too
+     * high for how warm it is), the caller steers itself then
+     */
+    static boolean steer(AbstractLevel level, BodyComponent bc, WarmthComponent warmth, float targetX, float targetY, EnemyInputComponent ic) {
+        NavPathCache paths = level.getNavPaths();
+        if (paths == null) {
+            return false;
+        }
+        // feet for the enemy, it's only on the graph when it's standing
+        NavNode from = paths.getGraph().node(level.getNavTerrain().tileX(bc.x + (bc.width / 2)), level.getNavTerrain().tileY(bc.y + 1));
+        NavNode to = paths.getGraph().nodeBelow(targetX, targetY);
+        if (from == null || to == null || from == to) {
+            return false;
+        }
+        GraphPath<NavNode> path = paths.find(from, to);
+        if (path == null || path.getCount() < 2) {
+            return false;
+        }
+
+        NavNode next = path.get(1);
+        NavEdge edge = paths.getGraph().edge(from, next);
+        if (edge != null && !paths.getGraph().canTake(edge, EnemyInputSystem.jumpStrength(warmth))) {
+            // it'd only sit there jumping at the ledge
+            ic.setJump(false);
+            return false;
+        }
+        int dx = next.getTx() - from.getTx();
+        ic.setLeft(dx < 0);
+        ic.setRight(dx > 0);
+        ic.setJump(edge != null && edge.getType() == NavEdge.Type.JUMP);
+        return true;
+    }
+}
@@ -0,0 +1,16 @@
+package com.glaikunt.framework.game.enemy;
+
+/**
+ * Ranges an enemy notices the player at, measured body x/y to body x/y like the tasks always have
+ */
+public enum PerceptionBand {
+    NEARBY(PlayerNearbyConditionTask.RADIUS),   // six tiles, close enough to go for them
+    HUNTING(HuntThePlayerDownActionTask.RADIUS); // 32 tiles, worth hunting down
+
+    public final float radius;
+    public final int mask = 1 << ordinal();
+
+    PerceptionBand(float radius) {
+        this.radius = radius;
+    }
+}
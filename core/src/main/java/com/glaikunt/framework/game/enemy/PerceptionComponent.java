@@ -0,0 +1,47 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Which bands the player is in for this enemy, kept up to date by the PerceptionSystem
+ */
+public class PerceptionComponent implements Component {
+
+    private int bands;
+    // only looked for while the player's NEARBY
+    private boolean canSeePlayer;
+    // the tick the PerceptionSystem looks at this enemy again, -1 while it isn't scheduled
+    int dueTick = -1;
+
+    public boolean isWithin(PerceptionBand band) {
+        return (bands & band.mask) != 0;
+    }
+
+    /**
+     * Nothing solid between this enemy and the player, always false outside the NEARBY band
+     */
+    public boolean canSeePlayer() {
+        return canSeePlayer;
+    }
+
+    void setCanSeePlayer(boolean canSeePlayer) {
+        this.canSeePlayer = canSeePlayer;
+    }
+
+    int getBands() {
+        return bands;
+    }
+
+    void setBands(int bands) {
+        this.bands = bands;
+    }
+
+    @Override
+    public String toString() {
+        return "PerceptionComponent{" +
+                "nearby=" + isWithin(PerceptionBand.NEARBY) +
+                ", hunting=" + isWithin(PerceptionBand.HUNTING) +
+                ", canSeePlayer=" + canSeePlayer +
+                '}';
+    }
+}
@@ -0,0 +1,11 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.Entity;
+
+public interface PerceptionListener {
+
+    /**
+     * @param entered true when the player came inside the band, false when they left it
+     */
+    void onPerception(Entity enemy, PerceptionBand band, boolean entered);
+}
@@ -0,0 +1,244 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntityListener;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
+import com.glaikunt.framework.esc.component.movement.PlayerInputComponent;
+import com.glaikunt.framework.esc.system.physics.BodyComponent;
+import com.glaikunt.framework.esc.system.physics.VelocityIterationsSystem;
+import com.glaikunt.framework.game.map.LineOfSight;
+import com.glaikunt.framework.game.map.levels.AbstractLevel;
+
+/**
+ * Keeps each enemy's {@link PerceptionComponent} bands up to date and tells the listeners (and the blackboard) when the player crosses one.
+ *
+ * Nothing moves more than MAX_STEP a tick, so an enemy whose distance to the player is some way off every band edge
+ * can't cross one for a while. Each enemy is put on a wheel of upcoming ticks for when it next could,
+ * a tick only looks at the enemies that come due, which are the ones sat close to an edge.
+ * If the player moves further than that in one tick (respawn, level change) everyone gets looked at again.
+ *
+ * Line of sight changes as either end steps into another tile, so it's checked every tick but only for the enemies
+ * with the player NEARBY, all in one batch against the level's {@link LineOfSight}.
+ */
+public class PerceptionSystem extends EntitySystem implements EntityListener {
+
+    private static final Family FAMILY = Family.all(PerceptionComponent.class, BodyComponent.class, EasyAccessComponent.class).get();
+    private static final PerceptionBand[] BANDS = PerceptionBand.values();
+    // per tick, both the enemy and the player can move this far (velocity is clamped per axis, plus a bit for collision pushes)
+    private static final float MAX_STEP = VelocityIterationsSystem.MAX_X_V * 1.5f;
+    private static final int WHEEL_SIZE = 64; // so the furthest anything waits is 63 ticks
+
+    private final ImmutableArray<Entity> players;
+    private final ImmutableArray<Entity> entities;
+    private final Array<Entity>[] wheel;
+    private final Array<PerceptionListener> listeners = new Array<>();
+    private final Array<Entity> nearby = new Array<>(false, 16);
+    private final FloatArray nearbyX = new FloatArray(false, 16);
+    private final FloatArray nearbyY = new FloatArray(false, 16);
+    private final BooleanArray visible = new BooleanArray(false, 16);
+
+    private final ComponentMapper<PerceptionComponent> pcm = ComponentMapper.getFor(PerceptionComponent.class);
+    private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
+    private final ComponentMapper<BlackboardComponent> bbcm = ComponentMapper.getFor(BlackboardComponent.class);
+    private final ComponentMapper<EasyAccessComponent> eacm = ComponentMapper.getFor(EasyAccessComponent.class);
+
+    private int tick;
+    private boolean hasPlayer;
+    private float lastPlayerX;
+    private float lastPlayerY;
+
+    private int checked;
+    private int changed;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public PerceptionSystem(Engine engine) {
+        this.players = engine.getEntitiesFor(Family.all(PlayerInputComponent.class, BodyComponent.class).get());
+        this.entities = engine.getEntitiesFor(FAMILY);
+        this.wheel = new Array[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Array<>(false, 8);
+        }
+    }
+
+    @Override
+    public void addedToEngine(Engine engine) {
+        for (int i = 0; i < entities.size(); i++) {
+            entityAdded(entities.get(i));
+        }
+        engine.addEntityListener(FAMILY, this);
+    }
+
+    @Override
+    public void removedFromEngine(Engine engine) {
+        engine.removeEntityListener(this);
+    }
+
+    @Override
+    public void entityAdded(Entity entity) {
+        schedule(entity, pcm.get(entity), tick + 1);
+    }
+
+    @Override
+    public void entityRemoved(Entity entity) {
+        // left on the wheel, skipped when it comes round
+        pcm.get(entity).dueTick = -1;
+        nearby.removeValue(entity, true);
+    }
+
+    public void addListener(PerceptionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(PerceptionListener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        tick++;
+        checked = 0;
+        changed = 0;
+        if (players.size() == 0) {
+            hasPlayer = false;
+            return;
+        }
+        BodyComponent player = bcm.get(players.get(0));
+
+        float moved = Math.max(Math.abs(player.x - lastPlayerX), Math.abs(player.y - lastPlayerY));
+        if (!hasPlayer || moved > MAX_STEP) {
+            // jumped further than it could have walked, nothing scheduled can be trusted
+            for (int i = 0; i < entities.size(); i++) {
+                Entity entity = entities.get(i);
+                schedule(entity, pcm.get(entity), tick);
+            }
+        }
+        hasPlayer = true;
+        lastPlayerX = player.x;
+        lastPlayerY = player.y;
+
+        Array<Entity> due = wheel[tick & (WHEEL_SIZE - 1)];
+        for (int i = 0; i < due.size; i++) {
+            Entity entity = due.get(i);
+            PerceptionComponent perception = pcm.get(entity);
+            if (perception.dueTick != tick) {
+                continue; // removed, or moved to another tick since
+            }
+            perceive(entity, perception, player);
+        }
+        due.clear();
+
+        look(player);
+    }
+
+    private void look(BodyComponent player) {
+        if (nearby.size == 0) {
+            return;
+        }
+        AbstractLevel level = eacm.get(nearby.first()).getCurrentLevel();
+        LineOfSight lineOfSight = level == null ? null : level.getLineOfSight();
+
+        nearbyX.clear();
+        nearbyY.clear();
+        for (int i = 0; i < nearby.size; i++) {
+            BodyComponent body = bcm.get(nearby.get(i));
+            nearbyX.add(body.x + (body.width / 2));
+            nearbyY.add(body.y + (body.height / 2));
+        }
+        if (lineOfSight != null) {
+            lineOfSight.newFrame();
+            lineOfSight.canSee(nearbyX, nearbyY, player.x + (player.width / 2), player.y + (player.height / 2), visible);
+        }
+
+        for (int i = 0; i < nearby.size; i++) {
+            Entity entity = nearby.get(i);
+            setCanSeePlayer(entity, pcm.get(entity), lineOfSight == null || visible.get(i));
+        }
+    }
+
+    private void setCanSeePlayer(Entity entity, PerceptionComponent perception, boolean canSee) {
+        if (perception.canSeePlayer() == canSee) {
+            return;
+        }
+        perception.setCanSeePlayer(canSee);
+        BlackboardComponent blackboard = bbcm.get(entity);
+        if (blackboard != null) {
+            blackboard.raise(BlackboardFact.PLAYER_PROXIMITY);
+        }
+    }
+
+    private void perceive(Entity entity, PerceptionComponent perception, BodyComponent player) {
+        checked++;
+        BodyComponent body = bcm.get(entity);
+        float dx = player.x - body.x;
+        float dy = player.y - body.y;
+        float distance = (float) Math.sqrt((dx * dx) + (dy * dy));
+
+        int bands = 0;
+        float slack = Float.MAX_VALUE;
+        for (PerceptionBand band : BANDS) {
+            if (distance <= band.radius) {
+                bands |= band.mask;
+            }
+            slack = Math.min(slack, Math.abs(distance - band.radius));
+        }
+
+        int was = perception.getBands();
+        if (bands != was) {
+            changed++;
+            perception.setBands(bands);
+            BlackboardComponent blackboard = bbcm.get(entity);
+            if (blackboard != null) {
+                blackboard.raise(BlackboardFact.PLAYER_PROXIMITY);
+            }
+            if ((bands & PerceptionBand.NEARBY.mask) != 0 && (was & PerceptionBand.NEARBY.mask) == 0) {
+                nearby.add(entity);
+            } else if ((bands & PerceptionBand.NEARBY.mask) == 0 && (was & PerceptionBand.NEARBY.mask) != 0) {
+                nearby.removeValue(entity, true);
+                setCanSeePlayer(entity, perception, false);
+            }
+            for (PerceptionBand band : BANDS) {
+                boolean in = (bands & band.mask) != 0;
+                if (in != ((was & band.mask) != 0)) {
+                    for (int l = 0; l < listeners.size; l++) {
+                        listeners.get(l).onPerception(entity, band, in);
+                    }
+                }
+            }
+        }
+
+        // both ends closing in at full speed, less a pixel so landing right on the edge still counts
+        int wait = (int) ((slack - 1f) / (MAX_STEP * 2));
+        schedule(entity, perception, tick + Math.max(1, Math.min(WHEEL_SIZE - 1, wait)));
+    }
+
+    private void schedule(Entity entity, PerceptionComponent perception, int at) {
+        if (perception.dueTick == at) {
+            return;
+        }
+        perception.dueTick = at;
+        wheel[at & (WHEEL_SIZE - 1)].add(entity);
+    }
+
+    /**
+     * Enemies looked at last tick, the rest were far enough from every edge to leave alone
+     */
+    public int getChecked() {
+        return checked;
+    }
+
+    /**
+     * Enemies that went in or out of a band last tick
+     */
+    public int getChanged() {
+        return changed;
+    }
+}
@@ -2,21 +2,23 @@ package com.glaikunt.framework.game.enemy;
 
 import com.badlogic.ashley.core.Entity;
 import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
 import com.glaikunt.framework.esc.component.common.PlayerComponent;
 
-public class PlayerDeadConditionTask extends AbstractLeafTask {
+public class PlayerDeadConditionTask extends AbstractConditionTask {
 
-    private final PlayerComponent playerBC;
-
-    protected PlayerDeadConditionTask(Entity entity, ApplicationResources applicationResources) {
-        super(entity, applicationResources);
+    protected PlayerDeadConditionTask(ApplicationResources applicationResources) {
+        super(applicationResources, BlackboardFact.PLAYER_DEAD);
+    }
 
-        EasyAccessComponent eac = entity.getComponent(EasyAccessComponent.class);
-        this.playerBC = eac.getPlayerEntity().getComponent(PlayerComponent.class);
+    @Override
+    protected boolean isReadOnly() {
+        return true;
     }
 
     @Override
-    public Status execute() {
+    protected Status evaluate(Entity entity) {
+        PlayerComponent playerBC = pcm.get(getPlayerEntity(entity));
         if (playerBC.isDead()) {
             return Status.SUCCEEDED;
         }
@@ -1,62 +1,66 @@
 package com.glaikunt.framework.game.enemy;
 
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.gdx.math.Circle;
-import com.badlogic.gdx.math.Vector2;
-import com.glaikunt.framework.Ansi;
 import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
 import com.glaikunt.framework.esc.component.movement.EnemyInputComponent;
 import com.glaikunt.framework.esc.system.physics.BodyComponent;
-import com.glaikunt.framework.game.GameConstants;
 
-public class PlayerNearbyConditionTask extends AbstractLeafTask {
+public class PlayerNearbyConditionTask extends AbstractSensingConditionTask {
 
-    private static final int RADIUS = 32*6; // tiles?
-    private final BodyComponent playerBC;
-    private final BodyComponent bc;
-    private final EnemyInputComponent ic;
-    private final Vector2 tmpVector2a = new Vector2();
-    private final Vector2 tmpVector2b = new Vector2();
-    private final Circle tmpCircle = new Circle();
-    public PlayerNearbyConditionTask(Entity entity, ApplicationResources applicationResources) {
-        super(entity, applicationResources);
-        EasyAccessComponent eac = entity.getComponent(EasyAccessComponent.class);
-        this.bc = entity.getComponent(BodyComponent.class);
-        this.playerBC = eac.getPlayerEntity().getComponent(BodyComponent.class);
-        this.ic = entity.getComponent(EnemyInputComponent.class);
+    static final int RADIUS = 32*6; // tiles?
+    // readings
+    static final int OUT_OF_RANGE = 0;
+    static final int LEFT = 1;
+    static final int RIGHT = 2;
+    static final int CENTRE = 3;
+
+    public PlayerNearbyConditionTask(ApplicationResources applicationResources) {
+        super(applicationResources, BlackboardFact.PLAYER_PROXIMITY, BlackboardFact.VOLATILE); // volatile as it steers as well
     }
 
     @Override
-    public Status execute() {
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("[AI] ")+Ansi.yellow("execute PlayerNearbyConditionTask"));
-
-        tmpVector2a.set(bc.x, bc.y);
-        tmpVector2b.set(playerBC.x, playerBC.y);
-        tmpCircle.set(bc.x, bc.y, RADIUS);
+    protected int sense(int worker, Entity entity) {
+        BodyComponent bc = bcm.get(entity);
+        BodyComponent playerBC = bcm.get(getPlayerEntity(entity));
+        float dx = playerBC.x - bc.x;
+        float dy = playerBC.y - bc.y;
 
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.purple("P:"+playerBC+" E:"+bc+" in sight?: "+tmpCircle.contains(playerBC.x, playerBC.y)+" testing against radius ")+Ansi.yellow(RADIUS));
-        if (tmpCircle.contains(playerBC.x, playerBC.y)) {
-            tmpVector2b.sub(tmpVector2a);
-            int x = Math.round(tmpVector2b.x);
-//            int y = Math.round(tmpVector2b.y);
-            if (x < 0) {
-                ic.setLeft(true);
-                ic.setRight(false);
-                ic.setJump(false);
-            } else if (x > 0) {
-                ic.setLeft(false);
-                ic.setRight(true);
-                ic.setJump(false);
-            } else {
-                ic.setLeft(false);
-                ic.setRight(false);
-                ic.setJump(false);
-            }
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.green("Status.SUCCEEDED"));
-            return Status.SUCCEEDED;
+        // the PerceptionSystem keeps track, otherwise the whole squad's either in or out of range most of the time
+        PerceptionComponent perception = pecm.get(entity);
+        Squad squad = getSquad(entity);
+        boolean inRange;
+        if (perception != null) {
+            inRange = perception.isWithin(PerceptionBand.NEARBY) && perception.canSeePlayer(); // not through walls
+        } else if (squad != null && squad.allWithin(RADIUS)) {
+            inRange = true;
+        } else if (squad != null && squad.noneWithin(RADIUS)) {
+            inRange = false;
         } else {
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.red("Status.FAILED"));
+            inRange = (dx * dx) + (dy * dy) <= RADIUS * RADIUS;
+        }
+        if (!inRange) {
+            return OUT_OF_RANGE;
+        }
+        int x = Math.round(dx);
+//        int y = Math.round(dy);
+        if (x < 0) {
+            return LEFT;
+        } else if (x > 0) {
+            return RIGHT;
+        }
+        return CENTRE;
+    }
+
+    @Override
+    protected Status act(Entity entity, int reading, Entity target) {
+        if (reading == OUT_OF_RANGE) {
             return Status.FAILED;
         }
+        EnemyInputComponent ic = icm.get(entity);
+        ic.setLeft(reading == LEFT);
+        ic.setRight(reading == RIGHT);
+        ic.setJump(false);
+        return Status.SUCCEEDED;
     }
 }
@@ -0,0 +1,147 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Pool;
+import com.glaikunt.framework.game.map.BreakableActor;
+import com.glaikunt.framework.game.map.HeatSourceActor;
+
+/**
+ * Enemies of one stance standing in the same patch of the level, regrouped every tick by the SquadPlannerSystem.
+ * The planner works out what they'd all be asking (where's the player, which heat source, what's breakable nearby)
+ * once for the squad, the tasks then only check their own body against it.
+ *
+ * Distances are from the members' body x/y (bottom left) like the tasks use, so the centre and radius here
+ * bound every member and a task can answer straight from the squad when the whole squad is in or out of a range.
+ */
+public class Squad implements Pool.Poolable {
+
+    public enum PlayerBand {
+        CONTACT(AttackPlayerActionTask.RADIUS),
+        NEARBY(PlayerNearbyConditionTask.RADIUS),
+        HUNTING(HuntThePlayerDownActionTask.RADIUS),
+        FAR(Float.MAX_VALUE);
+
+        public final float radius;
+
+        PlayerBand(float radius) {
+            this.radius = radius;
+        }
+    }
+
+    private Stance stance;
+    private final Array<Entity> members = new Array<>(false, 8);
+
+    private float centreX;
+    private float centreY;
+    private float radius; // furthest member from the centre
+    private float playerDistance = Float.MAX_VALUE;
+    private PlayerBand playerBand = PlayerBand.FAR;
+    private HeatSourceActor targetHeatSource;
+    private final Array<BreakableActor> breakableCandidates = new Array<>(false, 4);
+
+    void setStance(Stance stance) {
+        this.stance = stance;
+    }
+
+    void setBounds(float centreX, float centreY, float radius) {
+        this.centreX = centreX;
+        this.centreY = centreY;
+        this.radius = radius;
+    }
+
+    void setPlayerDistance(float playerDistance) {
+        this.playerDistance = playerDistance;
+        this.playerBand = PlayerBand.FAR;
+        for (PlayerBand band : PlayerBand.values()) {
+            if (playerDistance + radius <= band.radius) {
+                this.playerBand = band;
+                break;
+            }
+        }
+    }
+
+    void setTargetHeatSource(HeatSourceActor targetHeatSource) {
+        this.targetHeatSource = targetHeatSource;
+    }
+
+    /**
+     * @return true if every member has the player within the range, edge included
+     */
+    public boolean allWithin(float range) {
+        return playerDistance + radius <= range;
+    }
+
+    /**
+     * @return true if no member can have the player within the range
+     */
+    public boolean noneWithin(float range) {
+        return playerDistance - radius > range;
+    }
+
+    public Stance getStance() {
+        return stance;
+    }
+
+    public Array<Entity> getMembers() {
+        return members;
+    }
+
+    public float getCentreX() {
+        return centreX;
+    }
+
+    public float getCentreY() {
+        return centreY;
+    }
+
+    public float getRadius() {
+        return radius;
+    }
+
+    public float getPlayerDistance() {
+        return playerDistance;
+    }
+
+    /**
+     * The closest band every member is inside of
+     */
+    public PlayerBand getPlayerBand() {
+        return playerBand;
+    }
+
+    public HeatSourceActor getTargetHeatSource() {
+        return targetHeatSource;
+    }
+
+    /**
+     * Breakables in reach of at least one member, each member still checks its own distance
+     */
+    public Array<BreakableActor> getBreakableCandidates() {
+        return breakableCandidates;
+    }
+
+    @Override
+    public void reset() {
+        stance = null;
+        members.clear();
+        centreX = 0;
+        centreY = 0;
+        radius = 0;
+        playerDistance = Float.MAX_VALUE;
+        playerBand = PlayerBand.FAR;
+        targetHeatSource = null;
+        breakableCandidates.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "Squad{" +
+                "stance=" + stance +
+                ", members=" + members.size +
+                ", playerBand=" + playerBand +
+                ", targetHeatSource=" + targetHeatSource +
+                ", breakables=" + breakableCandidates.size +
+                '}';
+    }
+}
@@ -0,0 +1,19 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.Component;
+
+/**
+ * Which squad the enemy is in this tick, null until the SquadPlannerSystem has been round
+ */
+public class SquadComponent implements Component {
+
+    private Squad squad;
+
+    public Squad getSquad() {
+        return squad;
+    }
+
+    public void setSquad(Squad squad) {
+        this.squad = squad;
+    }
+}
@@ -0,0 +1,133 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.ashley.core.Family;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Pool;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.system.physics.BodyComponent;
+import com.glaikunt.framework.game.map.HeatFlowField;
+import com.glaikunt.framework.game.map.HeatSourceActor;
+import com.glaikunt.framework.game.map.levels.AbstractLevel;
+
+/**
+ * Groups the enemies into squads by stance and a coarse grid cell each tick, then works out the squad's shared facts once.
+ * Run it just before the BehaviourTreeSystem so the trees see this tick's squads.
+ */
+public class SquadPlannerSystem extends EntitySystem {
+
+    public static final float SQUAD_CELL_SIZE = 256f; // eight tiles
+
+    private final ImmutableArray<Entity> entities;
+
+    private final ComponentMapper<BlackboardComponent> bbcm = ComponentMapper.getFor(BlackboardComponent.class);
+    private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
+    private final ComponentMapper<EasyAccessComponent> eacm = ComponentMapper.getFor(EasyAccessComponent.class);
+    private final ComponentMapper<SquadComponent> scm = ComponentMapper.getFor(SquadComponent.class);
+
+    private final LongMap<Squad> byKey = new LongMap<>();
+    private final Array<Squad> squads = new Array<>(false, 16);
+    private final Pool<Squad> pool = new Pool<Squad>() {
+        @Override
+        protected Squad newObject() {
+            return new Squad();
+        }
+    };
+
+    public SquadPlannerSystem(Engine engine) {
+        this.entities = engine.getEntitiesFor(Family.all(SquadComponent.class, BlackboardComponent.class, BodyComponent.class, EasyAccessComponent.class).get());
+    }
+
+    @Override
+    public void update(float deltaTime) {
+        pool.freeAll(squads);
+        squads.clear();
+        byKey.clear();
+
+        for (int i = 0; i < entities.size(); ++i) {
+            Entity entity = entities.get(i);
+            BodyComponent body = bcm.get(entity);
+            Stance stance = bbcm.get(entity).getStance();
+            long key = key(stance, MathUtils.floor(body.x / SQUAD_CELL_SIZE), MathUtils.floor(body.y / SQUAD_CELL_SIZE));
+            Squad squad = byKey.get(key);
+            if (squad == null) {
+                squad = pool.obtain();
+                squad.setStance(stance);
+                byKey.put(key, squad);
+                squads.add(squad);
+            }
+            squad.getMembers().add(entity);
+            scm.get(entity).setSquad(squad);
+        }
+
+        for (int i = 0; i < squads.size; i++) {
+            plan(squads.get(i));
+        }
+    }
+
+    private void plan(Squad squad) {
+        Array<Entity> members = squad.getMembers();
+        float sumX = 0;
+        float sumY = 0;
+        for (int i = 0; i < members.size; i++) {
+            BodyComponent body = bcm.get(members.get(i));
+            sumX += body.x;
+            sumY += body.y;
+        }
+        float centreX = sumX / members.size;
+        float centreY = sumY / members.size;
+        float radius2 = 0;
+        for (int i = 0; i < members.size; i++) {
+            BodyComponent body = bcm.get(members.get(i));
+            float dx = body.x - centreX;
+            float dy = body.y - centreY;
+            radius2 = Math.max(radius2, (dx * dx) + (dy * dy));
+        }
+        squad.setBounds(centreX, centreY, (float) Math.sqrt(radius2));
+
+        EasyAccessComponent eac = eacm.get(members.first());
+        BodyComponent player = bcm.get(eac.getPlayerEntity());
+        if (player != null) {
+            float dx = player.x - centreX;
+            float dy = player.y - centreY;
+            squad.setPlayerDistance((float) Math.sqrt((dx * dx) + (dy * dy)));
+        }
+
+        AbstractLevel level = eac.getCurrentLevel();
+        if (level == null) {
+            return;
+        }
+        // the flow field's source where the squad is stood, the closest as the crow flies if none can be walked to
+        HeatFlowField flow = level.getHeatFlowField();
+        HeatSourceActor target = flow == null ? null : flow.sourceAt(centreX, centreY);
+        if (target == null) {
+            target = level.getHeatSources().nearest(centreX, centreY);
+        }
+        squad.setTargetHeatSource(target);
+
+        if (!level.getBreakables().isEmpty()) {
+            level.getBreakables().within(centreX, centreY, squad.getRadius() + IsBreakableDirectlyBlockingPathConditionTask.RADIUS, squad.getBreakableCandidates());
+        }
+    }
+
+    private static long key(Stance stance, int cx, int cy) {
+        return ((long) stance.ordinal() << 56) | ((cx & 0xFFFFFFFL) << 28) | (cy & 0xFFFFFFFL);
+    }
+
+    /**
+     * This tick's squads, don't hold on to them, they go back to the pool next tick
+     */
+    public Array<Squad> getSquads() {
+        return squads;
+    }
+
+    public int getSquadCount() {
+        return squads.size;
+    }
+}
@@ -1,27 +1,26 @@
 package com.glaikunt.framework.game.enemy;
 
 import com.badlogic.ashley.core.Entity;
-import com.glaikunt.framework.Ansi;
 import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardFact;
 import com.glaikunt.framework.esc.component.common.WarmthComponent;
-import com.glaikunt.framework.game.GameConstants;
 
-public class TooColdConditionTask extends AbstractLeafTask {
-    private final WarmthComponent warmth;
-    public TooColdConditionTask(Entity entity, ApplicationResources applicationResources) {
-        super(entity, applicationResources);
-        this.warmth = entity.getComponent(WarmthComponent.class);
+public class TooColdConditionTask extends AbstractConditionTask {
+    public TooColdConditionTask(ApplicationResources applicationResources) {
+        super(applicationResources, BlackboardFact.WARMTH);
     }
 
     @Override
-    public Status execute() {
-        if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("[AI] ")+Ansi.yellow("execute TooColdConditionTask [")+Ansi.green(warmth.toString())+Ansi.yellow("]"));
-        if (warmth.isFrozen() || warmth.getWarmthFloat() < 0.5f) {
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.cyan("** CHILLY **"));
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.green("Status.SUCCEEDED"));
+    protected boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    protected Status evaluate(Entity entity) {
+        WarmthComponent warmth = wcm.get(entity);
+        if (warmth.isFrozen() || warmth.getWarmthFloat() < WarmthComponent.COLD) {
             return Status.SUCCEEDED;
         } else {
-            if (GameConstants.BEHAVIOUR_LOGGING) System.out.println( Ansi.red("  |- ")+Ansi.red("Status.FAILED"));
             return Status.FAILED;
         }
     }
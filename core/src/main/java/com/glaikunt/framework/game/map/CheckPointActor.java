@@ -5,12 +5,12 @@ import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector2;
 import com.glaikunt.framework.application.ApplicationResources;
 import com.glaikunt.framework.application.CommonActor;
-import com.glaikunt.framework.esc.system.physics.BodyComponent;
-import com.glaikunt.framework.esc.system.physics.BodyType;
+import com.glaikunt.framework.esc.system.trigger.TriggerType;
+import com.glaikunt.framework.esc.system.trigger.TriggerVolumeComponent;
 
 public class CheckPointActor extends CommonActor {
 
-    private final BodyComponent body;
+    private final TriggerVolumeComponent volume;
 
     public CheckPointActor(ApplicationResources applicationResources, Vector2 pos, Vector2 size) {
         super(applicationResources);
@@ -18,15 +18,13 @@ public class CheckPointActor extends CommonActor {
         this.pos.set(pos);
         this.size.set(size);
 
-        this.body = new BodyComponent();
-        this.body.setBodyType(BodyType.CHECKPOINT);
-        this.body.set(getX(), getY(), getWidth(), getHeight());
+        this.volume = new TriggerVolumeComponent(TriggerType.CHECKPOINT, getX(), getY(), getWidth(), getHeight());
 
-        getEntity().add(body);
+        getEntity().add(volume);
     }
 
     @Override
     public void drawDebug(ShapeRenderer shapes) {
-        shapes.rect(body.getX(), body.getY(), body.getWidth(), body.getHeight(), Color.YELLOW, Color.GREEN, Color.YELLOW, Color.GREEN);
+        shapes.rect(volume.getBounds().x, volume.getBounds().y, volume.getBounds().width, volume.getBounds().height, Color.YELLOW, Color.GREEN, Color.YELLOW, Color.GREEN);
     }
 }
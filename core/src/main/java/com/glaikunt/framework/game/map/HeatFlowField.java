@@ -0,0 +1,202 @@
+package com.glaikunt.framework.game.map;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Breadth first search out from every heat source at once over the open {@link NavTerrain}, done once when the level loads.
+ * Each tile keeps which way to step, how many steps it is and which heat source it leads to.
+ * Opening a tile (a breakable going) only ever shortens paths, so that's patched by relaxing outward from the new gap.
+ *
+ * Tiles are 4-connected and gravity isn't considered, enemies only use the left/right steer out of it.
+ */
+public class HeatFlowField {
+
+    public static final byte NONE = 0;
+    public static final byte LEFT = 1;
+    public static final byte RIGHT = 2;
+    public static final byte UP = 3;
+    public static final byte DOWN = 4;
+
+    private static final int UNREACHABLE = -1;
+
+    private final NavTerrain terrain;
+    private final int width;
+    private final int height;
+
+    private final int[] distance;
+    private final byte[] direction;
+    private final int[] source;
+    private final Array<HeatSourceActor> sources = new Array<>();
+
+    // ring buffer, a tile is in it at most once and carries its latest distance when it comes out
+    private final int[] queue;
+    private final boolean[] queued;
+    private int head;
+    private int tail;
+
+    public HeatFlowField(NavTerrain terrain) {
+        this.terrain = terrain;
+        this.width = terrain.getWidth();
+        this.height = terrain.getHeight();
+        this.distance = new int[width * height];
+        this.direction = new byte[width * height];
+        this.source = new int[width * height];
+        this.queue = new int[width * height + 1];
+        this.queued = new boolean[width * height];
+    }
+
+    public void build(Array<HeatSourceActor> heatSources) {
+        sources.clear();
+        sources.addAll(heatSources);
+        for (int i = 0; i < distance.length; i++) {
+            distance[i] = UNREACHABLE;
+            direction[i] = NONE;
+            source[i] = -1;
+        }
+
+        head = tail = 0;
+        for (int s = 0; s < sources.size; s++) {
+            HeatSourceActor heatSource = sources.get(s);
+            int tx = tileX(heatSource.getX());
+            int ty = tileY(heatSource.getY());
+            if (!inside(tx, ty)) {
+                continue;
+            }
+            int tile = ty * width + tx;
+            if (distance[tile] == 0) {
+                continue; // two on one tile, first one keeps it
+            }
+            distance[tile] = 0;
+            source[tile] = s;
+            push(tile);
+        }
+        relax();
+    }
+
+    /**
+     * Something that was in the way has gone, the distances through the tiles it left free are patched
+     *
+     * @param opened from {@link NavTerrain#open}
+     */
+    public void opened(IntArray opened) {
+        head = tail = 0;
+        for (int i = 0; i < opened.size; i++) {
+            int tile = opened.get(i);
+            int tx = tile % width;
+            int ty = tile / width;
+            // the opened tiles start from whichever neighbour is already closest, relax sorts out the rest
+            pullFrom(tile, tx - 1, ty, LEFT);
+            pullFrom(tile, tx + 1, ty, RIGHT);
+            pullFrom(tile, tx, ty - 1, DOWN);
+            pullFrom(tile, tx, ty + 1, UP);
+            if (distance[tile] != UNREACHABLE) {
+                push(tile);
+            }
+        }
+        relax();
+    }
+
+    private void pullFrom(int tile, int nx, int ny, byte towards) {
+        if (!inside(nx, ny)) {
+            return;
+        }
+        if (terrain.isBlocked(nx, ny)) {
+            return;
+        }
+        int neighbour = ny * width + nx;
+        if (distance[neighbour] == UNREACHABLE) {
+            return;
+        }
+        int d = distance[neighbour] + 1;
+        if (distance[tile] == UNREACHABLE || d < distance[tile]) {
+            distance[tile] = d;
+            direction[tile] = towards;
+            source[tile] = source[neighbour];
+        }
+    }
+
+    private void relax() {
+        while (head != tail) {
+            int tile = queue[head];
+            head = (head + 1) % queue.length;
+            queued[tile] = false;
+            int tx = tile % width;
+            int ty = tile / width;
+            // the neighbour steps back the opposite way to get here
+            pushTo(tile, tx - 1, ty, RIGHT);
+            pushTo(tile, tx + 1, ty, LEFT);
+            pushTo(tile, tx, ty - 1, UP);
+            pushTo(tile, tx, ty + 1, DOWN);
+        }
+    }
+
+    private void pushTo(int tile, int nx, int ny, byte back) {
+        if (!inside(nx, ny)) {
+            return;
+        }
+        if (terrain.isBlocked(nx, ny)) {
+            return;
+        }
+        int neighbour = ny * width + nx;
+        int d = distance[tile] + 1;
+        if (distance[neighbour] == UNREACHABLE || d < distance[neighbour]) {
+            distance[neighbour] = d;
+            direction[neighbour] = back;
+            source[neighbour] = source[tile];
+            push(neighbour);
+        }
+    }
+
+    private void push(int tile) {
+        if (queued[tile]) {
+            return;
+        }
+        queued[tile] = true;
+        queue[tail] = tile;
+        tail = (tail + 1) % queue.length;
+    }
+
+    /**
+     * @return one of {@link #LEFT}, {@link #RIGHT}, {@link #UP}, {@link #DOWN}, or {@link #NONE} on a heat source or where none can be reached
+     */
+    public byte directionAt(float x, float y) {
+        int tx = tileX(x);
+        int ty = tileY(y);
+        return inside(tx, ty) ? direction[ty * width + tx] : NONE;
+    }
+
+    /**
+     * @return steps to the nearest reachable heat source, or -1
+     */
+    public int distanceAt(float x, float y) {
+        int tx = tileX(x);
+        int ty = tileY(y);
+        return inside(tx, ty) ? distance[ty * width + tx] : UNREACHABLE;
+    }
+
+    /**
+     * @return the heat source the path from here leads to, or null if none can be reached
+     */
+    public HeatSourceActor sourceAt(float x, float y) {
+        int tx = tileX(x);
+        int ty = tileY(y);
+        if (!inside(tx, ty)) {
+            return null;
+        }
+        int s = source[ty * width + tx];
+        return s < 0 ? null : sources.get(s);
+    }
+
+    public int tileX(float x) {
+        return terrain.tileX(x);
+    }
+
+    public int tileY(float y) {
+        return terrain.tileY(y);
+    }
+
+    private boolean inside(int tx, int ty) {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height;
+    }
+}
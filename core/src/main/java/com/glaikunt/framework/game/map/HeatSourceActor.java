@@ -11,13 +11,10 @@ import com.glaikunt.framework.application.CommonActor;
 import com.glaikunt.framework.application.TickTimer;
 import com.glaikunt.framework.cache.TextureCache;
 import com.glaikunt.framework.esc.component.animation.AnimationComponent;
-import com.glaikunt.framework.esc.system.physics.BodyComponent;
-import com.glaikunt.framework.esc.system.physics.BodyType;
 import com.glaikunt.framework.pixels.ExplodePixelActor;
 
 public class HeatSourceActor extends CommonActor {
 
-    private final BodyComponent body;
     private final AnimationComponent animation;
 
     private final TickTimer pixelsTimer = new TickTimer(1f);
@@ -29,13 +26,7 @@ public class HeatSourceActor extends CommonActor {
         this.pos.set(pos);
         this.size.set(animation.getCurrentFrame().getRegionWidth(), animation.getCurrentFrame().getRegionHeight());
 
-
-        this.body = new BodyComponent();
-        this.body.setBodyType(BodyType.HEATSOURCE);
-        this.body.set(getX(), getY(), getWidth(), getHeight());
-
         getEntity().add(animation);
-        getEntity().add(body);
     }
 
     @Override
@@ -59,6 +50,6 @@ public class HeatSourceActor extends CommonActor {
 
     @Override
     public void drawDebug(ShapeRenderer shapes) {
-        shapes.rect(body.getX(), body.getY(), body.getWidth(), body.getHeight(), Color.RED, Color.ORANGE, Color.RED, Color.ORANGE);
+        shapes.rect(getX(), getY(), getWidth(), getHeight(), Color.RED, Color.ORANGE, Color.RED, Color.ORANGE);
     }
 }
@@ -0,0 +1,125 @@
+package com.glaikunt.framework.game.map;
+
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * Can one tile see another, walking the tiles on the line between their centres and stopping at the first blocked one.
+ * Platforms and standing breakables block, see {@link NavTerrain}. A line through the corner where two tiles meet
+ * only gets through if one of them is open.
+ *
+ * Answers are kept per (from tile, to tile) until {@link #newFrame()}, so enemies stood in the same tile looking at the
+ * player only walk it once.
+ */
+public class LineOfSight {
+
+    private final NavTerrain terrain;
+    private final LongMap<Boolean> cache = new LongMap<>();
+
+    private int queries;
+    private int walks;
+
+    public LineOfSight(NavTerrain terrain) {
+        this.terrain = terrain;
+    }
+
+    /**
+     * Forget the last frame's answers, call once a tick before asking
+     */
+    public void newFrame() {
+        cache.clear(256);
+        queries = 0;
+        walks = 0;
+    }
+
+    /**
+     * Terrain has changed, nothing cached can be trusted
+     */
+    public void invalidate() {
+        cache.clear();
+    }
+
+    public boolean canSee(float fromX, float fromY, float toX, float toY) {
+        return canSee(terrain.tileX(fromX), terrain.tileY(fromY), terrain.tileX(toX), terrain.tileY(toY));
+    }
+
+    public boolean canSee(int fromTx, int fromTy, int toTx, int toTy) {
+        queries++;
+        if (!terrain.inside(fromTx, fromTy) || !terrain.inside(toTx, toTy)) {
+            return false;
+        }
+        int width = terrain.getWidth();
+        long key = ((long) (fromTy * width + fromTx) << 32) | ((toTy * width + toTx) & 0xFFFFFFFFL);
+        Boolean cached = cache.get(key);
+        if (cached == null) {
+            cached = walk(fromTx, fromTy, toTx, toTy) ? Boolean.TRUE : Boolean.FALSE;
+            cache.put(key, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * Every viewer against the one target, out[i] is for (xs[i], ys[i]). Viewers sharing a tile share the walk.
+     */
+    public void canSee(FloatArray xs, FloatArray ys, float toX, float toY, BooleanArray out) {
+        int toTx = terrain.tileX(toX);
+        int toTy = terrain.tileY(toY);
+        out.clear();
+        out.ensureCapacity(xs.size);
+        for (int i = 0; i < xs.size; i++) {
+            out.add(canSee(terrain.tileX(xs.get(i)), terrain.tileY(ys.get(i)), toTx, toTy));
+        }
+    }
+
+    /**
+     * The tiles on the way, the two ends themselves don't count (you can see out of a tile you're stood in)
+     */
+    private boolean walk(int x, int y, int toTx, int toTy) {
+        walks++;
+        int nx = Math.abs(toTx - x);
+        int ny = Math.abs(toTy - y);
+        int sx = toTx > x ? 1 : -1;
+        int sy = toTy > y ? 1 : -1;
+        for (int ix = 0, iy = 0; ix < nx || iy < ny; ) {
+            // which edge the line crosses next, compared without dividing
+            long decision = ((1L + 2L * ix) * ny) - ((1L + 2L * iy) * nx);
+            if (decision == 0) {
+                if (terrain.isBlocked(x + sx, y) && terrain.isBlocked(x, y + sy)) {
+                    return false;
+                }
+                x += sx;
+                y += sy;
+                ix++;
+                iy++;
+            } else if (decision < 0) {
+                x += sx;
+                ix++;
+            } else {
+                y += sy;
+                iy++;
+            }
+            if (x == toTx && y == toTy) {
+                return true;
+            }
+            if (terrain.isBlocked(x, y)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Asked since the last newFrame()
+     */
+    public int getQueries() {
+        return queries;
+    }
+
+    /**
+     * Actually walked since the last newFrame(), the rest came out of the cache
+     */
+    public int getWalks() {
+        return walks;
+    }
+}
@@ -0,0 +1,113 @@
+package com.glaikunt.framework.game.map;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import com.glaikunt.framework.esc.system.physics.BodyType;
+import com.glaikunt.framework.esc.system.physics.TileOccupancyComponent;
+
+/**
+ * Which tiles an enemy can't move through, the platforms plus whatever breakables still stand.
+ * Enemies pass through the player only platforms so they aren't in here.
+ * Breakables can overlap each other and the platforms, a tile only opens once nothing covers it.
+ */
+public class NavTerrain {
+
+    private final int width;
+    private final int height;
+    private final float tileWidth;
+    private final float tileHeight;
+
+    private final boolean[] solid;
+    private final byte[] covers;
+
+    public NavTerrain(TileOccupancyComponent tiles) {
+        this.width = tiles.getWidth();
+        this.height = tiles.getHeight();
+        this.tileWidth = tiles.getTileWidth();
+        this.tileHeight = tiles.getTileHeight();
+        this.solid = new boolean[width * height];
+        this.covers = new byte[width * height];
+
+        int plane = TileOccupancyComponent.plane(BodyType.BLOCK);
+        for (int ty = 0; ty < height; ty++) {
+            for (int tx = 0; tx < width; tx++) {
+                solid[ty * width + tx] = tiles.isOccupied(plane, tx, ty);
+            }
+        }
+    }
+
+    public void block(Rectangle area) {
+        int minX = Math.max(0, tileX(area.x));
+        int minY = Math.max(0, tileY(area.y));
+        int maxX = Math.min(width - 1, MathUtils.ceil((area.x + area.width) / tileWidth) - 1);
+        int maxY = Math.min(height - 1, MathUtils.ceil((area.y + area.height) / tileHeight) - 1);
+        for (int ty = minY; ty <= maxY; ty++) {
+            for (int tx = minX; tx <= maxX; tx++) {
+                covers[ty * width + tx]++;
+            }
+        }
+    }
+
+    /**
+     * Undoes a {@link #block(Rectangle)}
+     *
+     * @param opened gets every tile (ty * width + tx) that's now free to move through
+     */
+    public void open(Rectangle area, IntArray opened) {
+        int minX = Math.max(0, tileX(area.x));
+        int minY = Math.max(0, tileY(area.y));
+        int maxX = Math.min(width - 1, MathUtils.ceil((area.x + area.width) / tileWidth) - 1);
+        int maxY = Math.min(height - 1, MathUtils.ceil((area.y + area.height) / tileHeight) - 1);
+        for (int ty = minY; ty <= maxY; ty++) {
+            for (int tx = minX; tx <= maxX; tx++) {
+                int tile = ty * width + tx;
+                if (covers[tile] == 0) {
+                    continue;
+                }
+                if (--covers[tile] == 0 && !solid[tile]) {
+                    opened.add(tile);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true off the edge of the map as well
+     */
+    public boolean isBlocked(int tx, int ty) {
+        if (!inside(tx, ty)) {
+            return true;
+        }
+        int tile = ty * width + tx;
+        return solid[tile] || covers[tile] > 0;
+    }
+
+    public boolean inside(int tx, int ty) {
+        return tx >= 0 && ty >= 0 && tx < width && ty < height;
+    }
+
+    public int tileX(float x) {
+        return MathUtils.floor(x / tileWidth);
+    }
+
+    public int tileY(float y) {
+        return MathUtils.floor(y / tileHeight);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public float getTileWidth() {
+        return tileWidth;
+    }
+
+    public float getTileHeight() {
+        return tileHeight;
+    }
+}
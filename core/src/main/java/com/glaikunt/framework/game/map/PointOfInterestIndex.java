@@ -0,0 +1,179 @@
+package com.glaikunt.framework.game.map;
+
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IdentityMap;
+import com.badlogic.gdx.utils.LongMap;
+import com.glaikunt.framework.application.CommonActor;
+
+/**
+ * Bucketed grid of the level's fixed points (heat sources, breakables) keyed on each actor's x/y, for the AI's range queries.
+ * Distances are compared squared. Actors don't move once placed, they only ever leave.
+ */
+public class PointOfInterestIndex<T extends CommonActor> {
+
+    public static final float DEFAULT_CELL_SIZE = 128f; // four tiles
+
+    private final float cellSize;
+    private final LongMap<Array<T>> cells = new LongMap<>();
+    private final IdentityMap<Entity, T> byEntity = new IdentityMap<>();
+    private final Array<T> items = new Array<>(false, 16);
+
+    // cells ever used, bounds how far nearest() has to look
+    private int minCellX = Integer.MAX_VALUE;
+    private int minCellY = Integer.MAX_VALUE;
+    private int maxCellX = Integer.MIN_VALUE;
+    private int maxCellY = Integer.MIN_VALUE;
+
+    public PointOfInterestIndex() {
+        this(DEFAULT_CELL_SIZE);
+    }
+
+    public PointOfInterestIndex(float cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    public void add(T actor) {
+        int cx = cell(actor.getX());
+        int cy = cell(actor.getY());
+        long key = key(cx, cy);
+        Array<T> bucket = cells.get(key);
+        if (bucket == null) {
+            bucket = new Array<>(false, 4);
+            cells.put(key, bucket);
+        }
+        bucket.add(actor);
+        byEntity.put(actor.getEntity(), actor);
+        items.add(actor);
+        minCellX = Math.min(minCellX, cx);
+        minCellY = Math.min(minCellY, cy);
+        maxCellX = Math.max(maxCellX, cx);
+        maxCellY = Math.max(maxCellY, cy);
+    }
+
+    /**
+     * @return the actor that was indexed for the entity, or null
+     */
+    public T remove(Entity entity) {
+        T actor = byEntity.remove(entity);
+        if (actor == null) {
+            return null;
+        }
+        Array<T> bucket = cells.get(key(cell(actor.getX()), cell(actor.getY())));
+        if (bucket != null) {
+            bucket.removeValue(actor, true);
+        }
+        items.removeValue(actor, true);
+        return actor;
+    }
+
+    public T get(Entity entity) {
+        return byEntity.get(entity);
+    }
+
+    /**
+     * @return the closest actor to (x, y), or null if there are none
+     */
+    public T nearest(float x, float y) {
+        if (items.size == 0) {
+            return null;
+        }
+        int cx = cell(x);
+        int cy = cell(y);
+        int maxRing = Math.max(Math.max(cx - minCellX, maxCellX - cx), Math.max(cy - minCellY, maxCellY - cy));
+
+        T best = null;
+        float bestDst2 = Float.MAX_VALUE;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int ix = cx - ring; ix <= cx + ring; ix++) {
+                // only the edge of the ring, the inside was done already
+                int step = (ix == cx - ring || ix == cx + ring) ? 1 : Math.max(1, ring * 2);
+                for (int iy = cy - ring; iy <= cy + ring; iy += step) {
+                    Array<T> bucket = cells.get(key(ix, iy));
+                    if (bucket == null) {
+                        continue;
+                    }
+                    for (int i = 0; i < bucket.size; i++) {
+                        T actor = bucket.get(i);
+                        float dst2 = dst2(actor, x, y);
+                        if (dst2 < bestDst2) {
+                            bestDst2 = dst2;
+                            best = actor;
+                        }
+                    }
+                }
+            }
+            // anything further out is at least this far away
+            float reach = ring * cellSize;
+            if (best != null && reach * reach >= bestDst2) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Appends every actor within radius of (x, y), edge included
+     */
+    public void within(float x, float y, float radius, Array<T> out) {
+        float radius2 = radius * radius;
+        int minX = cell(x - radius);
+        int minY = cell(y - radius);
+        int maxX = cell(x + radius);
+        int maxY = cell(y + radius);
+        for (int ix = minX; ix <= maxX; ix++) {
+            for (int iy = minY; iy <= maxY; iy++) {
+                Array<T> bucket = cells.get(key(ix, iy));
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size; i++) {
+                    T actor = bucket.get(i);
+                    if (dst2(actor, x, y) <= radius2) {
+                        out.add(actor);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Everything still indexed, in no particular order. Don't modify.
+     */
+    public Array<T> items() {
+        return items;
+    }
+
+    public int size() {
+        return items.size;
+    }
+
+    public boolean isEmpty() {
+        return items.size == 0;
+    }
+
+    public void clear() {
+        cells.clear();
+        byEntity.clear();
+        items.clear();
+        minCellX = Integer.MAX_VALUE;
+        minCellY = Integer.MAX_VALUE;
+        maxCellX = Integer.MIN_VALUE;
+        maxCellY = Integer.MIN_VALUE;
+    }
+
+    private static float dst2(CommonActor actor, float x, float y) {
+        float dx = actor.getX() - x;
+        float dy = actor.getY() - y;
+        return dx * dx + dy * dy;
+    }
+
+    private int cell(float v) {
+        return MathUtils.floor(v / cellSize);
+    }
+
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+}
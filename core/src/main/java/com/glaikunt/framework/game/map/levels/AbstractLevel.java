@@ -11,15 +11,22 @@ import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
 import com.badlogic.gdx.maps.tiled.renderers.OrthogonalTiledMapRenderer;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Stage;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.glaikunt.framework.application.ApplicationResources;
 import com.glaikunt.framework.application.CommonActor;
 import com.glaikunt.framework.esc.component.animation.AnimationComponent;
+import com.glaikunt.framework.esc.component.common.WarmthZoneComponent;
+import com.glaikunt.framework.esc.system.physics.BodyType;
+import com.glaikunt.framework.esc.system.physics.TileOccupancyComponent;
 import com.glaikunt.framework.game.enemy.EnemyActor;
 import com.glaikunt.framework.game.enemy.Stance;
 import com.glaikunt.framework.game.map.*;
+import com.glaikunt.framework.game.map.nav.NavGraph;
+import com.glaikunt.framework.game.map.nav.NavPathCache;
 import com.glaikunt.framework.game.player.PlayerActor;
 
 import java.util.Iterator;
@@ -34,11 +41,18 @@ public abstract class AbstractLevel extends CommonActor {
 
     protected PlayerActor player;
     protected final Array<EnemyActor> enemies = new Array<>();
-    protected final Array<HeatSourceActor> heatSources = new Array<>();
-    protected final Array<BreakableActor> breakables = new Array<>();
+    protected final PointOfInterestIndex<HeatSourceActor> heatSources = new PointOfInterestIndex<>();
+    protected final PointOfInterestIndex<BreakableActor> breakables = new PointOfInterestIndex<>();
+    protected NavTerrain navTerrain;
+    protected HeatFlowField heatFlowField;
+    protected NavPathCache navPaths;
+    protected LineOfSight lineOfSight;
 
     protected String level;
 
+    private final Rectangle tmpArea = new Rectangle();
+    private final IntArray tmpOpened = new IntArray();
+
     protected AbstractLevel(ApplicationResources applicationResources, Stage front, String level) {
         super(applicationResources);
         this.front = front;
@@ -68,25 +82,41 @@ public abstract class AbstractLevel extends CommonActor {
         return player;
     }
 
-    public Array<HeatSourceActor> getHeatSources() {
+    public PointOfInterestIndex<HeatSourceActor> getHeatSources() {
         return heatSources;
     }
 
-    public Array<BreakableActor> getBreakables() {
+    public PointOfInterestIndex<BreakableActor> getBreakables() {
         return breakables;
     }
 
+    public HeatFlowField getHeatFlowField() {
+        return heatFlowField;
+    }
+
+    public NavTerrain getNavTerrain() {
+        return navTerrain;
+    }
+
+    public NavPathCache getNavPaths() {
+        return navPaths;
+    }
+
+    public LineOfSight getLineOfSight() {
+        return lineOfSight;
+    }
+
     public void removeBreakable(Entity entity) {
-        BreakableActor match = null;
-        for (BreakableActor b : breakables) {
-            if (b.getEntity() == entity) {
-                match = b;
-                break;
-            }
-        }
+        BreakableActor match = breakables.remove(entity);
         if (match != null) {
             match.remove();
-            breakables.removeValue(match, true);
+            tmpOpened.clear();
+            navTerrain.open(tmpArea.set(match.getX(), match.getY(), match.getWidth(), match.getHeight()), tmpOpened);
+            if (tmpOpened.size > 0) {
+                heatFlowField.opened(tmpOpened);
+                navPaths.invalidate();
+                lineOfSight.invalidate();
+            }
         }
     }
 
@@ -104,20 +134,20 @@ public abstract class AbstractLevel extends CommonActor {
         this.foreground = (TiledMapTileLayer) map.getLayers().get("Foreground");
 
 
-        createPlatforms(getApplicationResources(), getFront(), map);
-
-        createPlayerOnlyPlatforms(getApplicationResources(), getFront(), map);
+        // the level's own entity isn't reliably in the engine, the static geometry gets a fresh one
+        Entity geometry = new Entity();
+        TileOccupancyComponent tiles = createPlatforms(geometry, map);
+        createWarmthZones(geometry, map);
+        getEngine().addEntity(geometry);
 
         createCheckpoints(getApplicationResources(), getFront(), map);
 
-        createChasms(getApplicationResources(), getFront(), map);
-
-        createIndoors(getApplicationResources(), getFront(), map);
-
         createHeatSources(getApplicationResources(), getFront(), map);
 
         createBreakables(getApplicationResources(), getFront(), map);
 
+        createNavigation(tiles);
+
         createPlayer(getApplicationResources(), getFront(), map);
 
         createEnemies(getApplicationResources(), getFront(), map);
@@ -148,25 +178,6 @@ public abstract class AbstractLevel extends CommonActor {
         }
     }
 
-    private static void createIndoors(ApplicationResources applicationResources, Stage front, TiledMap map) {
-        MapLayer indoorAreas = map.getLayers().get("Inside");
-        for (MapObject mapObject : indoorAreas.getObjects()) {
-
-            if (mapObject instanceof RectangleMapObject) {
-                RectangleMapObject r = (RectangleMapObject) mapObject;
-                float x = r.getRectangle().getX();
-                float y = r.getRectangle().getY();
-                Vector2 pos = new Vector2(x, y);
-
-                float width = r.getRectangle().getWidth();
-                float height = r.getRectangle().getHeight();
-                Vector2 size = new Vector2(width, height);
-
-                front.addActor(new IndoorAreaActor(applicationResources, pos, size));
-            }
-        }
-    }
-
     private static void createCheckpoints(ApplicationResources applicationResources, Stage front, TiledMap map) {
         MapLayer levelCheckpoint = map.getLayers().get("Checkpoint");
         for (MapObject mapObject : levelCheckpoint.getObjects()) {
@@ -186,60 +197,59 @@ public abstract class AbstractLevel extends CommonActor {
         }
     }
 
-    private static void createChasms(ApplicationResources applicationResources, Stage front, TiledMap map) {
-        MapLayer chasms = map.getLayers().get("Chasm");
-        if (chasms == null) return;
-        for (MapObject mapObject : chasms.getObjects()) {
+    private TileOccupancyComponent createPlatforms(Entity geometry, TiledMap map) {
+        TileOccupancyComponent tiles = new TileOccupancyComponent(background.getWidth(), background.getHeight(), background.getTileWidth(), background.getTileHeight());
+        fillPlatforms(tiles, map.getLayers().get("Platforms"), BodyType.BLOCK);
+        fillPlatforms(tiles, map.getLayers().get("Player Only Platforms"), BodyType.PLAYER_ONLY_BLOCK);
+        geometry.add(tiles);
+        return tiles;
+    }
 
-            if (mapObject instanceof RectangleMapObject) {
-                RectangleMapObject r = (RectangleMapObject) mapObject;
-                float x = r.getRectangle().getX();
-                float y = r.getRectangle().getY();
-                Vector2 pos = new Vector2(x, y);
+    private void createNavigation(TileOccupancyComponent tiles) {
+        this.navTerrain = new NavTerrain(tiles);
+        for (int i = 0; i < breakables.size(); i++) {
+            BreakableActor breakable = breakables.items().get(i);
+            navTerrain.block(tmpArea.set(breakable.getX(), breakable.getY(), breakable.getWidth(), breakable.getHeight()));
+        }
+        this.heatFlowField = new HeatFlowField(navTerrain);
+        this.heatFlowField.build(heatSources.items());
+        this.navPaths = new NavPathCache(new NavGraph(navTerrain));
+        this.lineOfSight = new LineOfSight(navTerrain);
+    }
 
-                float width = r.getRectangle().getWidth();
-                float height = r.getRectangle().getHeight();
-                Vector2 size = new Vector2(width, height);
+    private void createWarmthZones(Entity geometry, TiledMap map) {
+        WarmthZoneComponent zones = new WarmthZoneComponent(background.getWidth(), background.getHeight(), background.getTileWidth(), background.getTileHeight());
+        markZones(zones, map.getLayers().get("Inside"), WarmthZoneComponent.INDOORS);
+        markZones(zones, map.getLayers().get("Chasm"), WarmthZoneComponent.CHASM);
 
-                front.addActor(new ChasmActor(applicationResources, pos, size));
+        TiledMapTileLayer heatsources = (TiledMapTileLayer) map.getLayers().get("Heatsource");
+        for (int y = 0; y < heatsources.getHeight(); y++) {
+            for (int x = 0; x < heatsources.getWidth(); x++) {
+                if (heatsources.getCell(x, y) != null) {
+                    zones.mark(WarmthZoneComponent.HEATSOURCE, x, y);
+                }
             }
         }
+        geometry.add(zones);
     }
 
-    private static void createPlatforms(ApplicationResources applicationResources, Stage front, TiledMap map) {
-        MapLayer levelCollision = map.getLayers().get("Platforms");
-        for (MapObject mapObject : levelCollision.getObjects()) {
+    private static void markZones(WarmthZoneComponent zones, MapLayer layer, int flag) {
+        if (layer == null) return;
+        for (MapObject mapObject : layer.getObjects()) {
 
             if (mapObject instanceof RectangleMapObject) {
                 RectangleMapObject r = (RectangleMapObject) mapObject;
-                float x = r.getRectangle().getX();
-                float y = r.getRectangle().getY();
-                Vector2 pos = new Vector2(x, y);
-
-                float width = r.getRectangle().getWidth();
-                float height = r.getRectangle().getHeight();
-                Vector2 size = new Vector2(width, height);
-
-                front.addActor(new BlockActor(applicationResources, pos, size));
+                zones.mark(flag, r.getRectangle());
             }
         }
     }
 
-    private static void createPlayerOnlyPlatforms(ApplicationResources applicationResources, Stage front, TiledMap map) {
-        MapLayer levelCollision = map.getLayers().get("Player Only Platforms");
+    private static void fillPlatforms(TileOccupancyComponent tiles, MapLayer levelCollision, BodyType bodyType) {
         for (MapObject mapObject : levelCollision.getObjects()) {
 
             if (mapObject instanceof RectangleMapObject) {
                 RectangleMapObject r = (RectangleMapObject) mapObject;
-                float x = r.getRectangle().getX();
-                float y = r.getRectangle().getY();
-                Vector2 pos = new Vector2(x, y);
-
-                float width = r.getRectangle().getWidth();
-                float height = r.getRectangle().getHeight();
-                Vector2 size = new Vector2(width, height);
-
-                front.addActor(new PlayerOnlyBlockActor(applicationResources, pos, size));
+                tiles.fill(bodyType, r.getRectangle());
             }
         }
     }
@@ -305,6 +315,10 @@ public abstract class AbstractLevel extends CommonActor {
         background = null;
         foreground = null;
         player = null;
+        navTerrain = null;
+        heatFlowField = null;
+        navPaths = null;
+        lineOfSight = null;
 
         enemies.clear();
         heatSources.clear();
@@ -13,8 +13,10 @@ import com.glaikunt.framework.cache.TextureCache;
 import com.glaikunt.framework.credits.CreditScreen;
 import com.glaikunt.framework.effects.FogActor;
 import com.glaikunt.framework.esc.component.misc.FadeComponent;
-import com.glaikunt.framework.esc.system.physics.BodyComponent;
-import com.glaikunt.framework.esc.system.physics.BodyType;
+import com.glaikunt.framework.esc.system.trigger.TriggerEvent;
+import com.glaikunt.framework.esc.system.trigger.TriggerListener;
+import com.glaikunt.framework.esc.system.trigger.TriggerSystem;
+import com.glaikunt.framework.esc.system.trigger.TriggerType;
 import com.glaikunt.framework.game.GameConstants;
 import com.glaikunt.framework.game.player.PlayerActor;
 import com.glaikunt.framework.pixels.PixelBlizzardActor;
@@ -23,7 +25,7 @@ import com.glaikunt.framework.pixels.PixelStarsActor;
 import java.util.ArrayList;
 import java.util.List;
 
-public class LevelController extends CommonActor {
+public class LevelController extends CommonActor implements TriggerListener {
 
     private final Stage front;
     private final Stage background;
@@ -37,13 +39,16 @@ public class LevelController extends CommonActor {
 
     private final FadeComponent.Fade fade;
 
+    private boolean checkpointReached;
     private boolean startLevelTransition;
     private boolean resetLevel;
     private final TickTimer resetLevelTimer = new TickTimer(2f);
 
-    public LevelController(ApplicationResources applicationResources, Stage front, Stage background) {
+    public LevelController(ApplicationResources applicationResources, Stage front, Stage background, TriggerSystem triggers) {
         super(applicationResources);
 
+        triggers.subscribe(TriggerEvent.Phase.ENTER, this);
+
         this.front = front;
         this.background = background;
         this.pixel = applicationResources.getTexture(TextureCache.PIXEL);
@@ -108,6 +113,14 @@ public class LevelController extends CommonActor {
         }
     }
 
+    @Override
+    public void onTrigger(TriggerEvent event) {
+        // engine's mid update here, the level is swapped over in act
+        if (event.getType() == TriggerType.CHECKPOINT && event.getEntity() == currentPlayer.getEntity()) {
+            checkpointReached = true;
+        }
+    }
+
     private void updateEffects() {
         front.getCamera().update();
         getBlizzard().updatePosition(front.getCamera().position.x, front.getCamera().position.y);
@@ -137,6 +150,7 @@ public class LevelController extends CommonActor {
             getCurrentLevel().reset();
             getCurrentLevel().init();
             this.currentPlayer = currentLevel.getPlayer();
+            this.checkpointReached = false;
             ((OrthographicCamera) front.getCamera()).zoom = GameConstants.ZOOM;
             front.getCamera().position.set(getPlayer().getX() + (getPlayer().getWidth() / 2), (getPlayer().getY()) + (getPlayer().getHeight()*2), 0);
             createEffects(front, background);
@@ -145,24 +159,17 @@ public class LevelController extends CommonActor {
     }
 
     private void levelTransitionUpdate() {
-        if (!startLevelTransition && !resetLevel) {
-
-            for (BodyComponent contract : currentPlayer.getBody().getContactsByBody().keySet()) {
-
-                if (contract.getBodyType().equals(BodyType.CHECKPOINT)) {
-
-                    if (levels.isEmpty()) {
-                        getApplicationResources().getDisplay().setScreen(new CreditScreen(getApplicationResources()));
-                    } else {
-                        startLevelTransition = true;
-                        fade.setFadeIn(true);
-                        currentPlayer.getPlayerInput().setDisableInputMovement(true);
-                        currentPlayer.getPlayerInput().setWalkRight(true);
-                        currentPlayer.getPlayer().setLevelComplete(true);
-                    }
-                }
-            }
+        if (checkpointReached && !startLevelTransition && !resetLevel) {
 
+            if (levels.isEmpty()) {
+                getApplicationResources().getDisplay().setScreen(new CreditScreen(getApplicationResources()));
+            } else {
+                startLevelTransition = true;
+                fade.setFadeIn(true);
+                currentPlayer.getPlayerInput().setDisableInputMovement(true);
+                currentPlayer.getPlayerInput().setWalkRight(true);
+                currentPlayer.getPlayer().setLevelComplete(true);
+            }
         }
 
         if (fade.getFade() >= 1 && startLevelTransition) {
@@ -173,6 +180,7 @@ public class LevelController extends CommonActor {
             currentLevel = levels.get(0);
             currentLevel.init();
             currentPlayer = currentLevel.getPlayer();
+            checkpointReached = false;
             levels.remove(0);
             ((OrthographicCamera) front.getCamera()).zoom = GameConstants.ZOOM;
             front.getCamera().position.set(getPlayer().getX() + (getPlayer().getWidth() / 2), (getPlayer().getY()) + (getPlayer().getHeight()*2), 0);
@@ -0,0 +1,43 @@
+package com.glaikunt.framework.game.map.nav;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+
+public class NavEdge implements Connection<NavNode> {
+
+    public enum Type {
+        WALK,
+        FALL,
+        JUMP
+    }
+
+    private final NavNode from;
+    private final NavNode to;
+    private final Type type;
+    private final float cost;
+
+    NavEdge(NavNode from, NavNode to, Type type, float cost) {
+        this.from = from;
+        this.to = to;
+        this.type = type;
+        this.cost = cost;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    @Override
+    public float getCost() {
+        return cost;
+    }
+
+    @Override
+    public NavNode getFromNode() {
+        return from;
+    }
+
+    @Override
+    public NavNode getToNode() {
+        return to;
+    }
+}
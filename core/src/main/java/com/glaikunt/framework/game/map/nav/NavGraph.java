@@ -0,0 +1,222 @@
+package com.glaikunt.framework.game.map.nav;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedGraph;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.glaikunt.framework.esc.system.PlayerInputSystem;
+import com.glaikunt.framework.esc.system.physics.PhysicConstants;
+import com.glaikunt.framework.esc.system.physics.VelocityDecaySystem;
+import com.glaikunt.framework.game.GameConstants;
+import com.glaikunt.framework.game.map.NavTerrain;
+
+import java.util.Arrays;
+
+/**
+ * Where an enemy can stand and how it gets from one standing spot to the next.
+ * Walk to a neighbouring spot, step off a ledge and fall, or jump up / across as far as a full jump reaches.
+ * Built from the {@link NavTerrain}, rebuild it when that changes.
+ */
+public class NavGraph implements IndexedGraph<NavNode> {
+
+    private static final float WALK_COST = 1f;
+    static final float FALL_COST = 0.5f; // per tile dropped, falling is cheap
+    private static final float JUMP_COST = 2f;
+
+    private final NavTerrain terrain;
+    private final int jumpHeight;
+    private final int jumpReach;
+
+    private final Array<NavNode> nodes = new Array<>();
+    private int[] nodeAt;
+
+    public NavGraph(NavTerrain terrain) {
+        this.terrain = terrain;
+        this.jumpHeight = Math.max(1, MathUtils.floor(jumpRise(1f) / terrain.getTileHeight()));
+        this.jumpReach = jumpHeight + 1;
+        build();
+    }
+
+    public void build() {
+        int width = terrain.getWidth();
+        int height = terrain.getHeight();
+        nodes.clear();
+        nodeAt = new int[width * height];
+        Arrays.fill(nodeAt, -1);
+
+        for (int ty = 0; ty < height; ty++) {
+            for (int tx = 0; tx < width; tx++) {
+                if (isStanding(tx, ty)) {
+                    nodeAt[ty * width + tx] = nodes.size;
+                    nodes.add(new NavNode(nodes.size, tx, ty));
+                }
+            }
+        }
+
+        for (int n = 0; n < nodes.size; n++) {
+            NavNode node = nodes.get(n);
+            connectSide(node, -1);
+            connectSide(node, 1);
+            connectJumps(node);
+        }
+    }
+
+    private void connectSide(NavNode node, int dx) {
+        int tx = node.tx + dx;
+        int ty = node.ty;
+        if (terrain.isBlocked(tx, ty)) {
+            return;
+        }
+        NavNode walk = node(tx, ty);
+        if (walk != null) {
+            node.edges.add(new NavEdge(node, walk, NavEdge.Type.WALK, WALK_COST));
+            return;
+        }
+        // nothing underneath, drop until there is
+        int y = ty - 1;
+        while (y >= 0 && !terrain.isBlocked(tx, y)) {
+            NavNode land = node(tx, y);
+            if (land != null) {
+                node.edges.add(new NavEdge(node, land, NavEdge.Type.FALL, WALK_COST + (ty - y) * FALL_COST));
+                return;
+            }
+            y--;
+        }
+    }
+
+    private void connectJumps(NavNode node) {
+        // straight up first, as high as there's headroom
+        int top = node.ty;
+        while (top - node.ty < jumpHeight && !terrain.isBlocked(node.tx, top + 1)) {
+            top++;
+        }
+        for (int y = node.ty; y <= top; y++) {
+            for (int side = -1; side <= 1; side += 2) {
+                // then across at that height until something's in the way
+                for (int dx = 1; dx <= jumpReach; dx++) {
+                    int tx = node.tx + side * dx;
+                    if (terrain.isBlocked(tx, y)) {
+                        break;
+                    }
+                    NavNode land = node(tx, y);
+                    if (land == null || (y == node.ty && dx == 1)) {
+                        continue; // walking covers the next tile over
+                    }
+                    if (hasEdge(node, land)) {
+                        continue;
+                    }
+                    node.edges.add(new NavEdge(node, land, NavEdge.Type.JUMP, JUMP_COST + (y - node.ty) + dx));
+                }
+            }
+        }
+    }
+
+    private static boolean hasEdge(NavNode from, NavNode to) {
+        for (int i = 0; i < from.edges.size; i++) {
+            if (from.edges.get(i).getToNode() == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isStanding(int tx, int ty) {
+        return !terrain.isBlocked(tx, ty) && terrain.inside(tx, ty - 1) && terrain.isBlocked(tx, ty - 1);
+    }
+
+    /**
+     * @return the standing spot at the tile, or null
+     */
+    public NavNode node(int tx, int ty) {
+        if (!terrain.inside(tx, ty)) {
+            return null;
+        }
+        int n = nodeAt[ty * terrain.getWidth() + tx];
+        return n < 0 ? null : nodes.get(n);
+    }
+
+    /**
+     * @return the first standing spot at or below the point, for anything that's mid air
+     */
+    public NavNode nodeBelow(float x, float y) {
+        int tx = terrain.tileX(x);
+        for (int ty = terrain.tileY(y); ty >= 0; ty--) {
+            if (terrain.isBlocked(tx, ty)) {
+                return null;
+            }
+            NavNode node = node(tx, ty);
+            if (node != null) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    public NavEdge edge(NavNode from, NavNode to) {
+        for (int i = 0; i < from.edges.size; i++) {
+            NavEdge edge = from.edges.get(i);
+            if (edge.getToNode() == to) {
+                return edge;
+            }
+        }
+        return null;
+    }
+
+    public int getJumpHeight() {
+        return jumpHeight;
+    }
+
+    /**
+     * Jump edges are sized for a full strength jump, a cold enemy's falls short of the higher ones
+     *
+     * @param strength of the jump, 0 if it can't jump at all (see EnemyInputSystem#jumpStrength)
+     */
+    public boolean canTake(NavEdge edge, float strength) {
+        if (edge.getType() != NavEdge.Type.JUMP) {
+            return true;
+        }
+        if (strength <= 0) {
+            return false;
+        }
+        int rise = edge.getToNode().ty - edge.getFromNode().ty;
+        return rise <= 0 || jumpRise(strength) >= rise * terrain.getTileHeight();
+    }
+
+    @Override
+    public int getIndex(NavNode node) {
+        return node.index;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodes.size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Array<Connection<NavNode>> getConnections(NavNode fromNode) {
+        return (Array<Connection<NavNode>>) (Array<?>) fromNode.edges;
+    }
+
+    /**
+     * How high a jump goes, stepped the same way the integrators do it
+     *
+     * @param strength 1 for a full strength jump
+     */
+    static float jumpRise(float strength) {
+        float dt = GameConstants.TIME_STEP;
+        float acc = PlayerInputSystem.JUMPING_ACCELERATION * strength;
+        float vel = 0;
+        float rise = 0;
+        float decay = 1f - (VelocityDecaySystem.DECAY_RATE * dt);
+        for (int tick = 0; tick < 600; tick++) {
+            acc += PhysicConstants.GRAVITY * dt;
+            vel = (vel + acc * dt) * decay;
+            if (vel <= 0) {
+                break;
+            }
+            rise += vel;
+        }
+        return rise;
+    }
+}
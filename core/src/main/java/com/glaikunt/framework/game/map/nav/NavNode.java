@@ -0,0 +1,33 @@
+package com.glaikunt.framework.game.map.nav;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * An open tile with something to stand on underneath
+ */
+public class NavNode {
+
+    final int index;
+    final int tx;
+    final int ty;
+    final Array<NavEdge> edges = new Array<>(false, 8, NavEdge.class);
+
+    NavNode(int index, int tx, int ty) {
+        this.index = index;
+        this.tx = tx;
+        this.ty = ty;
+    }
+
+    public int getTx() {
+        return tx;
+    }
+
+    public int getTy() {
+        return ty;
+    }
+
+    @Override
+    public String toString() {
+        return "NavNode{" + tx + "," + ty + '}';
+    }
+}
@@ -0,0 +1,68 @@
+package com.glaikunt.framework.game.map.nav;
+
+import com.badlogic.gdx.ai.pfa.DefaultGraphPath;
+import com.badlogic.gdx.ai.pfa.GraphPath;
+import com.badlogic.gdx.ai.pfa.Heuristic;
+import com.badlogic.gdx.ai.pfa.indexed.IndexedAStarPathFinder;
+import com.badlogic.gdx.utils.LongMap;
+
+/**
+ * A* over the {@link NavGraph}, every path found is kept by (from, to) so a pack chasing the same thing searches once.
+ * Anything that changes the graph has to {@link #invalidate()}.
+ */
+public class NavPathCache {
+
+    private static final int MAX_PATHS = 512; // just starts over past this
+
+    // the cheapest any edge gets per tile, a tile across costs at least a walk and a tile down only a fall,
+    // so it never guesses over and the paths found are the shortest
+    static final Heuristic<NavNode> MANHATTAN = new Heuristic<NavNode>() {
+        @Override
+        public float estimate(NavNode node, NavNode endNode) {
+            return Math.abs(endNode.tx - node.tx) + NavGraph.FALL_COST * Math.abs(endNode.ty - node.ty);
+        }
+    };
+
+    // stands in for "no way there" so a failed search isn't repeated either
+    private static final GraphPath<NavNode> NO_PATH = new DefaultGraphPath<>(0);
+
+    private final NavGraph graph;
+    private final LongMap<GraphPath<NavNode>> paths = new LongMap<>();
+    private IndexedAStarPathFinder<NavNode> finder;
+
+    public NavPathCache(NavGraph graph) {
+        this.graph = graph;
+        this.finder = new IndexedAStarPathFinder<>(graph);
+    }
+
+    /**
+     * @return the nodes from start to end inclusive, or null if end can't be reached. Shared, don't modify.
+     */
+    public GraphPath<NavNode> find(NavNode start, NavNode end) {
+        long key = ((long) start.index << 32) | (end.index & 0xFFFFFFFFL);
+        GraphPath<NavNode> path = paths.get(key);
+        if (path == null) {
+            if (paths.size >= MAX_PATHS) {
+                paths.clear();
+            }
+            DefaultGraphPath<NavNode> found = new DefaultGraphPath<>();
+            path = finder.searchNodePath(start, end, MANHATTAN, found) ? found : NO_PATH;
+            paths.put(key, path);
+        }
+        return path == NO_PATH ? null : path;
+    }
+
+    /**
+     * Rebuilds the graph from its terrain and forgets every path
+     */
+    public void invalidate() {
+        graph.build();
+        paths.clear();
+        // node records are sized to the graph
+        finder = new IndexedAStarPathFinder<>(graph);
+    }
+
+    public NavGraph getGraph() {
+        return graph;
+    }
+}
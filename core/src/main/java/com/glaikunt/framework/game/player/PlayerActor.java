@@ -25,8 +25,8 @@ import com.glaikunt.framework.esc.system.physics.BodyType;
 import com.glaikunt.framework.game.GameConstants;
 import com.glaikunt.framework.pixels.FlamePixelActor;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static com.glaikunt.framework.game.GameConstants.DEBUG;
 
@@ -89,7 +89,7 @@ public class PlayerActor extends CommonActor {
     public void draw(Batch batch, float parentAlpha) {
 
         batch.setColor(warmth.getWarmthFloat(), warmth.getWarmthFloat(), 1.0f, 1f);
-        batch.draw(getEntity().getComponent(AnimationComponent.class).getCurrentFrame(), getX(), getY(), getWidth(), getHeight());
+        batch.draw(getEntity().getComponent(AnimationComponent.class).getCurrentFrame(), getDrawX(), getDrawY(), getWidth(), getHeight());
         batch.setColor(Color.WHITE);
     }
 
@@ -103,16 +103,18 @@ public class PlayerActor extends CommonActor {
 
         animationUpdate();
 
-        cameraUpdate(delta);
-
         if (!getBody().getBeforeContacts().isEmpty()) {
-            if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG, "[P] Before Collide Intersection: " + getBody().getBeforeContacts().size() + ", and body contacts is now: " + getBody().getContactsByBody().size());
-            List<Vector2> collect = getBody().getBeforeContacts().stream().map(ContactComponent::getNormal)
-                    .collect(Collectors.toList());
-            if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG, "[P] Before Collide normal mappings: " + collect);
+            if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG, "[P] Before Collide Intersection: " + getBody().getBeforeContacts().size + ", and body contacts is now: " + getBody().getContactsByBody().size());
+            if (GameConstants.GDX_APP_DEBUG_LOGGING) {
+                List<Vector2> collect = new ArrayList<>();
+                for (ContactComponent contact : getBody().getBeforeContacts()) {
+                    collect.add(contact.getNormal());
+                }
+                Gdx.app.debug(DEBUG, "[P] Before Collide normal mappings: " + collect);
+            }
         }
         if (!getBody().getAfterContacts().isEmpty()) {
-            if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG, "[P] After Collide Intersection: " + getBody().getAfterContacts().size() + ", and body contacts is now: " + getBody().getContactsByBody().size());
+            if (GameConstants.GDX_APP_DEBUG_LOGGING) Gdx.app.debug(DEBUG, "[P] After Collide Intersection: " + getBody().getAfterContacts().size + ", and body contacts is now: " + getBody().getContactsByBody().size());
         }
 
         if (warmth.isOutside()) {
@@ -199,9 +201,15 @@ public class PlayerActor extends CommonActor {
         }
     }
 
-    private void cameraUpdate(float delta) {
-        getStage().getCamera().position.x = MathUtils.lerp(getStage().getCamera().position.x, getX() + (getWidth() / 2), 5 * delta);
-        getStage().getCamera().position.y = MathUtils.lerp(getStage().getCamera().position.y, (getY()) + (getHeight() * 3), 5 * delta);
+    /**
+     * Called once a frame by the screen rather than from act, so the camera keeps up with the interpolated draw position
+     */
+    public void cameraUpdate(float delta) {
+        if (getStage() == null) {
+            return;
+        }
+        getStage().getCamera().position.x = MathUtils.lerp(getStage().getCamera().position.x, getDrawX() + (getWidth() / 2), 5 * delta);
+        getStage().getCamera().position.y = MathUtils.lerp(getStage().getCamera().position.y, (getDrawY()) + (getHeight() * 3), 5 * delta);
 
 //        float newZoom = GameConstants.ZOOM
 //                + tmpVector2.set(getStage().getCamera().position.x, getStage().getCamera().position.y)
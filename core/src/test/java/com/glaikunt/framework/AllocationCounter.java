@@ -0,0 +1,31 @@
+package com.glaikunt.framework;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Bytes the current thread has allocated, HotSpot only.
+ * The reading itself isn't free, take {@link #overhead()} off anything measured with it.
+ */
+public final class AllocationCounter {
+
+    private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private AllocationCounter() {
+    }
+
+    public static long allocated() {
+        return THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * What two back to back readings differ by with nothing in between
+     */
+    public static long overhead() {
+        long least = Long.MAX_VALUE;
+        for (int i = 0; i < 16; i++) {
+            long before = allocated();
+            least = Math.min(least, allocated() - before);
+        }
+        return least;
+    }
+}
@@ -0,0 +1,127 @@
+package com.glaikunt.framework;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.cache.CacheRetriever;
+import com.glaikunt.framework.cache.TextureCache;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Just enough of GL to make Texture objects without a display, so actors that size themselves off their
+ * animation can be built in tests. Nothing ever gets drawn.
+ */
+public final class HeadlessTextures {
+
+    private HeadlessTextures() {
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Class<?> returns = method.getReturnType();
+            if (returns == boolean.class) {
+                return false;
+            } else if (returns == int.class) {
+                return 0;
+            } else if (returns == float.class) {
+                return 0f;
+            } else if (returns == long.class) {
+                return 0L;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Puts a blank texture of the size given in the cache under each key
+     */
+    public static void put(ApplicationResources resources, int width, int height, String... keys) {
+        if (Gdx.gl == null) {
+            Gdx.gl = Gdx.gl20 = stub(GL20.class);
+            Gdx.graphics = stub(Graphics.class);
+        }
+        TextureCache cache;
+        try {
+            // only the loader's meant to fill it
+            Method getTextureCache = CacheRetriever.class.getDeclaredMethod("getTextureCache");
+            getTextureCache.setAccessible(true);
+            cache = (TextureCache) getTextureCache.invoke(resources.getCacheRetriever());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+        for (String key : keys) {
+            cache.getTextureMap().put(key, new Texture(new Blank(width, height)));
+        }
+    }
+
+    private static class Blank implements TextureData {
+
+        private final int width;
+        private final int height;
+
+        Blank(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public TextureDataType getType() {
+            return TextureDataType.Custom;
+        }
+
+        @Override
+        public boolean isPrepared() {
+            return true;
+        }
+
+        @Override
+        public void prepare() {
+        }
+
+        @Override
+        public Pixmap consumePixmap() {
+            return null;
+        }
+
+        @Override
+        public boolean disposePixmap() {
+            return false;
+        }
+
+        @Override
+        public void consumeCustomData(int target) {
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public Pixmap.Format getFormat() {
+            return Pixmap.Format.RGBA8888;
+        }
+
+        @Override
+        public boolean useMipMaps() {
+            return false;
+        }
+
+        @Override
+        public boolean isManaged() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.glaikunt.framework.esc.system;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.LeafTask;
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.ai.btree.branch.Sequence;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.esc.component.behaviour.BehaviourTreeComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.system.physics.BodyComponent;
+import com.glaikunt.framework.game.enemy.AbstractLeafTask;
+import com.glaikunt.framework.game.enemy.Stance;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Two enemies sharing one tree whose action runs for a few steps. The tree is reset after every RUNNING step
+ * so the next enemy starts clean, and the action has to carry on from the blackboard without coming down from the root.
+ */
+public class BehaviourTreeSystemTest {
+
+    private static final int RUN_FOR = 3;
+
+    /**
+     * Counts how often the tree is entered from the root
+     */
+    private static class RootEntry extends LeafTask<Entity> {
+
+        final ObjectIntMap<Entity> entered = new ObjectIntMap<>();
+
+        @Override
+        public Status execute() {
+            entered.getAndIncrement(getObject(), 0, 1);
+            return Status.SUCCEEDED;
+        }
+
+        @Override
+        protected Task<Entity> copyTo(Task<Entity> task) {
+            return null;
+        }
+    }
+
+    /**
+     * RUNNING for a few executes per enemy then done, and remembers which enemy each execute thought it was for
+     */
+    private static class WalkAction extends AbstractLeafTask {
+
+        final ObjectIntMap<Entity> executes = new ObjectIntMap<>();
+        Entity lastFor;
+
+        WalkAction(ApplicationResources applicationResources) {
+            super(applicationResources);
+        }
+
+        @Override
+        public Status execute() {
+            lastFor = getEntity();
+            int count = executes.getAndIncrement(getEntity(), 0, 1) + 1;
+            return count % RUN_FOR == 0 ? Status.SUCCEEDED : Status.RUNNING;
+        }
+    }
+
+    private final Engine engine = new Engine();
+    private RootEntry root;
+    private WalkAction walk;
+    private BehaviourTreeSystem system;
+    private Entity first;
+    private Entity second;
+
+    @Before
+    public void setUp() {
+        root = new RootEntry();
+        walk = new WalkAction(new ApplicationResources(engine));
+        @SuppressWarnings("unchecked")
+        BehaviorTree<Entity> tree = new BehaviorTree<>(new Sequence<>(root, walk));
+        system = new BehaviourTreeSystem(engine);
+        system.setBudgetNanos(Long.MAX_VALUE);
+        engine.addSystem(system);
+        first = addEnemy(tree, 0);
+        second = addEnemy(tree, 100);
+    }
+
+    private Entity addEnemy(BehaviorTree<Entity> tree, float x) {
+        Entity entity = new Entity();
+        BodyComponent body = new BodyComponent();
+        body.set(x, 0, 32, 32);
+        entity.add(body);
+        entity.add(new BlackboardComponent(Stance.PASSIVE));
+        entity.add(new BehaviourTreeComponent(tree));
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    @Test
+    public void runningActionResumesWithoutTheRoot() {
+        for (int frame = 0; frame < RUN_FOR * 2; frame++) {
+            engine.update(1 / 60f);
+        }
+        // each run of the action only came through the root once
+        assertEquals(RUN_FOR * 2, walk.executes.get(first, 0));
+        assertEquals(RUN_FOR * 2, walk.executes.get(second, 0));
+        assertEquals(2, root.entered.get(first, 0));
+        assertEquals(2, root.entered.get(second, 0));
+    }
+
+    @Test
+    public void resumedActionKnowsWhichEnemyItsFor() {
+        engine.update(1 / 60f);
+        assertSame(walk, first.getComponent(BlackboardComponent.class).getRunning());
+        assertSame(walk, second.getComponent(BlackboardComponent.class).getRunning());
+
+        engine.update(1 / 60f);
+        // the second enemy stepped last, and neither resume threw for want of a tree
+        assertSame(second, walk.lastFor);
+        assertEquals(Task.Status.RUNNING, first.getComponent(BlackboardComponent.class).getLastStatus());
+    }
+
+    @Test
+    public void onlyARunningActionIsKept() {
+        for (int frame = 0; frame < RUN_FOR; frame++) {
+            engine.update(1 / 60f);
+        }
+        assertEquals(Task.Status.SUCCEEDED, first.getComponent(BlackboardComponent.class).getLastStatus());
+        assertNull(first.getComponent(BlackboardComponent.class).getRunning());
+        assertNull(second.getComponent(BlackboardComponent.class).getRunning());
+    }
+}
@@ -0,0 +1,106 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.glaikunt.framework.AllocationCounter;
+import com.glaikunt.framework.esc.component.common.PositionComponent;
+import com.glaikunt.framework.esc.component.common.VelocityComponent;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Enemies stood on blocks and walking back and forth into each other, so contacts begin and end every cycle.
+ * Once the pools, maps and grid cells have grown to fit, generating those contacts shouldn't allocate at all.
+ */
+public class CollisionListenerSystemAllocationTest {
+
+    private static final int PAIRS = 64;
+    private static final int CYCLE = 16; // ticks out and back
+
+    private final Engine engine = new Engine();
+    private final BodyComponent[] walkers = new BodyComponent[PAIRS];
+    private final VelocityComponent[] velocities = new VelocityComponent[PAIRS];
+    private CollisionListenerSystem system;
+    private int tick;
+
+    @Before
+    public void setUp() {
+        SpatialHashGrid broadphase = new SpatialHashGrid(SpatialHashGrid.DEFAULT_CELL_SIZE);
+        system = new CollisionListenerSystem(engine, broadphase);
+        engine.addSystem(system);
+        for (int p = 0; p < PAIRS; p++) {
+            float x = (p % 8) * 256;
+            float y = (p / 8) * 128;
+            addBody(BodyType.BLOCK, x - 64, y - 32, 192, 32, false);
+            addBody(BodyType.ENEMY, x + 40, y, 32, 32, true);
+            Entity walker = addBody(BodyType.ENEMY, x, y, 32, 32, true);
+            walkers[p] = walker.getComponent(BodyComponent.class);
+            velocities[p] = walker.getComponent(VelocityComponent.class);
+        }
+    }
+
+    private Entity addBody(BodyType type, float x, float y, float width, float height, boolean moving) {
+        Entity entity = new Entity();
+        BodyComponent body = new BodyComponent();
+        body.set(x, y, width, height);
+        body.setBodyType(type);
+        entity.add(body);
+        if (moving) {
+            entity.add(new VelocityComponent());
+            entity.add(new PositionComponent(x, y));
+        }
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    /**
+     * Walks each walker 1px a tick toward its neighbour for half a cycle and back for the other half
+     */
+    private void step() {
+        float vx = (tick % CYCLE) < CYCLE / 2 ? 1 : -1;
+        for (int p = 0; p < PAIRS; p++) {
+            velocities[p].x = vx;
+        }
+        system.update(1 / 60f);
+        for (int p = 0; p < PAIRS; p++) {
+            walkers[p].x += vx;
+        }
+        tick++;
+    }
+
+    @Test
+    public void contactsBeginAndEnd() {
+        int begun = 0;
+        int ended = 0;
+        for (int i = 0; i < CYCLE * 2; i++) {
+            step();
+            begun += walkers[0].getBeforeContacts().size;
+            ended += walkers[0].getAfterContacts().size;
+        }
+        assertTrue("no contacts begun", begun > 0);
+        assertTrue("no contacts ended", ended > 0);
+    }
+
+    @Test
+    public void steadyStateAllocatesNothing() {
+        // a few cycles so everything has grown to fit
+        for (int i = 0; i < CYCLE * 16; i++) {
+            step();
+        }
+        // best of a few windows, a C2 deopt rebuilds scalar replaced objects now and then but anything this code
+        // allocates per tick turns up in every window
+        long overhead = AllocationCounter.overhead();
+        long allocated = Long.MAX_VALUE;
+        for (int window = 0; window < 4; window++) {
+            long before = AllocationCounter.allocated();
+            for (int i = 0; i < CYCLE * 8; i++) {
+                step();
+            }
+            allocated = Math.min(allocated, AllocationCounter.allocated() - before - overhead);
+        }
+        assertEquals("bytes allocated over " + (CYCLE * 8) + " ticks", 0, allocated);
+    }
+}
@@ -0,0 +1,181 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.core.EntitySystem;
+import com.badlogic.gdx.utils.Array;
+import com.glaikunt.framework.esc.component.common.AccelerationComponent;
+import com.glaikunt.framework.esc.component.common.GravityComponent;
+import com.glaikunt.framework.esc.component.common.PositionComponent;
+import com.glaikunt.framework.esc.component.common.VelocityComponent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The same scene through the separate systems and through the fused IntegratorSystem, wired up the way
+ * GameScreen2D does it. Enemies drop onto floors, walk into each other and a wall, go to sleep and get
+ * woken again, by input before the integrators and by a knock after them, and every body has to be in the same
+ * state after every tick.
+ */
+public class IntegratorSystemTest {
+
+    private static final float DELTA = 1 / 60f;
+    private static final int TICKS = 600;
+    private static final int KNOCK_EVERY = 150;
+    private static final int PUSH_EVERY = 110;
+
+    /**
+     * Stand in for input, sets an enemy walking and jumping every so often and wakes it like the input systems do
+     */
+    private static class PushSystem extends EntitySystem {
+
+        private final Array<Entity> enemies;
+        private int tick;
+
+        PushSystem(Array<Entity> enemies) {
+            this.enemies = enemies;
+        }
+
+        @Override
+        public void update(float delta) {
+            tick++;
+            Entity enemy = enemies.get((tick / PUSH_EVERY) % enemies.size);
+            AccelerationComponent ac = enemy.getComponent(AccelerationComponent.class);
+            ac.x = tick % PUSH_EVERY < 10 ? -40 : 0;
+            if (tick % PUSH_EVERY == 0) {
+                ac.y = 300;
+            }
+            if (ac.x != 0 || ac.y != 0) {
+                enemy.getComponent(BodyComponent.class).wake();
+            }
+        }
+    }
+
+    /**
+     * Stand in for the AI, runs after the physics and knocks a body every so often like an attack does
+     */
+    private static class KnockSystem extends EntitySystem {
+
+        private final Array<Entity> enemies;
+        private int tick;
+
+        KnockSystem(Array<Entity> enemies) {
+            this.enemies = enemies;
+        }
+
+        @Override
+        public void update(float delta) {
+            tick++;
+            if (tick % KNOCK_EVERY != 0) {
+                return;
+            }
+            Entity enemy = enemies.get((tick / KNOCK_EVERY) % enemies.size);
+            enemy.getComponent(VelocityComponent.class).set(4, 6);
+            enemy.getComponent(BodyComponent.class).wake();
+        }
+    }
+
+    private static Engine newScene(boolean fused, Array<Entity> enemies) {
+        Engine engine = new Engine();
+        SpatialHashGrid broadphase = new SpatialHashGrid(SpatialHashGrid.DEFAULT_CELL_SIZE);
+        PhysicsStore store = new PhysicsStore();
+        store.attach(engine);
+        PushSystem push = new PushSystem(enemies);
+        if (fused) {
+            CollisionListenerSystem collisionListener = new CollisionListenerSystem(engine, broadphase);
+            CollisionSystem collision = new CollisionSystem(engine);
+            SleepSystem sleep = new SleepSystem(engine);
+            push.setProcessing(false);
+            collisionListener.setProcessing(false);
+            collision.setProcessing(false);
+            sleep.setProcessing(false);
+            engine.addSystem(push);
+            engine.addSystem(collisionListener);
+            engine.addSystem(collision);
+            engine.addSystem(sleep);
+            engine.addSystem(new IntegratorSystem(store, broadphase, sleep,
+                    new EntitySystem[] {push}, new EntitySystem[] {collisionListener, collision}));
+        } else {
+            engine.addSystem(new GravitySystem(store).handOffAfter(PhysicsStore.AWAKE | PhysicsStore.ACCELERATION));
+            engine.addSystem(push);
+            engine.addSystem(new VelocityIterationsSystem(store).handOffAfter(PhysicsStore.AWAKE | PhysicsStore.ACCELERATION | PhysicsStore.VELOCITY));
+            engine.addSystem(new CollisionListenerSystem(engine, broadphase));
+            engine.addSystem(new CollisionSystem(engine));
+            engine.addSystem(new VelocityDecaySystem(store));
+            engine.addSystem(new PositionIterationsSystem(store, broadphase).handOffAfter(PhysicsStore.ALL));
+            engine.addSystem(new SleepSystem(engine));
+        }
+        engine.addSystem(new KnockSystem(enemies));
+
+        for (int f = 0; f < 4; f++) {
+            float x = f * 400;
+            float y = f * 64;
+            addBlock(engine, x, y, 320, 32);
+            addBlock(engine, x + 288, y + 32, 32, 96);
+            for (int e = 0; e < 4; e++) {
+                Entity enemy = addEnemy(engine, x + 16 + e * 60, y + 48 + e * 20, e % 2 == 0 ? 3 : -2);
+                enemies.add(enemy);
+            }
+        }
+        return engine;
+    }
+
+    private static void addBlock(Engine engine, float x, float y, float width, float height) {
+        Entity entity = new Entity();
+        BodyComponent body = new BodyComponent();
+        body.set(x, y, width, height);
+        body.setBodyType(BodyType.BLOCK);
+        entity.add(body);
+        engine.addEntity(entity);
+    }
+
+    private static Entity addEnemy(Engine engine, float x, float y, float vx) {
+        Entity entity = new Entity();
+        BodyComponent body = new BodyComponent();
+        body.set(x, y, 32, 32);
+        body.setBodyType(BodyType.ENEMY);
+        entity.add(body);
+        VelocityComponent vel = new VelocityComponent();
+        vel.x = vx;
+        entity.add(vel);
+        entity.add(new AccelerationComponent());
+        entity.add(new PositionComponent(x, y));
+        entity.add(new GravityComponent());
+        engine.addEntity(entity);
+        return entity;
+    }
+
+    @Test
+    public void fusedMatchesSeparateFrameForFrame() {
+        Array<Entity> separateEnemies = new Array<>();
+        Array<Entity> fusedEnemies = new Array<>();
+        Engine separate = newScene(false, separateEnemies);
+        Engine fused = newScene(true, fusedEnemies);
+
+        int slept = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            separate.update(DELTA);
+            fused.update(DELTA);
+            for (int i = 0; i < separateEnemies.size; i++) {
+                String at = "tick " + tick + " enemy " + i;
+                Entity a = separateEnemies.get(i);
+                Entity b = fusedEnemies.get(i);
+                BodyComponent bodyA = a.getComponent(BodyComponent.class);
+                BodyComponent bodyB = b.getComponent(BodyComponent.class);
+                assertEquals(at + " awake", bodyA.isAwake(), bodyB.isAwake());
+                assertEquals(at + " x", bodyA.x, bodyB.x, 0f);
+                assertEquals(at + " y", bodyA.y, bodyB.y, 0f);
+                assertEquals(at + " vel x", a.getComponent(VelocityComponent.class).x, b.getComponent(VelocityComponent.class).x, 0f);
+                assertEquals(at + " vel y", a.getComponent(VelocityComponent.class).y, b.getComponent(VelocityComponent.class).y, 0f);
+                assertEquals(at + " contacts", bodyA.getContactFlags(), bodyB.getContactFlags());
+                if (!bodyA.isAwake()) {
+                    slept++;
+                }
+            }
+        }
+        // otherwise the knocks never had anything to wake
+        assertTrue("nothing went to sleep", slept > 0);
+    }
+}
@@ -0,0 +1,167 @@
+package com.glaikunt.framework.esc.system.physics;
+
+import com.badlogic.ashley.core.ComponentMapper;
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.ashley.utils.ImmutableArray;
+import com.glaikunt.framework.application.GameUtils;
+import com.glaikunt.framework.esc.component.common.AccelerationComponent;
+import com.glaikunt.framework.esc.component.common.GravityComponent;
+import com.glaikunt.framework.esc.component.common.PositionComponent;
+import com.glaikunt.framework.esc.component.common.VelocityComponent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 10k bodies through gravity, velocity, decay and position, once over the PhysicsStore and once walking the
+ * components with mappers the way the systems used to. Something writes acceleration on the components
+ * in between, like input does, so the hand offs get used. Both have to land in exactly the same place.
+ * The bodies are left out of the grids, moving them between cells costs the same either way and swamps the rest.
+ */
+public class PhysicsStoreBenchmarkTest {
+
+    private static final int BODIES = 10000;
+    private static final int WARM_UP = 200;
+    private static final int STEPS = 500;
+    private static final float DELTA = 1 / 60f;
+
+    private final ComponentMapper<BodyComponent> bcm = ComponentMapper.getFor(BodyComponent.class);
+    private final ComponentMapper<VelocityComponent> vcm = ComponentMapper.getFor(VelocityComponent.class);
+    private final ComponentMapper<AccelerationComponent> acm = ComponentMapper.getFor(AccelerationComponent.class);
+    private final ComponentMapper<PositionComponent> pcm = ComponentMapper.getFor(PositionComponent.class);
+    private final ComponentMapper<GravityComponent> gcm = ComponentMapper.getFor(GravityComponent.class);
+
+    private static Engine newEngine() {
+        Engine engine = new Engine();
+        for (int i = 0; i < BODIES; i++) {
+            Entity entity = new Entity();
+            BodyComponent body = new BodyComponent();
+            body.set((i % 100) * 40, (i / 100) * 40, 32, 32);
+            body.setBodyType(BodyType.ENEMY);
+            entity.add(body);
+            VelocityComponent vel = new VelocityComponent();
+            vel.set((i % 7) - 3, (i % 5) - 2);
+            entity.add(vel);
+            entity.add(new AccelerationComponent());
+            entity.add(new PositionComponent(body.x, body.y));
+            entity.add(new GravityComponent());
+            engine.addEntity(entity);
+        }
+        return engine;
+    }
+
+    /**
+     * Stand in for input, pushes every other body left or right on the components
+     */
+    private void push(ImmutableArray<Entity> entities, int tick) {
+        for (int i = 0; i < entities.size(); i += 2) {
+            acm.get(entities.get(i)).x = ((tick / 30) & 1) == 0 ? 1 : -1;
+        }
+    }
+
+    private void referenceStep(ImmutableArray<Entity> entities, SpatialHashGrid broadphase, int tick) {
+        for (int i = 0; i < entities.size(); ++i) {
+            Entity entity = entities.get(i);
+            if (!bcm.get(entity).isAwake()) {
+                continue;
+            }
+            GravityComponent gravity = gcm.get(entity);
+            AccelerationComponent acc = acm.get(entity);
+            acc.x += (gravity.x * DELTA);
+            acc.y += (gravity.y * DELTA);
+        }
+        push(entities, tick);
+        for (int i = 0; i < entities.size(); ++i) {
+            Entity entity = entities.get(i);
+            if (!bcm.get(entity).isAwake()) {
+                continue;
+            }
+            AccelerationComponent acc = acm.get(entity);
+            VelocityComponent vel = vcm.get(entity);
+            vel.x = GameUtils.clamp(-VelocityIterationsSystem.MAX_X_V, VelocityIterationsSystem.MAX_X_V, vel.x + (acc.x * DELTA));
+            vel.y = GameUtils.clamp(-VelocityIterationsSystem.MAX_X_V, VelocityIterationsSystem.MAX_X_V, vel.y + (acc.y * DELTA));
+        }
+        float decay = 1f - (VelocityDecaySystem.DECAY_RATE*DELTA);
+        for (int i = 0; i < entities.size(); ++i) {
+            Entity entity = entities.get(i);
+            if (!bcm.get(entity).isAwake()) {
+                continue;
+            }
+            vcm.get(entity).scl(decay);
+        }
+        for (int i = 0; i < entities.size(); ++i) {
+            Entity entity = entities.get(i);
+            PositionComponent pos = pcm.get(entity);
+            pos.snapshot();
+            BodyComponent body = bcm.get(entity);
+            if (!body.isAwake()) {
+                continue;
+            }
+            VelocityComponent vel = vcm.get(entity);
+            pos.x += vel.x;
+            pos.y += vel.y;
+            body.x = pos.x;
+            body.y = pos.y;
+            broadphase.update(body);
+        }
+    }
+
+    @Test
+    public void storeMatchesComponentWalkAt10kBodies() {
+        Engine referenceEngine = newEngine();
+        ImmutableArray<Entity> reference = referenceEngine.getEntitiesFor(PhysicsStore.FAMILY);
+        SpatialHashGrid referenceGrid = new SpatialHashGrid(SpatialHashGrid.DEFAULT_CELL_SIZE);
+
+        Engine storeEngine = newEngine();
+        ImmutableArray<Entity> stored = storeEngine.getEntitiesFor(PhysicsStore.FAMILY);
+        SpatialHashGrid storeGrid = new SpatialHashGrid(SpatialHashGrid.DEFAULT_CELL_SIZE);
+        PhysicsStore store = new PhysicsStore();
+        store.attach(storeEngine);
+        PhysicsStoreSystem gravity = new GravitySystem(store).handOffAfter(PhysicsStore.AWAKE | PhysicsStore.ACCELERATION);
+        PhysicsStoreSystem velocity = new VelocityIterationsSystem(store).handOffAfter(PhysicsStore.AWAKE | PhysicsStore.ACCELERATION | PhysicsStore.VELOCITY);
+        PhysicsStoreSystem decay = new VelocityDecaySystem(store);
+        PhysicsStoreSystem position = new PositionIterationsSystem(store, storeGrid).handOffAfter(PhysicsStore.ALL);
+
+        int tick = 0;
+        for (; tick < WARM_UP; tick++) {
+            referenceStep(reference, referenceGrid, tick);
+            storeStep(gravity, velocity, decay, position, stored, tick);
+        }
+
+        long start = System.nanoTime();
+        for (int t = tick; t < tick + STEPS; t++) {
+            referenceStep(reference, referenceGrid, t);
+        }
+        long referenceNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int t = tick; t < tick + STEPS; t++) {
+            storeStep(gravity, velocity, decay, position, stored, t);
+        }
+        long storeNanos = System.nanoTime() - start;
+
+        System.out.println(String.format("%d bodies, %d steps: components %.1f ns/body, store %.1f ns/body (%.2fx)",
+                BODIES, STEPS, referenceNanos / (double) (BODIES * STEPS), storeNanos / (double) (BODIES * STEPS),
+                referenceNanos / (double) storeNanos));
+
+        for (int i = 0; i < BODIES; i++) {
+            Entity a = reference.get(i);
+            Entity b = stored.get(i);
+            assertEquals(pcm.get(a).x, pcm.get(b).x, 0f);
+            assertEquals(pcm.get(a).y, pcm.get(b).y, 0f);
+            assertEquals(vcm.get(a).x, vcm.get(b).x, 0f);
+            assertEquals(vcm.get(a).y, vcm.get(b).y, 0f);
+            assertEquals(acm.get(a).y, acm.get(b).y, 0f);
+        }
+    }
+
+    private void storeStep(PhysicsStoreSystem gravity, PhysicsStoreSystem velocity, PhysicsStoreSystem decay,
+                           PhysicsStoreSystem position, ImmutableArray<Entity> entities, int tick) {
+        gravity.update(DELTA);
+        push(entities, tick);
+        velocity.update(DELTA);
+        decay.update(DELTA);
+        position.update(DELTA);
+    }
+}
@@ -0,0 +1,79 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.Task;
+import com.glaikunt.framework.AllocationCounter;
+import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.esc.component.behaviour.BehaviourTreeComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import org.junit.Test;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * What each enemy costs for its AI, a tree of its own per enemy the way it used to be against the shared stance tree
+ * plus the per enemy components. Counted as bytes allocated building them, which is what they keep hold of.
+ */
+public class BehaviourMemoryTest {
+
+    private static final int ENEMIES = 2000;
+
+    private final ApplicationResources resources = new ApplicationResources(new Engine());
+
+    private static int conditions(Task<Entity> task) {
+        int count = task instanceof AbstractConditionTask ? 1 : 0;
+        for (int i = 0; i < task.getChildCount(); i++) {
+            count += conditions(task.getChild(i));
+        }
+        return count;
+    }
+
+    private long ownTreeBytes(Stance stance) {
+        Object[] keep = new Object[ENEMIES];
+        long before = AllocationCounter.allocated();
+        for (int i = 0; i < ENEMIES; i++) {
+            keep[i] = new BehaviourTreeComponent(new BehaviorTree<>(BehaviourFactory.getBehaviour(stance, resources)));
+        }
+        return (AllocationCounter.allocated() - before) / keep.length;
+    }
+
+    private long sharedTreeBytes(Stance stance) {
+        BehaviorTree<Entity> template = BehaviourFactory.getTemplate(stance, resources);
+        int slots = conditions(template.getChild(0));
+        Object[] keep = new Object[ENEMIES * 3];
+        long before = AllocationCounter.allocated();
+        for (int i = 0; i < ENEMIES; i++) {
+            BlackboardComponent blackboard = new BlackboardComponent(stance);
+            // every condition cached once, the size it settles at
+            blackboard.setCached(slots - 1, Task.Status.SUCCEEDED);
+            keep[i * 3] = blackboard;
+            keep[i * 3 + 1] = new TargetsComponent();
+            keep[i * 3 + 2] = new BehaviourTreeComponent(BehaviourFactory.getTemplate(stance, resources), BehaviourFactory.getPrefetch(stance, resources));
+        }
+        return (AllocationCounter.allocated() - before) / ENEMIES;
+    }
+
+    @Test
+    public void spawningSharesTheStanceTree() {
+        for (Stance stance : Stance.values()) {
+            assertSame(BehaviourFactory.getTemplate(stance, resources), BehaviourFactory.getTemplate(stance, resources));
+        }
+    }
+
+    @Test
+    public void sharedTreeCostsLessPerEnemy() {
+        for (Stance stance : Stance.values()) {
+            // once to warm up the trace names and class loading
+            ownTreeBytes(stance);
+            sharedTreeBytes(stance);
+
+            long own = ownTreeBytes(stance);
+            long shared = sharedTreeBytes(stance);
+            System.out.println(String.format("%s: own tree %d bytes/enemy, shared tree %d bytes/enemy", stance, own, shared));
+            assertTrue(stance + " own " + own + " shared " + shared, shared * 4 < own);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.glaikunt.framework.game.enemy;
+
+import com.badlogic.ashley.core.Engine;
+import com.badlogic.ashley.core.Entity;
+import com.badlogic.gdx.ai.btree.BehaviorTree;
+import com.badlogic.gdx.ai.btree.branch.Sequence;
+import com.badlogic.gdx.ai.btree.decorator.AlwaysSucceed;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.glaikunt.framework.HeadlessTextures;
+import com.glaikunt.framework.application.ApplicationResources;
+import com.glaikunt.framework.application.ParallelExecutor;
+import com.glaikunt.framework.application.SerialExecutor;
+import com.glaikunt.framework.cache.TextureCache;
+import com.glaikunt.framework.esc.component.behaviour.BehaviourTreeComponent;
+import com.glaikunt.framework.esc.component.behaviour.BlackboardComponent;
+import com.glaikunt.framework.esc.component.common.HealthComponent;
+import com.glaikunt.framework.esc.component.common.PlayerComponent;
+import com.glaikunt.framework.esc.component.movement.EnemyInputComponent;
+import com.glaikunt.framework.esc.component.movement.PlayerInputComponent;
+import com.glaikunt.framework.esc.system.BehaviourTreeSystem;
+import com.glaikunt.framework.esc.system.physics.BodyComponent;
+import com.glaikunt.framework.game.map.BreakableActor;
+import com.glaikunt.framework.game.map.levels.AbstractLevel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The same scene stepped with the conditions sensing ahead on one thread, on four, and not at all (everything
+ * sensed in the step, the way it used to be). Enemies wander about a field of breakables and smash whatever they
+ * pick out, so the readings taken ahead go stale for some of them mid phase, and every blackboard, target and input
+ * has to come out the same after every frame.
+ */
+public class SensingPrefetchTest {
+
+    private static final int WORKERS = 4;
+    private static final int ENEMIES = 64;
+    private static final int FRAMES = 120;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(WORKERS);
+
+    /**
+     * Never runs the prefetch, so every condition senses in the step
+     */
+    private static class NoPrefetch implements ParallelExecutor {
+
+        @Override
+        public void forRange(int count, RangeTask task) {
+        }
+
+        @Override
+        public int getParallelism() {
+            return 1;
+        }
+    }
+
+    /**
+     * Splits the range the way the desktop one does, on real threads
+     */
+    private class ThreadedExecutor implements ParallelExecutor {
+
+        @Override
+        public void forRange(int count, RangeTask task) {
+            int chunk = (count + WORKERS - 1) / WORKERS;
+            Array<Future<?>> running = new Array<>();
+            for (int worker = 0; worker < WORKERS && worker * chunk < count; worker++) {
+                int w = worker;
+                int from = worker * chunk;
+                int to = Math.min(count, from + chunk);
+                running.add(pool.submit(() -> task.run(w, from, to)));
+            }
+            try {
+                for (Future<?> future : running) {
+                    future.get();
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int getParallelism() {
+            return WORKERS;
+        }
+    }
+
+    /**
+     * Hits whatever breakable it's targeting
+     */
+    private static class SmashAction extends AbstractLeafTask {
+
+        SmashAction(ApplicationResources applicationResources) {
+            super(applicationResources);
+        }
+
+        @Override
+        public Status execute() {
+            Entity target = tcm.get(getEntity()).getTargetBreakable();
+            if (target == null) {
+                return Status.FAILED;
+            }
+            target.getComponent(HealthComponent.class).damage(15f);
+            return Status.SUCCEEDED;
+        }
+    }
+
+    private static class Scene {
+
+        final Engine engine = new Engine();
+        final ApplicationResources resources = new ApplicationResources(engine);
+        final Array<Entity> enemies = new Array<>();
+        final Array<BreakableActor> breakables = new Array<>();
+        final AtomicInteger sensedOffMain = new AtomicInteger();
+        final AtomicInteger stale = new AtomicInteger();
+        Entity player;
+
+        Scene(ParallelExecutor executor) {
+            HeadlessTextures.put(resources, 32, 32, TextureCache.BREAKABLE_DEBUG);
+            AbstractLevel level = new AbstractLevel(resources, null, "test") {
+            };
+            for (int x = 0; x < 12; x++) {
+                for (int y = 0; y < 4; y++) {
+                    BreakableActor breakable = new BreakableActor(resources, new Vector2(x * 48, y * 40));
+                    level.getBreakables().add(breakable);
+                    breakables.add(breakable);
+                }
+            }
+
+            Thread main = Thread.currentThread();
+            PlayerNearbyConditionTask playerNearby = new PlayerNearbyConditionTask(resources) {
+                @Override
+                protected int sense(int worker, Entity entity) {
+                    if (Thread.currentThread() != main) {
+                        sensedOffMain.incrementAndGet();
+                    }
+                    return super.sense(worker, entity);
+                }
+            };
+            IsBreakableDirectlyBlockingPathConditionTask breakableBlocking = new IsBreakableDirectlyBlockingPathConditionTask(resources) {
+                @Override
+                protected boolean isStale(Entity entity, int reading, Entity target) {
+                    boolean isStale = super.isStale(entity, reading, target);
+                    if (isStale) {
+                        stale.incrementAndGet();
+                    }
+                    return isStale;
+                }
+            };
+            breakableBlocking.setSlot(0);
+            playerNearby.setSlot(1);
+            ConditionPrefetch prefetch = new ConditionPrefetch();
+            prefetch.add(breakableBlocking);
+            prefetch.add(playerNearby);
+            @SuppressWarnings("unchecked")
+            BehaviorTree<Entity> tree = new BehaviorTree<>(new Sequence<>(
+                    new AlwaysSucceed<>(breakableBlocking), new AlwaysSucceed<>(playerNearby), new SmashAction(resources)));
+
+            BehaviourTreeSystem system = new BehaviourTreeSystem(engine, executor, resources.getTraceRecorder());
+            system.setBudgetNanos(Long.MAX_VALUE);
+            engine.addSystem(system);
+
+            player = new Entity();
+            BodyComponent playerBody = new BodyComponent();
+            playerBody.set(200, 60, 32, 32);
+            player.add(playerBody);
+            player.add(new PlayerInputComponent());
+            player.add(new PlayerComponent());
+            engine.addEntity(player);
+
+            for (int i = 0; i < ENEMIES; i++) {
+                Entity enemy = new Entity();
+                BodyComponent body = new BodyComponent();
+                body.set((i * 37) % 600, (i * 23) % 200, 32, 32);
+                enemy.add(body);
+                enemy.add(new BlackboardComponent(Stance.PASSIVE));
+                enemy.add(new TargetsComponent());
+                enemy.add(new EnemyInputComponent());
+                enemy.add(new EasyAccessComponent(level, player));
+                enemy.add(new BehaviourTreeComponent(tree, prefetch));
+                engine.addEntity(enemy);
+                enemies.add(enemy);
+            }
+        }
+
+        void update(int frame) {
+            BodyComponent playerBody = player.getComponent(BodyComponent.class);
+            playerBody.x = 200 + (frame * 5) % 400;
+            for (int i = 0; i < enemies.size; i++) {
+                BodyComponent body = enemies.get(i).getComponent(BodyComponent.class);
+                body.x += MathUtils.round(((i + frame) % 7) - 3);
+                body.y += MathUtils.round(((i * 3 + frame) % 5) - 2);
+            }
+            engine.update(1 / 60f);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void parallelSensingMatchesSerial() {
+        Scene stepped = new Scene(new NoPrefetch());
+        Scene serial = new Scene(new SerialExecutor());
+        Scene parallel = new Scene(new ThreadedExecutor());
+
+        for (int frame = 0; frame < FRAMES; frame++) {
+            stepped.update(frame);
+            serial.update(frame);
+            parallel.update(frame);
+            assertSame("frame " + frame + " serial", stepped, serial);
+            assertSame("frame " + frame + " parallel", stepped, parallel);
+        }
+        // the workers really did the looking, and some of what they saw was smashed before it got used
+        assertEquals(0, serial.sensedOffMain.get());
+        assertTrue("nothing sensed on the workers", parallel.sensedOffMain.get() > 0);
+        assertTrue("no reading went stale", serial.stale.get() > 0);
+        assertEquals(serial.stale.get(), parallel.stale.get());
+    }
+
+    private static void assertSame(String at, Scene expected, Scene actual) {
+        for (int i = 0; i < ENEMIES; i++) {
+            String enemy = at + " enemy " + i;
+            Entity a = expected.enemies.get(i);
+            Entity b = actual.enemies.get(i);
+            assertEquals(enemy + " status", a.getComponent(BlackboardComponent.class).getLastStatus(),
+                    b.getComponent(BlackboardComponent.class).getLastStatus());
+            assertEquals(enemy + " target", targetIndex(expected, a), targetIndex(actual, b));
+            EnemyInputComponent inputA = a.getComponent(EnemyInputComponent.class);
+            EnemyInputComponent inputB = b.getComponent(EnemyInputComponent.class);
+            assertEquals(enemy + " left", inputA.isMovingLeft(), inputB.isMovingLeft());
+            assertEquals(enemy + " right", inputA.isMovingRight(), inputB.isMovingRight());
+            assertEquals(enemy + " jump", inputA.isJumping(), inputB.isJumping());
+        }
+        for (int i = 0; i < expected.breakables.size; i++) {
+            assertEquals(at + " breakable " + i, health(expected.breakables.get(i)), health(actual.breakables.get(i)), 0f);
+        }
+    }
+
+    private static int targetIndex(Scene scene, Entity enemy) {
+        Entity target = enemy.getComponent(TargetsComponent.class).getTargetBreakable();
+        for (int i = 0; i < scene.breakables.size; i++) {
+            if (scene.breakables.get(i).getEntity() == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static float health(BreakableActor breakable) {
+        return breakable.getEntity().getComponent(HealthComponent.class).getHealth();
+    }
+}
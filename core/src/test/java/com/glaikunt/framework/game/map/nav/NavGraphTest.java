@@ -0,0 +1,114 @@
+package com.glaikunt.framework.game.map.nav;
+
+import com.badlogic.gdx.ai.pfa.Connection;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.glaikunt.framework.esc.component.common.WarmthComponent;
+import com.glaikunt.framework.esc.system.EnemyInputSystem;
+import com.glaikunt.framework.esc.system.physics.BodyType;
+import com.glaikunt.framework.esc.system.physics.TileOccupancyComponent;
+import com.glaikunt.framework.game.map.NavTerrain;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A floor with a tall ledge to fall off on the left and a one tile step to jump up on the right
+ */
+public class NavGraphTest {
+
+    private static final float TILE = 32;
+
+    private static NavGraph newGraph() {
+        TileOccupancyComponent tiles = new TileOccupancyComponent(12, 8, TILE, TILE);
+        tiles.fill(BodyType.BLOCK, new Rectangle(0, 0, 12 * TILE, TILE));
+        tiles.fill(BodyType.BLOCK, new Rectangle(0, TILE, 3 * TILE, 3 * TILE));
+        tiles.fill(BodyType.BLOCK, new Rectangle(8 * TILE, TILE, 4 * TILE, TILE));
+        return new NavGraph(new NavTerrain(tiles));
+    }
+
+    private static NavEdge stepUp(NavGraph graph) {
+        NavEdge edge = graph.edge(graph.node(7, 1), graph.node(8, 2));
+        assertNotNull(edge);
+        assertEquals(NavEdge.Type.JUMP, edge.getType());
+        return edge;
+    }
+
+    @Test
+    public void onlyWarmEnoughEnemiesTakeTheStep() {
+        NavGraph graph = newGraph();
+        NavEdge edge = stepUp(graph);
+        assertTrue(graph.canTake(edge, EnemyInputSystem.jumpStrength(new WarmthComponent(WarmthComponent.WARMTH_MAX))));
+        // the weakest jump's short of a tile
+        assertFalse(graph.canTake(edge, EnemyInputSystem.jumpStrength(new WarmthComponent(20))));
+        assertFalse(graph.canTake(edge, EnemyInputSystem.jumpStrength(new WarmthComponent(WarmthComponent.WARMTH_MIN))));
+        // walking and falling don't need a jump
+        NavEdge walk = graph.edge(graph.node(5, 1), graph.node(6, 1));
+        assertTrue(graph.canTake(walk, 0));
+    }
+
+    @Test
+    public void heuristicNeverGuessesOver() {
+        NavGraph graph = newGraph();
+        int n = graph.getNodeCount();
+        for (int s = 0; s < n; s++) {
+            float[] cost = shortest(graph, s);
+            NavNode start = node(graph, s);
+            for (int e = 0; e < n; e++) {
+                if (cost[e] == Float.MAX_VALUE) {
+                    continue;
+                }
+                NavNode end = node(graph, e);
+                float estimate = NavPathCache.MANHATTAN.estimate(start, end);
+                assertTrue(start + " -> " + end + " estimate " + estimate + " cost " + cost[e], estimate <= cost[e] + 1e-4f);
+            }
+        }
+    }
+
+    private static NavNode node(NavGraph graph, int index) {
+        for (int tx = 0; tx < 12; tx++) {
+            for (int ty = 0; ty < 8; ty++) {
+                NavNode node = graph.node(tx, ty);
+                if (node != null && node.index == index) {
+                    return node;
+                }
+            }
+        }
+        throw new IllegalArgumentException("no node " + index);
+    }
+
+    /**
+     * Plain Dijkstra, the graph's tiny
+     */
+    private static float[] shortest(NavGraph graph, int from) {
+        int n = graph.getNodeCount();
+        float[] cost = new float[n];
+        boolean[] done = new boolean[n];
+        Arrays.fill(cost, Float.MAX_VALUE);
+        cost[from] = 0;
+        for (int round = 0; round < n; round++) {
+            int best = -1;
+            for (int i = 0; i < n; i++) {
+                if (!done[i] && cost[i] != Float.MAX_VALUE && (best < 0 || cost[i] < cost[best])) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            done[best] = true;
+            Array<Connection<NavNode>> edges = graph.getConnections(node(graph, best));
+            for (int i = 0; i < edges.size; i++) {
+                Connection<NavNode> edge = edges.get(i);
+                int to = edge.getToNode().index;
+                cost[to] = Math.min(cost[to], cost[best] + edge.getCost());
+            }
+        }
+        return cost;
+    }
+}
@@ -3,6 +3,10 @@ package com.glaikunt.framework.desktop;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import com.glaikunt.framework.DynamicDisplay;
+import com.glaikunt.framework.application.TraceRecorder;
+
+import java.io.File;
+import java.io.IOException;
 
 /**
  * Conversion to lwjgl3
@@ -12,7 +16,7 @@ import com.glaikunt.framework.DynamicDisplay;
  * https://libgdx.com/news/2021/07/devlog-7-lwjgl3
  */
 public class DesktopLauncher {
-	public static void main (String[] arg) {
+	public static void main (String[] arg) throws IOException {
 		Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
 		config.setTitle("Baltic - LD51");
 		config.useVsync(true);
@@ -23,6 +27,17 @@ public class DesktopLauncher {
 		config.setResizable(false);
 //		new LwjglApplication(new Display2D(), config);
 //		new LwjglApplication(new Display3D(), config);
-		new Lwjgl3Application(new DynamicDisplay(), config);
+		// -Dtrace=file records from the start and dumps to the file, otherwise F9 starts dumping to trace.bin
+		TraceRecorder trace = new TraceRecorder();
+		String traceFile = System.getProperty("trace");
+		TraceDumper dumper = new TraceDumper(trace, new File(traceFile != null ? traceFile : "trace.bin"));
+		if (traceFile != null) {
+			trace.setEnabled(true);
+			dumper.start();
+		} else {
+			dumper.startOnFirstEnable();
+		}
+		new Lwjgl3Application(new DynamicDisplay(new ForkJoinExecutor(), trace), config);
+		dumper.close();
 	}
 }
@@ -0,0 +1,115 @@
+package com.glaikunt.framework.desktop;
+
+import com.glaikunt.framework.application.ParallelExecutor;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Desktop only, GWT can't see this. Work below MIN_CHUNK items per worker isn't worth a hand off and runs on the caller.
+ */
+public class ForkJoinExecutor implements ParallelExecutor {
+
+    private static final int MIN_CHUNK = 16;
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final Chunks root;
+
+    public ForkJoinExecutor() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    public ForkJoinExecutor(int parallelism) {
+        this.parallelism = parallelism;
+        this.pool = new ForkJoinPool(parallelism);
+        this.root = new Chunks(parallelism);
+    }
+
+    @Override
+    public void forRange(int count, RangeTask task) {
+        int chunks = Math.min(parallelism, count / MIN_CHUNK);
+        if (chunks <= 1) {
+            if (count > 0) {
+                task.run(0, 0, count);
+            }
+            return;
+        }
+        root.reinitialize();
+        root.task = task;
+        root.count = count;
+        root.chunks = chunks;
+        try {
+            pool.invoke(root);
+        } finally {
+            root.task = null;
+        }
+    }
+
+    @Override
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Splits the range and runs the first chunk itself, the tasks are kept and reset each call so a forRange
+     * doesn't allocate. That makes it one caller at a time, which is the game thread.
+     */
+    private static class Chunks extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Chunk[] forks;
+        private RangeTask task;
+        private int count;
+        private int chunks;
+
+        Chunks(int parallelism) {
+            forks = new Chunk[parallelism];
+            for (int c = 1; c < parallelism; c++) {
+                forks[c] = new Chunk();
+            }
+        }
+
+        @Override
+        protected void compute() {
+            for (int c = 1; c < chunks; c++) {
+                Chunk fork = forks[c];
+                fork.reinitialize();
+                fork.task = task;
+                fork.worker = c;
+                fork.from = from(c);
+                fork.to = from(c + 1);
+                fork.fork();
+            }
+            try {
+                task.run(0, 0, from(1));
+            } finally {
+                // even if this chunk threw, the next call resets these so they have to be done first
+                for (int c = 1; c < chunks; c++) {
+                    forks[c].join();
+                    forks[c].task = null;
+                }
+            }
+        }
+
+        private int from(int chunk) {
+            return (int) ((long) count * chunk / chunks);
+        }
+    }
+
+    private static class Chunk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private RangeTask task;
+        private int worker;
+        private int from;
+        private int to;
+
+        @Override
+        protected void compute() {
+            task.run(worker, from, to);
+        }
+    }
+}
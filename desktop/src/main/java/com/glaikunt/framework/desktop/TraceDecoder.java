@@ -0,0 +1,120 @@
+package com.glaikunt.framework.desktop;
+
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.utils.IntMap;
+import com.badlogic.gdx.utils.NumberUtils;
+import com.glaikunt.framework.Ansi;
+import com.glaikunt.framework.application.TraceEvent;
+import com.glaikunt.framework.application.TraceRecorder;
+import com.glaikunt.framework.esc.system.physics.BodyType;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Prints a {@link TraceDumper} file the way the old behaviour logging did, run it with the file as the only argument
+ */
+public class TraceDecoder {
+
+    private static final TraceEvent[] EVENTS = TraceEvent.values();
+    private static final Task.Status[] STATUSES = Task.Status.values();
+    private static final BodyType[] BODY_TYPES = BodyType.values();
+
+    private final IntMap<String> names = new IntMap<>();
+    private final int[] record = new int[TraceRecorder.RECORD_INTS];
+    private final PrintStream out;
+
+    public TraceDecoder(PrintStream out) {
+        this.out = out;
+    }
+
+    public static void main(String[] arg) throws IOException {
+        if (arg.length != 1) {
+            System.err.println("usage: TraceDecoder <trace file>");
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(arg[0]), 1 << 16))) {
+            new TraceDecoder(System.out).decode(in);
+        }
+    }
+
+    public void decode(DataInputStream in) throws IOException {
+        if (in.readInt() != TraceDumper.MAGIC) {
+            throw new IOException("not a trace file");
+        }
+        int version = in.readInt();
+        if (version != TraceDumper.VERSION) {
+            throw new IOException("trace file version " + version + ", expected " + TraceDumper.VERSION);
+        }
+        while (true) {
+            byte tag;
+            try {
+                tag = in.readByte();
+            } catch (EOFException e) {
+                return;
+            }
+            switch (tag) {
+                case TraceDumper.NAME:
+                    names.put(in.readInt(), in.readUTF());
+                    break;
+                case TraceDumper.RECORDS:
+                    int count = in.readInt();
+                    for (int r = 0; r < count; r++) {
+                        for (int i = 0; i < record.length; i++) {
+                            record[i] = in.readInt();
+                        }
+                        print(record);
+                    }
+                    break;
+                case TraceDumper.DROPPED:
+                    out.println(Ansi.whiteOnRed("... " + in.readLong() + " records dropped ..."));
+                    break;
+                default:
+                    throw new IOException("unknown block " + tag);
+            }
+        }
+    }
+
+    private void print(int[] r) {
+        int frame = r[0];
+        TraceEvent event = EVENTS[r[1]];
+        int entity = r[2];
+        int task = r[3];
+        float a = NumberUtils.intBitsToFloat(r[5]);
+        float b = NumberUtils.intBitsToFloat(r[6]);
+        float c = NumberUtils.intBitsToFloat(r[7]);
+        switch (event) {
+            case TREE_STEP:
+                out.println("Frame: " + frame + " [E] " + entity + " behaviorTree.step() " + status(r[4]) + (c != 0 ? Ansi.cyan(" (resumed)") : ""));
+                break;
+            case CONDITION:
+                out.println(Ansi.red("[AI] ") + Ansi.yellow("execute " + names.get(task, "#" + task)) + Ansi.purple(" E:" + entity));
+                out.println(Ansi.red("  |- ") + status(r[4]) + (c != 0 ? Ansi.cyan(" (cached)") : ""));
+                break;
+            case ACTION:
+                out.println(Ansi.red("[AI] ") + Ansi.yellow("execute " + names.get(task, "#" + task)) + Ansi.purple(" E:" + entity));
+                out.println(Ansi.red("  |- ") + Ansi.purple("bodyC: ") + Ansi.yellow("[" + a + "," + b + "]") + (c != 0 ? Ansi.cyan(" note: " + c) : ""));
+                out.println(Ansi.red("  |- ") + status(r[4]));
+                break;
+            case CONTACT:
+                out.println("Frame: " + frame + " [C] " + entity + " -> " + task + " " + BODY_TYPES[r[4]] + " contact normal: (" + a + "," + b + ") toi: " + c);
+                break;
+            case ENEMY_CONTACTS:
+                out.println("Frame: " + frame + " [E] " + entity + " Before Collide Intersection: " + (int) a + ", After Collide Intersection: " + (int) b + ", and body contacts is now: " + (int) c);
+                break;
+        }
+    }
+
+    private static String status(int ordinal) {
+        Task.Status status = STATUSES[ordinal];
+        switch (status) {
+            case SUCCEEDED: return Ansi.green("Status." + status);
+            case FAILED: return Ansi.red("Status." + status);
+            default: return Ansi.yellow("Status." + status);
+        }
+    }
+}
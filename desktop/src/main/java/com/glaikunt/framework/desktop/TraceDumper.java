@@ -0,0 +1,159 @@
+package com.glaikunt.framework.desktop;
+
+import com.glaikunt.framework.application.TraceRecorder;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Desktop only. Copies whatever the TraceRecorder has written out to a file every FLUSH_MILLIS on its own thread,
+ * read it back with {@link TraceDecoder}. If the game gets a whole ring ahead between flushes the lapped records are lost,
+ * the file says how many. Nothing's opened until it starts, see {@link #startOnFirstEnable()}.
+ *
+ * File is MAGIC, VERSION, then blocks each starting with a tag byte:
+ *  NAME    id, utf name
+ *  RECORDS count, then count * RECORD_INTS ints
+ *  DROPPED count
+ */
+public class TraceDumper implements Runnable {
+
+    static final int MAGIC = 0x4C445452; // LDTR
+    static final int VERSION = 1;
+    static final byte NAME = 1;
+    static final byte RECORDS = 2;
+    static final byte DROPPED = 3;
+
+    private static final long FLUSH_MILLIS = 100;
+
+    private final TraceRecorder recorder;
+    private final File file;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private DataOutputStream out;
+    private int[] buffer;
+
+    private long cursor;
+    private int namesWritten;
+    private long dropped;
+
+    public TraceDumper(TraceRecorder recorder, File file) {
+        this.recorder = recorder;
+        this.file = file;
+        this.thread = new Thread(this, "trace-dumper");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() throws IOException {
+        open();
+        thread.start();
+    }
+
+    /**
+     * Starts the first time recording gets switched on (F9), so the ring's never filled with nobody reading it
+     */
+    public void startOnFirstEnable() {
+        recorder.setOnFirstEnable(() -> {
+            try {
+                start();
+            } catch (IOException e) {
+                System.err.println("trace dump not started: " + e);
+            }
+        });
+    }
+
+    void open() throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16));
+        buffer = new int[recorder.getCapacity() * TraceRecorder.RECORD_INTS];
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    /**
+     * Stops the thread after one last flush and closes the file, if it ever started
+     */
+    public void close() {
+        running = false;
+        if (!thread.isAlive()) {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) {
+                }
+            }
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                flush();
+                try {
+                    Thread.sleep(FLUSH_MILLIS);
+                } catch (InterruptedException e) {
+                    // closing, fall through to the last flush
+                }
+            }
+            flush();
+        } catch (IOException e) {
+            System.err.println("trace dump stopped: " + e);
+        } finally {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    void flush() throws IOException {
+        // names first so the decoder has them before any record that uses them
+        int names = recorder.getNameCount();
+        for (; namesWritten < names; namesWritten++) {
+            out.writeByte(NAME);
+            out.writeInt(namesWritten);
+            out.writeUTF(recorder.getName(namesWritten));
+        }
+
+        int capacity = recorder.getCapacity();
+        long written = recorder.getWritten();
+        long from = Math.max(cursor, written - capacity);
+        int count = (int) (written - from);
+        long lost = from - cursor;
+        int skip = 0;
+        if (count > 0) {
+            recorder.copy(from, count, buffer);
+            // the writer may have come round again while that was copying, anything in the slots it reached is suspect
+            long safeFrom = recorder.getWritten() - capacity + 1;
+            skip = (int) Math.max(0, Math.min(count, safeFrom - from));
+            lost += skip;
+        }
+        if (lost > 0) {
+            out.writeByte(DROPPED);
+            out.writeLong(lost);
+            dropped += lost;
+        }
+        if (skip < count) {
+            out.writeByte(RECORDS);
+            out.writeInt(count - skip);
+            for (int i = skip * TraceRecorder.RECORD_INTS; i < count * TraceRecorder.RECORD_INTS; i++) {
+                out.writeInt(buffer[i]);
+            }
+        }
+        cursor = written;
+        out.flush();
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
@@ -0,0 +1,65 @@
+package com.glaikunt.framework.desktop;
+
+import com.glaikunt.framework.application.ParallelExecutor;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * The chunk tasks are reused from call to call, so every call has to cover its whole range exactly once
+ * whatever the previous one was, including one that threw.
+ */
+public class ForkJoinExecutorTest {
+
+    private static final int PARALLELISM = 4;
+
+    private final ForkJoinExecutor executor = new ForkJoinExecutor(PARALLELISM);
+
+    private void assertCoversOnce(int count) {
+        AtomicIntegerArray hits = new AtomicIntegerArray(Math.max(count, 1));
+        executor.forRange(count, (worker, from, to) -> {
+            assertTrue("worker " + worker, worker >= 0 && worker < PARALLELISM);
+            for (int i = from; i < to; i++) {
+                hits.incrementAndGet(i);
+            }
+        });
+        for (int i = 0; i < count; i++) {
+            assertEquals("count " + count + " index " + i, 1, hits.get(i));
+        }
+    }
+
+    @Test
+    public void reusedCallsCoverTheRangeOnce() {
+        for (int round = 0; round < 200; round++) {
+            assertCoversOnce(round * 7);
+        }
+        assertCoversOnce(100000);
+        assertCoversOnce(33);
+    }
+
+    @Test
+    public void stillWorksAfterATaskThrows() {
+        try {
+            executor.forRange(1000, (worker, from, to) -> {
+                if (worker == PARALLELISM - 1) {
+                    throw new IllegalStateException("boom");
+                }
+            });
+            fail("should have thrown");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("boom"));
+        }
+        assertCoversOnce(1000);
+    }
+
+    @Test
+    public void smallRangesRunOnTheCaller() {
+        Thread caller = Thread.currentThread();
+        ParallelExecutor.RangeTask task = (worker, from, to) -> assertEquals(caller, Thread.currentThread());
+        executor.forRange(8, task);
+    }
+}
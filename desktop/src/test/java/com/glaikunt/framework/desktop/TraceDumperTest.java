@@ -0,0 +1,188 @@
+package com.glaikunt.framework.desktop;
+
+import com.badlogic.gdx.ai.btree.Task;
+import com.badlogic.gdx.utils.IntArray;
+import com.glaikunt.framework.application.TraceEvent;
+import com.glaikunt.framework.application.TraceRecorder;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Records go into the ring, out through the dumper and back through the decoder. Tree steps carry their record number
+ * as the entity so the decoded output says exactly which ones made it.
+ */
+public class TraceDumperTest {
+
+    private static final int CAPACITY = 16;
+    private static final Pattern STEP = Pattern.compile("\\[E\\] (\\d+) behaviorTree\\.step\\(\\)");
+    private static final Pattern DROPPED = Pattern.compile("\\.\\.\\. (\\d+) records dropped");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Writes over the start of the ring while the dumper's copying out of it, once, like the game thread getting ahead
+     */
+    private static class LappingRecorder extends TraceRecorder {
+
+        private int lapBy;
+
+        LappingRecorder() {
+            super(CAPACITY);
+        }
+
+        @Override
+        public void copy(long from, int count, int[] out) {
+            super.copy(from, count, out);
+            for (; lapBy > 0; lapBy--) {
+                step(this, (int) getWritten());
+            }
+        }
+    }
+
+    private static void step(TraceRecorder trace, int n) {
+        trace.record(TraceEvent.TREE_STEP, n, -1, Task.Status.SUCCEEDED.ordinal(), 0, 0, 0);
+    }
+
+    private static void steps(TraceRecorder trace, int from, int to) {
+        for (int n = from; n < to; n++) {
+            step(trace, n);
+        }
+    }
+
+    private static String decode(File file) throws IOException {
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            new TraceDecoder(new PrintStream(text, true, "UTF-8")).decode(in);
+        }
+        return text.toString("UTF-8");
+    }
+
+    private static IntArray stepped(String decoded) {
+        IntArray steps = new IntArray();
+        Matcher matcher = STEP.matcher(decoded);
+        while (matcher.find()) {
+            steps.add(Integer.parseInt(matcher.group(1)));
+        }
+        return steps;
+    }
+
+    private static long dropped(String decoded) {
+        long dropped = 0;
+        Matcher matcher = DROPPED.matcher(decoded);
+        while (matcher.find()) {
+            dropped += Long.parseLong(matcher.group(1));
+        }
+        return dropped;
+    }
+
+    private static void assertSteps(IntArray steps, int from, int to) {
+        assertEquals(steps.toString(), to - from, steps.size);
+        for (int i = 0; i < steps.size; i++) {
+            assertEquals(steps.toString(), from + i, steps.get(i));
+        }
+    }
+
+    @Test
+    public void roundTripsEverythingItKeptUpWith() throws IOException {
+        File file = folder.newFile();
+        TraceRecorder trace = new TraceRecorder(CAPACITY);
+        int nearby = trace.register("PlayerNearbyConditionTask");
+        trace.setEnabled(true);
+        TraceDumper dumper = new TraceDumper(trace, file);
+        dumper.open();
+
+        steps(trace, 0, 10);
+        dumper.flush();
+        trace.record(TraceEvent.CONDITION, 3, nearby, Task.Status.FAILED.ordinal(), 1, 2, 1);
+        trace.record(TraceEvent.ENEMY_CONTACTS, 3, -1, 0, 2, 1, 4);
+        dumper.flush();
+        steps(trace, 10, 20);
+        dumper.flush();
+        dumper.close();
+
+        String decoded = decode(file);
+        assertSteps(stepped(decoded), 0, 20);
+        assertEquals(0, dumper.getDropped());
+        assertFalse(decoded, decoded.contains("dropped"));
+        assertTrue(decoded, decoded.contains("execute PlayerNearbyConditionTask"));
+        assertTrue(decoded, decoded.contains("Before Collide Intersection: 2, After Collide Intersection: 1, and body contacts is now: 4"));
+    }
+
+    @Test
+    public void countsWhatTheWriterLappedBetweenFlushes() throws IOException {
+        File file = folder.newFile();
+        TraceRecorder trace = new TraceRecorder(CAPACITY);
+        trace.setEnabled(true);
+        TraceDumper dumper = new TraceDumper(trace, file);
+        dumper.open();
+
+        steps(trace, 0, 5);
+        dumper.flush();
+        // more than a whole ring before the next flush, the oldest 14 are gone
+        // and the one after them could have been half written over by the next record
+        steps(trace, 5, 35);
+        dumper.flush();
+        dumper.close();
+
+        String decoded = decode(file);
+        IntArray steps = stepped(decoded);
+        assertEquals(15, dropped(decoded));
+        assertEquals(15, dumper.getDropped());
+        assertEquals(5 + CAPACITY - 1, steps.size);
+        assertSteps(new IntArray(true, steps.items, 0, 5), 0, 5);
+        assertSteps(new IntArray(true, steps.items, 5, CAPACITY - 1), 35 - CAPACITY + 1, 35);
+    }
+
+    @Test
+    public void dropsWhatTheWriterLappedWhileCopying() throws IOException {
+        File file = folder.newFile();
+        LappingRecorder trace = new LappingRecorder();
+        trace.setEnabled(true);
+        TraceDumper dumper = new TraceDumper(trace, file);
+        dumper.open();
+
+        steps(trace, 0, 15);
+        // records 16 and 17 land on slots 0 and 1 mid copy, 0 to 2 can't be trusted
+        trace.lapBy = 3;
+        dumper.flush();
+        dumper.flush();
+        dumper.close();
+
+        String decoded = decode(file);
+        assertEquals(3, dropped(decoded));
+        assertEquals(3, dumper.getDropped());
+        assertSteps(stepped(decoded), 3, 18);
+    }
+
+    @Test
+    public void startsOnTheFirstEnable() throws IOException {
+        File file = new File(folder.getRoot(), "lazy.bin");
+        TraceRecorder trace = new TraceRecorder(CAPACITY);
+        TraceDumper dumper = new TraceDumper(trace, file);
+        dumper.startOnFirstEnable();
+        assertFalse("opened before anything was recorded", file.exists());
+
+        trace.setEnabled(true);
+        steps(trace, 0, 8);
+        dumper.close();
+
+        String decoded = decode(file);
+        assertSteps(stepped(decoded), 0, 8);
+    }
+}